@@ -38,6 +38,16 @@ android {
     buildFeatures {
         compose = true
     }
+    // Migration tests create old database versions from the exported schemas
+    sourceSets["androidTest"].assets.srcDir("$projectDir/schemas")
+}
+
+// Room writes one JSON schema per database version here; commit them with schema changes.
+// ./export-room-schemas.sh rebuilds every version's schema from its own revision
+kapt {
+    arguments {
+        arg("room.schemaLocation", "$projectDir/schemas")
+    }
 }
 
 dependencies {
@@ -61,8 +71,16 @@ dependencies {
     // Room database
     implementation("androidx.room:room-runtime:2.6.1")
     implementation("androidx.room:room-ktx:2.6.1")
+    implementation("androidx.room:room-paging:2.6.1")
     kapt("androidx.room:room-compiler:2.6.1")
 
+    // Idle-time database maintenance
+    implementation("androidx.work:work-runtime-ktx:2.9.1")
+
+    // Paging for long saved-location lists
+    implementation("androidx.paging:paging-runtime-ktx:3.2.1")
+    implementation("androidx.paging:paging-compose:3.2.1")
+
     // Networking
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
     implementation("com.squareup.retrofit2:converter-gson:2.9.0")
@@ -79,9 +97,13 @@ dependencies {
     implementation("androidx.lifecycle:lifecycle-livedata-ktx:2.7.0")
     implementation("androidx.lifecycle:lifecycle-viewmodel-compose:2.7.0")
 
+    // App-wide foreground/background events
+    implementation("androidx.lifecycle:lifecycle-process:2.7.0")
+
     testImplementation(libs.junit)
     androidTestImplementation(libs.androidx.junit)
     androidTestImplementation(libs.androidx.espresso.core)
+    androidTestImplementation("androidx.room:room-testing:2.6.1")
     androidTestImplementation(platform(libs.androidx.compose.bom))
     androidTestImplementation(libs.androidx.ui.test.junit4)
     debugImplementation(libs.androidx.ui.tooling)
@@ -0,0 +1,134 @@
+package com.example.whetherornot.data.database
+
+import android.content.Context
+import androidx.room.InvalidationTracker
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.example.whetherornot.data.model.ZipCodeResponse
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Retention and compaction against a file-backed database
+ */
+@RunWith(AndroidJUnit4::class)
+class DatabaseMaintenanceTest {
+
+    private companion object {
+        const val TEST_DB = "maintenance-test"
+        const val NOW = 1_000_000L
+    }
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+    private lateinit var database: WeatherDatabase
+
+    private val policy = DatabaseMaintenance.RetentionPolicy(
+        maxHistory = 10,
+        maxHistoryAgeMillis = 100_000L,
+        maxSnapshotAgeMillis = 50_000L
+    )
+
+    @Before
+    fun setUp() {
+        context.deleteDatabase(TEST_DB)
+        database = Room.databaseBuilder(context, WeatherDatabase::class.java, TEST_DB)
+            .addCallback(WeatherDatabase.connectionCallback)
+            .build()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+        context.deleteDatabase(TEST_DB)
+    }
+
+    @Test
+    fun run_evictsLeastRecentNonFavoritesAndKeepsFavorites() = runBlocking {
+        val dao = database.locationDao()
+        // 20 recent non-favorites, one long-unsearched non-favorite, and two very old favorites
+        dao.insertLocations((0 until 20).map { i -> location("%05d".format(i), searchedAt = NOW - i * 1_000L) })
+        dao.insertLocation(location("99999", searchedAt = NOW - 200_000L))
+        dao.insertLocation(location("55802", searchedAt = 0L, isFavorite = true))
+        dao.insertLocation(location("55812", searchedAt = 1L, isFavorite = true))
+
+        val result = DatabaseMaintenance(database, policy) { NOW }.run()
+
+        assertEquals(11, result.evictedLocations)
+        assertEquals(12, dao.getLocationCount())
+        assertEquals(2, dao.getFavoriteCount())
+        // The 10 most recently searched non-favorites survive
+        assertNotNull(dao.getLocationByZip("00009"))
+        assertNull(dao.getLocationByZip("00010"))
+        assertNull(dao.getLocationByZip("99999"))
+    }
+
+    @Test
+    fun run_dropsOldSnapshots() = runBlocking {
+        val snapshotDao = database.weatherSnapshotDao()
+        snapshotDao.insertSnapshot(snapshot("fresh:imperial", fetchedAt = NOW - 1_000L))
+        snapshotDao.insertSnapshot(snapshot("old:imperial", fetchedAt = NOW - 60_000L))
+
+        val result = DatabaseMaintenance(database, policy) { NOW }.run()
+
+        assertEquals(1, result.evictedSnapshots)
+        assertNotNull(snapshotDao.getSnapshot("fresh:imperial"))
+        assertNull(snapshotDao.getSnapshot("old:imperial"))
+    }
+
+    @Test
+    fun run_switchesDatabaseToIncrementalVacuum() = runBlocking {
+        DatabaseMaintenance(database, policy) { NOW }.run()
+
+        val mode = database.openHelper.readableDatabase.query("PRAGMA auto_vacuum").use { cursor ->
+            cursor.moveToFirst()
+            cursor.getInt(0)
+        }
+        // 2 = INCREMENTAL
+        assertEquals(2, mode)
+    }
+
+    @Test
+    fun run_vacuumKeepsFullTextSearchInStep() = runBlocking {
+        val dao = database.locationDao()
+        dao.insertLocations((0 until 20).map { i -> location("%05d".format(i), searchedAt = NOW - i * 1_000L) })
+        // Leave rowid gaps for VACUUM to close
+        dao.deleteNonFavoritesBeyond(5)
+        dao.insertLocation(location("55802", searchedAt = NOW, isFavorite = true).copy(name = "Duluth"))
+
+        DatabaseMaintenance(database, policy) { NOW }.run()
+
+        val match = LocationSearch.matchExpression("duluth")!!
+        val found = dao.searchLocations(match, "duluth", favoritesOnly = false).first()
+        assertEquals(listOf("55802"), found.map { it.zip })
+    }
+
+    @Test
+    fun run_rebuildAfterVacuum_notifiesSearchObservers() = runBlocking {
+        // An empty database has nothing to evict, so only the full-text rebuild can notify
+        val notified = CountDownLatch(1)
+        database.invalidationTracker.addObserver(object : InvalidationTracker.Observer("saved_locations_fts") {
+            override fun onInvalidated(tables: Set<String>) = notified.countDown()
+        })
+
+        DatabaseMaintenance(database, policy) { NOW }.run()
+
+        assertTrue(notified.await(5, TimeUnit.SECONDS))
+    }
+
+    private fun location(zip: String, searchedAt: Long, isFavorite: Boolean = false) =
+        ZipCodeResponse(zip, "Town $zip", 46.8, -92.1, "US", searchedAt, isFavorite)
+
+    private fun snapshot(key: String, fetchedAt: Long) =
+        WeatherSnapshotEntity(key, "imperial", 46.8, -92.1, fetchedAt, byteArrayOf(1))
+}
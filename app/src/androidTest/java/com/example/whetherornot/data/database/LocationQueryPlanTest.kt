@@ -0,0 +1,105 @@
+package com.example.whetherornot.data.database
+
+import android.content.Context
+import androidx.room.Room
+import androidx.sqlite.db.SupportSQLiteDatabase
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.example.whetherornot.data.model.ZipCodeResponse
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Checks with EXPLAIN QUERY PLAN that the hot [LocationDao] queries are served by an
+ * index instead of a table scan plus sort, so list queries stay fast as history grows
+ */
+@RunWith(AndroidJUnit4::class)
+class LocationQueryPlanTest {
+
+    private lateinit var database: WeatherDatabase
+
+    @Before
+    fun setUp() {
+        val context: Context = ApplicationProvider.getApplicationContext()
+        database = Room.inMemoryDatabaseBuilder(context, WeatherDatabase::class.java).build()
+        runBlocking {
+            database.locationDao().insertLocations(
+                (0 until 2_000).map { i ->
+                    ZipCodeResponse(
+                        zip = "%05d".format(i),
+                        name = "Town $i",
+                        lat = 46.0,
+                        lon = -92.0,
+                        country = "US",
+                        searchedAt = i.toLong(),
+                        isFavorite = i % 50 == 0
+                    )
+                }
+            )
+        }
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun recentLocations_walkSearchedAtIndexWithoutSorting() {
+        val plan = queryPlan(LocationQueries.ALL_BY_RECENCY)
+
+        assertTrue(plan, plan.contains("index_saved_locations_searchedAt"))
+        assertFalse(plan, plan.contains("TEMP B-TREE"))
+    }
+
+    @Test
+    fun recentSummaries_stopAfterLimitOnSearchedAtIndex() {
+        val plan = queryPlan(LocationQueries.RECENT_SUMMARIES, 9)
+
+        assertTrue(plan, plan.contains("index_saved_locations_searchedAt"))
+        assertFalse(plan, plan.contains("TEMP B-TREE"))
+    }
+
+    @Test
+    fun favoriteLocations_searchFavoriteNameIndexWithoutSorting() {
+        val plan = queryPlan(LocationQueries.FAVORITES_BY_NAME)
+
+        assertTrue(plan, plan.contains("SEARCH"))
+        assertTrue(plan, plan.contains("index_saved_locations_isFavorite_name"))
+        assertFalse(plan, plan.contains("TEMP B-TREE"))
+    }
+
+    @Test
+    fun favoriteCount_isAnsweredFromCoveringIndex() {
+        val plan = queryPlan(LocationQueries.FAVORITE_COUNT)
+
+        assertTrue(plan, plan.contains("COVERING INDEX index_saved_locations_isFavorite_name"))
+    }
+
+    @Test
+    fun locationByZip_usesPrimaryKeyIndex() {
+        val plan = queryPlan(LocationQueries.LOCATION_BY_ZIP, "55802")
+
+        assertTrue(plan, plan.contains("SEARCH"))
+        assertTrue(plan, plan.contains("(zip=?)"))
+    }
+
+    /**
+     * Plan details for [sql], one step per line
+     * Named parameters such as :limit are bound by position from [args].
+     */
+    private fun queryPlan(sql: String, vararg args: Any): String {
+        val db: SupportSQLiteDatabase = database.openHelper.readableDatabase
+        return db.query("EXPLAIN QUERY PLAN $sql", args).use { cursor ->
+            val detail = cursor.getColumnIndexOrThrow("detail")
+            buildList {
+                while (cursor.moveToNext()) add(cursor.getString(detail))
+            }.joinToString("\n")
+        }
+    }
+}
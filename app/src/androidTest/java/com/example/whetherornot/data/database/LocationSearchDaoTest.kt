@@ -0,0 +1,90 @@
+package com.example.whetherornot.data.database
+
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.example.whetherornot.data.model.ZipCodeResponse
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Full-text saved location search against a real database, including index sync
+ */
+@RunWith(AndroidJUnit4::class)
+class LocationSearchDaoTest {
+
+    private lateinit var database: WeatherDatabase
+    private lateinit var dao: LocationDao
+
+    @Before
+    fun setUp() {
+        val context: Context = ApplicationProvider.getApplicationContext()
+        database = Room.inMemoryDatabaseBuilder(context, WeatherDatabase::class.java)
+            .addCallback(WeatherDatabase.connectionCallback)
+            .build()
+        dao = database.locationDao()
+        runBlocking {
+            dao.insertLocations(
+                listOf(
+                    location("55802", "Duluth", searchedAt = 1_000L),
+                    location("55101", "Saint Paul", searchedAt = 3_000L),
+                    location("55812", "Duluth Heights", searchedAt = 2_000L, isFavorite = true),
+                    location("90210", "Beverly Hills", searchedAt = 4_000L)
+                )
+            )
+        }
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun namePrefix_ranksFavoritesThenRecent() = runBlocking {
+        assertEquals(listOf("55812", "55802"), search("dul"))
+    }
+
+    @Test
+    fun zipPrefix_matchesZips() = runBlocking {
+        assertEquals(listOf("55812", "55802"), search("558"))
+        assertEquals(listOf("55802"), search("55802"))
+    }
+
+    @Test
+    fun multipleWords_mustAllMatch() = runBlocking {
+        assertEquals(listOf("55101"), search("saint pa"))
+    }
+
+    @Test
+    fun favoritesOnly_filtersMatches() = runBlocking {
+        assertEquals(listOf("55812"), search("dul", favoritesOnly = true))
+    }
+
+    @Test
+    fun index_followsUpdatesDeletesAndReplaces() = runBlocking {
+        dao.updateLocation(location("90210", "Los Angeles", searchedAt = 4_000L))
+        assertEquals(emptyList<String>(), search("bev"))
+        assertEquals(listOf("90210"), search("los"))
+
+        dao.deleteLocationByZip("55101")
+        assertEquals(emptyList<String>(), search("saint"))
+
+        // REPLACE deletes and reinserts the row under the same zip
+        dao.insertLocation(location("55802", "Duluth Harbor", searchedAt = 5_000L))
+        assertEquals(listOf("55802"), search("harbor"))
+        assertEquals(listOf("55802", "55812"), search("duluth").sorted())
+    }
+
+    private suspend fun search(query: String, favoritesOnly: Boolean = false): List<String> =
+        dao.searchLocations(LocationSearch.matchExpression(query)!!, query, favoritesOnly).first().map { it.zip }
+
+    private fun location(zip: String, name: String, searchedAt: Long, isFavorite: Boolean = false) =
+        ZipCodeResponse(zip, name, 46.8, -92.1, "US", searchedAt, isFavorite)
+}
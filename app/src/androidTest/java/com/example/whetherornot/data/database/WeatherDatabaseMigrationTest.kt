@@ -0,0 +1,121 @@
+package com.example.whetherornot.data.database
+
+import android.content.Context
+import androidx.room.Room
+import androidx.room.testing.MigrationTestHelper
+import androidx.sqlite.db.SupportSQLiteDatabase
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Upgrades databases written by older app versions through [DatabaseMigrations]
+ * Old versions are created from the exported schemas in app/schemas, and every migrated
+ * database is validated against the latest exported schema, so a missing or wrong step
+ * fails here.
+ */
+@RunWith(AndroidJUnit4::class)
+class WeatherDatabaseMigrationTest {
+
+    private companion object {
+        const val TEST_DB = "migration-test"
+        const val LATEST_VERSION = 4
+    }
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+
+    @get:Rule
+    val helper = MigrationTestHelper(InstrumentationRegistry.getInstrumentation(), WeatherDatabase::class.java)
+
+    @Test
+    fun migrate1ToLatest_keepsSavedLocationsAndFavorites() {
+        helper.createDatabase(TEST_DB, 1).apply {
+            insertLocation(this, "55802", "Duluth", searchedAt = 1_000L, isFavorite = true)
+            insertLocation(this, "90210", "Beverly Hills", searchedAt = 2_000L, isFavorite = false)
+            close()
+        }
+
+        helper.runMigrationsAndValidate(TEST_DB, LATEST_VERSION, true, *DatabaseMigrations.ALL).close()
+
+        val database = openMigrated()
+        try {
+            runBlocking {
+                val duluth = database.locationDao().getLocationByZip("55802")
+                assertNotNull(duluth)
+                assertTrue(duluth!!.isFavorite)
+                assertEquals(1_000L, duluth.searchedAt)
+                assertEquals(2, database.locationDao().getLocationCount())
+                assertEquals(0, database.weatherSnapshotDao().getSnapshotCount())
+
+                // Rows from before the full-text index existed are searchable
+                val matches = database.locationDao().searchLocations("bev*", "bev", favoritesOnly = false).first()
+                assertEquals(listOf("90210"), matches.map { it.zip })
+            }
+        } finally {
+            database.close()
+        }
+    }
+
+    @Test
+    fun migrate2ToLatest_keepsStoredSnapshotsAndAddsIndexes() {
+        helper.createDatabase(TEST_DB, 2).apply {
+            insertLocation(this, "55802", "Duluth", searchedAt = 1_000L, isFavorite = false)
+            execSQL(
+                "INSERT INTO weather_snapshots (locationKey, units, latitude, longitude, fetchedAt, payload) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                arrayOf<Any>("cbr8x:imperial", "imperial", 46.8384, -92.18, 5_000L, byteArrayOf(1, 2, 3))
+            )
+            close()
+        }
+
+        helper.runMigrationsAndValidate(TEST_DB, LATEST_VERSION, true, *DatabaseMigrations.ALL).close()
+
+        val database = openMigrated()
+        try {
+            runBlocking {
+                val snapshot = database.weatherSnapshotDao().getSnapshot("cbr8x:imperial")
+                assertNotNull(snapshot)
+                assertEquals(5_000L, snapshot!!.fetchedAt)
+                assertEquals(1, database.locationDao().getLocationCount())
+            }
+            val indexes = indexNames(database.openHelper.readableDatabase)
+            assertTrue(indexes.toString(), "index_saved_locations_searchedAt" in indexes)
+            assertTrue(indexes.toString(), "index_saved_locations_isFavorite_name" in indexes)
+        } finally {
+            database.close()
+        }
+    }
+
+    /**
+     * The migrated file opened through Room, as the app would open it
+     */
+    private fun openMigrated(): WeatherDatabase =
+        Room.databaseBuilder(context, WeatherDatabase::class.java, TEST_DB)
+            .addMigrations(*DatabaseMigrations.ALL)
+            .addCallback(WeatherDatabase.connectionCallback)
+            .build()
+            .also { it.openHelper.writableDatabase }
+
+    private fun insertLocation(db: SupportSQLiteDatabase, zip: String, name: String, searchedAt: Long, isFavorite: Boolean) {
+        db.execSQL(
+            "INSERT INTO saved_locations (zip, name, lat, lon, country, searchedAt, isFavorite) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)",
+            arrayOf<Any>(zip, name, 46.8, -92.1, "US", searchedAt, if (isFavorite) 1 else 0)
+        )
+    }
+
+    private fun indexNames(db: SupportSQLiteDatabase): Set<String> =
+        db.query("SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = 'saved_locations'").use { cursor ->
+            buildSet {
+                while (cursor.moveToNext()) add(cursor.getString(0))
+            }
+        }
+}
@@ -0,0 +1,92 @@
+package com.example.whetherornot.data.repository
+
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.example.whetherornot.data.database.LocationDao
+import com.example.whetherornot.data.database.WeatherDatabase
+import com.example.whetherornot.data.model.ZipCodeResponse
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Upserting saved locations directly and through the write-behind queue
+ */
+@RunWith(AndroidJUnit4::class)
+class LocationWriteQueueTest {
+
+    private lateinit var database: WeatherDatabase
+    private lateinit var dao: LocationDao
+
+    @Before
+    fun setUp() {
+        val context: Context = ApplicationProvider.getApplicationContext()
+        database = Room.inMemoryDatabaseBuilder(context, WeatherDatabase::class.java)
+            .addCallback(WeatherDatabase.connectionCallback)
+            .build()
+        dao = database.locationDao()
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun upsert_keepsFavoriteAndBumpsSearchedAt() = runBlocking {
+        dao.insertLocation(location("55802", "Duluth", searchedAt = 1_000L, isFavorite = true))
+
+        dao.upsertLocation("55802", "Duluth, MN", 46.8, -92.1, "US", searchedAt = 9_000L, isFavorite = false)
+
+        val saved = dao.getLocationByZip("55802")
+        assertNotNull(saved)
+        assertTrue(saved!!.isFavorite)
+        assertEquals(9_000L, saved.searchedAt)
+        assertEquals("Duluth, MN", saved.name)
+    }
+
+    @Test
+    fun upsert_insertsNewLocation() = runBlocking {
+        dao.upsertLocation("90210", "Beverly Hills", 34.1, -118.4, "US", searchedAt = 2_000L, isFavorite = false)
+
+        assertEquals(1, dao.getLocationCount())
+        assertEquals(2_000L, dao.getLocationByZip("90210")!!.searchedAt)
+    }
+
+    @Test
+    fun queue_coalescesRepeatedSavesIntoLatest() = runBlocking {
+        val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+        try {
+            // Long delay so only the explicit flush writes
+            val queue = LocationWriteQueue(database, scope, flushDelayMillis = 60_000L)
+            queue.enqueue(location("55802", "Duluth", searchedAt = 0L), searchedAt = 1_000L)
+            queue.enqueue(location("90210", "Beverly Hills", searchedAt = 0L), searchedAt = 2_000L)
+            queue.enqueue(location("55802", "Duluth, MN", searchedAt = 0L), searchedAt = 3_000L)
+            assertEquals(0, dao.getLocationCount())
+
+            queue.flush()
+
+            assertEquals(2, dao.getLocationCount())
+            val duluth = dao.getLocationByZip("55802")!!
+            assertEquals("Duluth, MN", duluth.name)
+            assertEquals(3_000L, duluth.searchedAt)
+        } finally {
+            // Drop the pending delayed flush so it cannot outlive the database
+            scope.cancel()
+        }
+    }
+
+    private fun location(zip: String, name: String, searchedAt: Long, isFavorite: Boolean = false) =
+        ZipCodeResponse(zip, name, 46.8, -92.1, "US", searchedAt, isFavorite)
+}
@@ -19,24 +19,30 @@ import androidx.compose.ui.graphics.graphicsLayer
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import coil.compose.AsyncImage
-import com.example.whetherornot.data.model.CurrentWeather
 import com.example.whetherornot.ui.theme.WhetherOrNotTheme
-import com.google.gson.Gson
-import java.text.SimpleDateFormat
-import java.util.*
+import com.example.whetherornot.data.cache.WeatherStore
+import com.example.whetherornot.ui.rememberStoredWeather
 
 class CurrentWeatherDetailActivity : ComponentActivity() {
+
+    companion object {
+        /**
+         * [WeatherStore] key of the payload whose current conditions are shown
+         */
+        const val EXTRA_SNAPSHOT_KEY = "snapshot_key"
+    }
+
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
         enableEdgeToEdge()
 
-        val currentWeatherJson = intent.getStringExtra("current_weather_json")
+        val snapshotKey = intent.getStringExtra(EXTRA_SNAPSHOT_KEY)
         val location = intent.getStringExtra("location") ?: "Unknown Location"
 
         setContent {
             WhetherOrNotTheme {
                 CurrentWeatherDetailScreen(
-                    currentWeatherJson = currentWeatherJson,
+                    snapshotKey = snapshotKey,
                     location = location,
                     onBackClick = { finish() }
                 )
@@ -48,19 +54,12 @@ class CurrentWeatherDetailActivity : ComponentActivity() {
 @OptIn(ExperimentalMaterial3Api::class)
 @Composable
 fun CurrentWeatherDetailScreen(
-    currentWeatherJson: String?,
+    snapshotKey: String?,
     location: String,
     onBackClick: () -> Unit
 ) {
-    val currentWeather = remember(currentWeatherJson) {
-        currentWeatherJson?.let {
-            try {
-                Gson().fromJson(it, CurrentWeather::class.java)
-            } catch (e: Exception) {
-                null
-            }
-        }
-    }
+    val storedWeather by rememberStoredWeather(snapshotKey)
+    val currentWeather = storedWeather?.display?.current
 
     Column(
         modifier = Modifier
@@ -112,27 +111,23 @@ fun CurrentWeatherDetailScreen(
                         modifier = Modifier.padding(bottom = 8.dp)
                     )
 
-                    val currentDate = Date(weather.dt * 1000)
-                    val dayFormatter = SimpleDateFormat("EEEE, MMMM d, yyyy", Locale.getDefault())
                     Text(
-                        text = dayFormatter.format(currentDate),
+                        text = weather.fullDate,
                         style = MaterialTheme.typography.bodyMedium,
                         modifier = Modifier.padding(bottom = 16.dp)
                     )
 
                     // Weather icon and description
-                    weather.weather.firstOrNull()?.let { weatherInfo ->
+                    weather.iconCode?.let { iconCode ->
                         AsyncImage(
-                            model = "https://openweathermap.org/img/wn/${weatherInfo.icon}@4x.png",
-                            contentDescription = weatherInfo.description,
+                            model = "https://openweathermap.org/img/wn/${iconCode}@4x.png",
+                            contentDescription = weather.description,
                             modifier = Modifier
                                 .size(120.dp)
                                 .padding(bottom = 8.dp)
                         )
                         Text(
-                            text = weatherInfo.description.replaceFirstChar {
-                                if (it.isLowerCase()) it.titlecase(Locale.getDefault()) else it.toString()
-                            },
+                            text = weather.description.orEmpty(),
                             style = MaterialTheme.typography.titleMedium,
                             modifier = Modifier.padding(bottom = 16.dp)
                         )
@@ -140,14 +135,14 @@ fun CurrentWeatherDetailScreen(
 
                     // Temperature
                     Text(
-                        text = "${weather.temp.toInt()}°F",
+                        text = weather.temperature,
                         style = MaterialTheme.typography.displayLarge,
                         fontWeight = FontWeight.Bold,
                         modifier = Modifier.padding(bottom = 8.dp)
                     )
 
                     Text(
-                        text = "Feels like ${weather.feelsLike.toInt()}°F",
+                        text = weather.feelsLike,
                         style = MaterialTheme.typography.bodyLarge,
                         modifier = Modifier.padding(bottom = 24.dp)
                     )
@@ -160,13 +155,13 @@ fun CurrentWeatherDetailScreen(
                         // Wind information
                         WeatherDetailRow(
                             label = "Wind",
-                            value = "${weather.windSpeed.toInt()} mph",
+                            value = weather.windSpeed,
                             extra = {
                                 Text(
                                     text = "↑",
                                     style = MaterialTheme.typography.bodyLarge,
                                     modifier = Modifier.graphicsLayer {
-                                        rotationZ = weather.windDeg.toFloat()
+                                        rotationZ = weather.windDegrees
                                     }
                                 )
                             }
@@ -175,50 +170,49 @@ fun CurrentWeatherDetailScreen(
                         weather.windGust?.let { gust ->
                             WeatherDetailRow(
                                 label = "Wind Gust",
-                                value = "${gust.toInt()} mph"
+                                value = gust
                             )
                         }
 
                         WeatherDetailRow(
                             label = "Humidity",
-                            value = "${weather.humidity}%"
+                            value = weather.humidity
                         )
 
                         WeatherDetailRow(
                             label = "Pressure",
-                            value = "${weather.pressure} hPa"
+                            value = weather.pressure
                         )
 
                         WeatherDetailRow(
                             label = "Visibility",
-                            value = "${(weather.visibility / 1609.344).toInt()} miles"
+                            value = weather.visibility
                         )
 
                         WeatherDetailRow(
                             label = "UV Index",
-                            value = "${weather.uvi}"
+                            value = weather.uvIndex
                         )
 
                         WeatherDetailRow(
                             label = "Dew Point",
-                            value = "${weather.dewPoint.toInt()}°F"
+                            value = weather.dewPoint
                         )
 
                         WeatherDetailRow(
                             label = "Cloud Cover",
-                            value = "${weather.clouds}%"
+                            value = weather.cloudCover
                         )
 
                         // Sunrise and Sunset
-                        val timeFormatter = SimpleDateFormat("h:mm a", Locale.getDefault())
                         WeatherDetailRow(
                             label = "Sunrise",
-                            value = timeFormatter.format(Date(weather.sunrise * 1000))
+                            value = weather.sunrise
                         )
 
                         WeatherDetailRow(
                             label = "Sunset",
-                            value = timeFormatter.format(Date(weather.sunset * 1000))
+                            value = weather.sunset
                         )
                     }
                 }
@@ -19,24 +19,37 @@ import androidx.compose.ui.graphics.graphicsLayer
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import coil.compose.AsyncImage
-import com.example.whetherornot.data.model.DailyWeather
 import com.example.whetherornot.ui.theme.WhetherOrNotTheme
-import com.google.gson.Gson
-import java.text.SimpleDateFormat
-import java.util.*
+import com.example.whetherornot.data.cache.WeatherStore
+import com.example.whetherornot.ui.rememberStoredWeather
 
 class DailyWeatherDetailActivity : ComponentActivity() {
+
+    companion object {
+        /**
+         * [WeatherStore] key of the payload holding the forecast
+         */
+        const val EXTRA_SNAPSHOT_KEY = "snapshot_key"
+
+        /**
+         * Position of the day within the payload's daily forecast
+         */
+        const val EXTRA_DAY_INDEX = "day_index"
+    }
+
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
         enableEdgeToEdge()
 
-        val dailyWeatherJson = intent.getStringExtra("daily_weather_json")
+        val snapshotKey = intent.getStringExtra(EXTRA_SNAPSHOT_KEY)
+        val dayIndex = intent.getIntExtra(EXTRA_DAY_INDEX, 0)
         val location = intent.getStringExtra("location") ?: "Unknown Location"
 
         setContent {
             WhetherOrNotTheme {
                 DailyWeatherDetailScreen(
-                    dailyWeatherJson = dailyWeatherJson,
+                    snapshotKey = snapshotKey,
+                    dayIndex = dayIndex,
                     location = location,
                     onBackClick = { finish() }
                 )
@@ -48,19 +61,13 @@ class DailyWeatherDetailActivity : ComponentActivity() {
 @OptIn(ExperimentalMaterial3Api::class)
 @Composable
 fun DailyWeatherDetailScreen(
-    dailyWeatherJson: String?,
+    snapshotKey: String?,
+    dayIndex: Int,
     location: String,
     onBackClick: () -> Unit
 ) {
-    val dailyWeather = remember(dailyWeatherJson) {
-        dailyWeatherJson?.let {
-            try {
-                Gson().fromJson(it, DailyWeather::class.java)
-            } catch (e: Exception) {
-                null
-            }
-        }
-    }
+    val storedWeather by rememberStoredWeather(snapshotKey)
+    val dailyWeather = storedWeather?.display?.daily?.getOrNull(dayIndex)
 
     Column(
         modifier = Modifier
@@ -112,27 +119,23 @@ fun DailyWeatherDetailScreen(
                         modifier = Modifier.padding(bottom = 8.dp)
                     )
 
-                    val forecastDate = Date(weather.dt * 1000)
-                    val dayFormatter = SimpleDateFormat("EEEE, MMMM d, yyyy", Locale.getDefault())
                     Text(
-                        text = dayFormatter.format(forecastDate),
+                        text = weather.fullDate,
                         style = MaterialTheme.typography.bodyMedium,
                         modifier = Modifier.padding(bottom = 16.dp)
                     )
 
                     // Weather icon and description
-                    weather.weather.firstOrNull()?.let { weatherInfo ->
+                    weather.iconCode?.let { iconCode ->
                         AsyncImage(
-                            model = "https://openweathermap.org/img/wn/${weatherInfo.icon}@4x.png",
-                            contentDescription = weatherInfo.description,
+                            model = "https://openweathermap.org/img/wn/${iconCode}@4x.png",
+                            contentDescription = weather.description,
                             modifier = Modifier
                                 .size(120.dp)
                                 .padding(bottom = 8.dp)
                         )
                         Text(
-                            text = weatherInfo.description.replaceFirstChar {
-                                if (it.isLowerCase()) it.titlecase(Locale.getDefault()) else it.toString()
-                            },
+                            text = weather.description.orEmpty(),
                             style = MaterialTheme.typography.titleMedium,
                             modifier = Modifier.padding(bottom = 8.dp)
                         )
@@ -167,7 +170,7 @@ fun DailyWeatherDetailScreen(
                                     fontWeight = FontWeight.Bold
                                 )
                                 Text(
-                                    text = "${weather.temp.max.toInt()}°F",
+                                    text = weather.highWithUnit,
                                     style = MaterialTheme.typography.headlineMedium,
                                     fontWeight = FontWeight.Bold
                                 )
@@ -189,7 +192,7 @@ fun DailyWeatherDetailScreen(
                                     fontWeight = FontWeight.Bold
                                 )
                                 Text(
-                                    text = "${weather.temp.min.toInt()}°F",
+                                    text = weather.lowWithUnit,
                                     style = MaterialTheme.typography.headlineMedium,
                                     fontWeight = FontWeight.Bold
                                 )
@@ -211,10 +214,10 @@ fun DailyWeatherDetailScreen(
                             .padding(bottom = 24.dp),
                         verticalArrangement = Arrangement.spacedBy(8.dp)
                     ) {
-                        WeatherDetailRow("Morning", "${weather.temp.morn.toInt()}°F")
-                        WeatherDetailRow("Day", "${weather.temp.day.toInt()}°F")
-                        WeatherDetailRow("Evening", "${weather.temp.eve.toInt()}°F")
-                        WeatherDetailRow("Night", "${weather.temp.night.toInt()}°F")
+                        WeatherDetailRow("Morning", weather.morning)
+                        WeatherDetailRow("Day", weather.day)
+                        WeatherDetailRow("Evening", weather.evening)
+                        WeatherDetailRow("Night", weather.night)
                     }
 
                     // Feels like temperatures
@@ -231,10 +234,10 @@ fun DailyWeatherDetailScreen(
                             .padding(bottom = 24.dp),
                         verticalArrangement = Arrangement.spacedBy(8.dp)
                     ) {
-                        WeatherDetailRow("Morning", "${weather.feelsLike.morn.toInt()}°F")
-                        WeatherDetailRow("Day", "${weather.feelsLike.day.toInt()}°F")
-                        WeatherDetailRow("Evening", "${weather.feelsLike.eve.toInt()}°F")
-                        WeatherDetailRow("Night", "${weather.feelsLike.night.toInt()}°F")
+                        WeatherDetailRow("Morning", weather.feelsLikeMorning)
+                        WeatherDetailRow("Day", weather.feelsLikeDay)
+                        WeatherDetailRow("Evening", weather.feelsLikeEvening)
+                        WeatherDetailRow("Night", weather.feelsLikeNight)
                     }
 
                     // Weather details
@@ -252,13 +255,13 @@ fun DailyWeatherDetailScreen(
                         // Wind information
                         WeatherDetailRow(
                             label = "Wind",
-                            value = "${weather.windSpeed.toInt()} mph",
+                            value = weather.windSpeed,
                             extra = {
                                 Text(
                                     text = "↑",
                                     style = MaterialTheme.typography.bodyLarge,
                                     modifier = Modifier.graphicsLayer {
-                                        rotationZ = weather.windDeg.toFloat()
+                                        rotationZ = weather.windDegrees
                                     }
                                 )
                             }
@@ -267,65 +270,64 @@ fun DailyWeatherDetailScreen(
                         weather.windGust?.let { gust ->
                             WeatherDetailRow(
                                 label = "Wind Gust",
-                                value = "${gust.toInt()} mph"
+                                value = gust
                             )
                         }
 
                         WeatherDetailRow(
                             label = "Humidity",
-                            value = "${weather.humidity}%"
+                            value = weather.humidity
                         )
 
                         WeatherDetailRow(
                             label = "Pressure",
-                            value = "${weather.pressure} hPa"
+                            value = weather.pressure
                         )
 
                         WeatherDetailRow(
                             label = "UV Index",
-                            value = "${weather.uvi}"
+                            value = weather.uvIndex
                         )
 
                         WeatherDetailRow(
                             label = "Dew Point",
-                            value = "${weather.dewPoint.toInt()}°F"
+                            value = weather.dewPoint
                         )
 
                         WeatherDetailRow(
                             label = "Cloud Cover",
-                            value = "${weather.clouds}%"
+                            value = weather.cloudCover
                         )
 
                         WeatherDetailRow(
                             label = "Chance of Rain",
-                            value = "${(weather.pop * 100).toInt()}%"
+                            value = weather.chanceOfRain
                         )
 
                         WeatherDetailRow(
                             label = "Moon Phase",
-                            value = "${(weather.moonPhase * 100).toInt()}%"
+                            value = weather.moonPhase
                         )
 
                         // Sunrise and Sunset
-                        val timeFormatter = SimpleDateFormat("h:mm a", Locale.getDefault())
                         WeatherDetailRow(
                             label = "Sunrise",
-                            value = timeFormatter.format(Date(weather.sunrise * 1000))
+                            value = weather.sunrise
                         )
 
                         WeatherDetailRow(
                             label = "Sunset",
-                            value = timeFormatter.format(Date(weather.sunset * 1000))
+                            value = weather.sunset
                         )
 
                         WeatherDetailRow(
                             label = "Moonrise",
-                            value = timeFormatter.format(Date(weather.moonrise * 1000))
+                            value = weather.moonrise
                         )
 
                         WeatherDetailRow(
                             label = "Moonset",
-                            value = timeFormatter.format(Date(weather.moonset * 1000))
+                            value = weather.moonset
                         )
                     }
                 }
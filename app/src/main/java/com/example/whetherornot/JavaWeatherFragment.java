@@ -11,8 +11,15 @@ import android.widget.ScrollView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
 import androidx.fragment.app.Fragment;
+import com.example.whetherornot.data.model.WeatherResult;
 import com.example.whetherornot.data.repository.JavaWeatherRepository;
+import com.example.whetherornot.ui.JsonHighlighter;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * Java-based Fragment for weather functionality
@@ -23,6 +30,9 @@ public class JavaWeatherFragment extends Fragment {
 
     private static final String TAG = "JavaWeatherFragment";
 
+    // Pretty-prints, highlights and measures the JSON so the UI thread only draws it
+    private static final Executor textExecutor = Executors.newSingleThreadExecutor();
+
     private TextView titleTextView;
     private TextView locationTextView;
     private Button fetchDataButton;
@@ -34,6 +44,9 @@ public class JavaWeatherFragment extends Fragment {
 
     private JavaWeatherRepository repository;
 
+    // Bumped on every fetch so a slow render of an older response is dropped
+    private int renderGeneration;
+
     // Test coordinates: Duluth, MN
     private static final double LATITUDE = 46.8384;
     private static final double LONGITUDE = -92.1800;
@@ -176,21 +189,13 @@ public class JavaWeatherFragment extends Fragment {
             Log.d(TAG, "fetchWeatherData: Loading state shown");
 
             Log.d(TAG, "fetchWeatherData: Making API call with lat=" + LATITUDE + ", lon=" + LONGITUDE);
-            repository.getWeatherDataAsJson(LATITUDE, LONGITUDE, new JavaWeatherRepository.JsonDataCallback() {
+            int generation = ++renderGeneration;
+            repository.getWeatherResult(LATITUDE, LONGITUDE, new JavaWeatherRepository.WeatherResultCallback() {
                 @Override
-                public void onSuccess(String jsonData) {
-                    Log.d(TAG, "API Success: Received data length: " + (jsonData != null ? jsonData.length() : "null"));
-                    // Update UI on main thread
-                    if (getActivity() != null && isAdded()) {
-                        getActivity().runOnUiThread(() -> {
-                            try {
-                                Log.d(TAG, "Updating UI with success state");
-                                showSuccessState(jsonData);
-                            } catch (Exception e) {
-                                Log.e(TAG, "Error updating UI with success state", e);
-                                showErrorState("UI update error: " + e.getMessage());
-                            }
-                        });
+                public void onSuccess(WeatherResult weatherResult) {
+                    Log.d(TAG, "API Success: Received weather for " + weatherResult.getResponse().getTimezone());
+                    if (getActivity() != null && isAdded() && jsonContentTextView != null) {
+                        renderJson(weatherResult, generation);
                     } else {
                         Log.w(TAG, "Activity is null or fragment not added, skipping UI update");
                     }
@@ -199,20 +204,11 @@ public class JavaWeatherFragment extends Fragment {
                 @Override
                 public void onError(String errorMessage) {
                     Log.e(TAG, "API Error: " + errorMessage);
-                    // Update UI on main thread
-                    if (getActivity() != null && isAdded()) {
-                        getActivity().runOnUiThread(() -> {
-                            try {
-                                Log.d(TAG, "Updating UI with error state");
-                                showErrorState(errorMessage);
-                            } catch (Exception e) {
-                                Log.e(TAG, "Error updating UI with error state", e);
-                                showErrorState("Error handling failed: " + e.getMessage());
-                            }
-                        });
-                    } else {
-                        Log.w(TAG, "Activity is null or fragment not added, skipping error UI update");
-                    }
+                    // A failure of a superseded fetch must not replace a newer result
+                    postToUi(generation, () -> {
+                        Log.d(TAG, "Updating UI with error state");
+                        showErrorState(errorMessage);
+                    });
                 }
             });
         } catch (Exception e) {
@@ -221,6 +217,58 @@ public class JavaWeatherFragment extends Fragment {
         }
     }
 
+    /**
+     * Build the highlighted, pre-measured JSON text on a background thread
+     * Text metrics are read from the TextView here on the UI thread, then the slow part
+     * (serializing, pretty-printing, span creation and layout measurement) runs on
+     * textExecutor. The finished text is handed back ready to draw.
+     */
+    private void renderJson(WeatherResult weatherResult, int generation) {
+        PrecomputedTextCompat.Params params = TextViewCompat.getTextMetricsParams(jsonContentTextView);
+        JsonHighlighter.Palette palette = new JsonHighlighter.Palette(
+                ContextCompat.getColor(requireContext(), R.color.json_key),
+                ContextCompat.getColor(requireContext(), R.color.json_string),
+                ContextCompat.getColor(requireContext(), R.color.json_number),
+                ContextCompat.getColor(requireContext(), R.color.json_literal));
+
+        textExecutor.execute(() -> {
+            PrecomputedTextCompat text;
+            try {
+                text = PrecomputedTextCompat.create(
+                        JsonHighlighter.highlight(weatherResult.getJsonBytes(), palette), params);
+            } catch (Exception e) {
+                Log.e(TAG, "Error preparing JSON text", e);
+                postToUi(generation, () -> showErrorState("UI update error: " + e.getMessage()));
+                return;
+            }
+            postToUi(generation, () -> {
+                Log.d(TAG, "Updating UI with success state");
+                showSuccessState(text);
+            });
+        });
+    }
+
+    /**
+     * Run on the UI thread, unless the fragment is gone or a newer fetch has started
+     */
+    private void postToUi(int generation, Runnable action) {
+        if (getActivity() == null) {
+            return;
+        }
+        getActivity().runOnUiThread(() -> {
+            if (!isAdded() || getView() == null || generation != renderGeneration) {
+                Log.w(TAG, "Fragment gone or result superseded, skipping UI update");
+                return;
+            }
+            try {
+                action.run();
+            } catch (Exception e) {
+                Log.e(TAG, "Error updating UI", e);
+                showErrorState("UI update error: " + e.getMessage());
+            }
+        });
+    }
+
     /**
      * Show loading state in UI
      */
@@ -235,9 +283,9 @@ public class JavaWeatherFragment extends Fragment {
     }
 
     /**
-     * Show success state with JSON data
+     * Show success state with JSON text already laid out off the UI thread
      */
-    private void showSuccessState(String jsonData) {
+    private void showSuccessState(PrecomputedTextCompat jsonText) {
         hideAllResponseViews();
 
         if (jsonLabelTextView != null) {
@@ -245,7 +293,12 @@ public class JavaWeatherFragment extends Fragment {
         }
 
         if (jsonContentTextView != null) {
-            jsonContentTextView.setText(jsonData);
+            try {
+                TextViewCompat.setPrecomputedText(jsonContentTextView, jsonText);
+            } catch (IllegalArgumentException e) {
+                // Text styling changed since measuring; the spans are still ready to use
+                jsonContentTextView.setText(jsonText);
+            }
             jsonContentTextView.setVisibility(View.VISIBLE);
         }
 
@@ -13,11 +13,13 @@ import androidx.activity.result.contract.ActivityResultContracts
 import androidx.compose.foundation.clickable
 import androidx.compose.foundation.layout.*
 import androidx.compose.foundation.lazy.LazyRow
-import androidx.compose.foundation.lazy.items
+import androidx.compose.foundation.lazy.itemsIndexed
 import androidx.compose.foundation.rememberScrollState
 import androidx.compose.foundation.shape.RoundedCornerShape
 import androidx.compose.foundation.verticalScroll
 import androidx.compose.material.icons.Icons
+import androidx.compose.material.icons.filled.Cloud
+import androidx.compose.material.icons.filled.CloudOff
 import androidx.compose.material.icons.filled.ExpandLess
 import androidx.compose.material.icons.filled.ExpandMore
 import androidx.compose.material3.*
@@ -30,17 +32,27 @@ import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.tooling.preview.Preview
 import androidx.compose.ui.unit.dp
 import coil.compose.AsyncImage
+import com.example.whetherornot.ui.JsonInspectorCard
 import com.example.whetherornot.ui.theme.WhetherOrNotTheme
 import androidx.compose.ui.Alignment
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Job
 import kotlinx.coroutines.launch
 import androidx.compose.runtime.rememberCoroutineScope
 import com.example.whetherornot.data.repository.KotlinWeatherRepository
 import com.example.whetherornot.data.repository.JavaWeatherRepository
 import com.example.whetherornot.data.repository.LocationRepository
-import com.example.whetherornot.data.model.WeatherResponse
-import com.example.whetherornot.data.model.ZipCodeResponse
+import com.example.whetherornot.data.repository.WeatherSnapshotRepository
+import com.example.whetherornot.data.api.NetworkModule
+import com.example.whetherornot.data.api.WeatherCachePolicy
+import com.example.whetherornot.data.cache.WeatherStore
+import com.example.whetherornot.data.model.SavedLocationSummary
+import com.example.whetherornot.data.model.WeatherResult
 import com.example.whetherornot.utils.LocationManager
-import com.google.gson.Gson
+
+// Saved locations shown in the zip dropdowns: recent ones when opened, best matches while typing
+private const val DROPDOWN_RECENT_LIMIT = 8
+private const val DROPDOWN_MATCH_LIMIT = 5
 
 class MainActivity : ComponentActivity() {
     override fun onCreate(savedInstanceState: Bundle?) {
@@ -59,6 +71,7 @@ class MainActivity : ComponentActivity() {
 fun WeatherApp() {
     var selectedTabIndex by remember { mutableIntStateOf(0) }
     val tabTitles = listOf("Kotlin Weather", "Java Weather")
+    var forceOffline by remember { mutableStateOf(WeatherCachePolicy.forceOffline) }
 
     Scaffold(
         topBar = {
@@ -69,6 +82,21 @@ fun WeatherApp() {
                         fontWeight = FontWeight.Bold
                     )
                 },
+                actions = {
+                    // Answer every request from the HTTP cache only, e.g. to check offline behaviour
+                    IconToggleButton(
+                        checked = forceOffline,
+                        onCheckedChange = { checked ->
+                            forceOffline = checked
+                            WeatherCachePolicy.forceOffline = checked
+                        }
+                    ) {
+                        Icon(
+                            imageVector = if (forceOffline) Icons.Filled.CloudOff else Icons.Filled.Cloud,
+                            contentDescription = if (forceOffline) "Offline mode on" else "Offline mode off"
+                        )
+                    }
+                },
                 colors = TopAppBarDefaults.centerAlignedTopAppBarColors(
                     containerColor = MaterialTheme.colorScheme.primaryContainer
                 )
@@ -110,98 +138,115 @@ fun WeatherApp() {
 @Composable
 fun KotlinWeatherContent() {
     var isLoading by remember { mutableStateOf(false) }
-    var weatherJson by remember { mutableStateOf<String?>(null) }
+    var weather by remember { mutableStateOf<WeatherResult?>(null) }
     var errorMessage by remember { mutableStateOf<String?>(null) }
-    var currentWeatherIcon by remember { mutableStateOf<String?>(null) }
-    var currentWeatherDescription by remember { mutableStateOf<String?>(null) }
     var zipCodeInput by remember { mutableStateOf("") }
     var currentLocation by remember { mutableStateOf("Loading location...") }
     val coroutineScope = rememberCoroutineScope()
     val repository = remember { KotlinWeatherRepository() }
     val context = LocalContext.current
+    val snapshotRepository = remember { WeatherSnapshotRepository(context, repository) }
     val locationManager = remember { LocationManager(context) }
     val locationRepository = remember { LocationRepository(context) }
+    val quotaStatus by NetworkModule.quotaGovernor.status.collectAsState()
 
     // States for dropdown functionality
-    var savedLocations by remember { mutableStateOf<List<ZipCodeResponse>>(emptyList()) }
+    var savedLocations by remember { mutableStateOf<List<SavedLocationSummary>>(emptyList()) }
+    var matchingLocations by remember { mutableStateOf<List<SavedLocationSummary>>(emptyList()) }
     var isDropdownExpanded by remember { mutableStateOf(false) }
     var isFocused by remember { mutableStateOf(false) }
     var isUserTyping by remember { mutableStateOf(false) }
 
-    // Load saved locations from database
+    // Most recent saved locations for the dropdown; the extra row tells whether to offer "View all"
     LaunchedEffect(Unit) {
-        locationRepository.getAllLocations().collect { locations ->
+        locationRepository.getRecentLocationSummaries(DROPDOWN_RECENT_LIMIT + 1).collect { locations ->
             savedLocations = locations
         }
     }
 
+    // Saved matches for the typed text, re-queried per keystroke
+    LaunchedEffect(zipCodeInput, isUserTyping) {
+        if (!isUserTyping || zipCodeInput.isEmpty()) {
+            matchingLocations = emptyList()
+            return@LaunchedEffect
+        }
+        locationRepository.searchLocationSummaries(zipCodeInput, DROPDOWN_MATCH_LIMIT).collect { locations ->
+            matchingLocations = locations
+        }
+    }
+
     // Default coordinates: Duluth, MN
     var currentLatitude by remember { mutableStateOf(46.8384) }
     var currentLongitude by remember { mutableStateOf(-92.1800) }
     var hasTriedLocation by remember { mutableStateOf(false) }
 
-    // Function to fetch weather data (moved before savedLocationsLauncher)
-    suspend fun fetchWeatherData(lat: Double, lon: Double, locationName: String) {
+    // The weather request in progress; a newer one cancels it, like the Java tab's weatherRequest
+    var weatherRequest by remember { mutableStateOf<Job?>(null) }
+
+    // Collect weather for one location; runs inside weatherRequest
+    suspend fun loadWeather(lat: Double, lon: Double, locationName: String) {
         isLoading = true
         errorMessage = null
-        weatherJson = null
-        currentWeatherIcon = null
-        currentWeatherDescription = null
+        weather = null
         currentLocation = locationName
 
         try {
-            val result = repository.getWeatherDataAsJson(lat, lon)
-            result.fold(
-                onSuccess = { json ->
-                    weatherJson = json
-                    isLoading = false
-                    Log.d("KotlinWeather", "Weather JSON: $json")
-
-                    // Parse JSON to extract icon information
-                    try {
-                        val gson = Gson()
-                        val weatherResponse = gson.fromJson(json, WeatherResponse::class.java)
-                        weatherResponse.current?.weather?.firstOrNull()?.let { weather ->
-                            currentWeatherIcon = weather.icon
-                            currentWeatherDescription = weather.description
-                        }
-                    } catch (e: Exception) {
-                        Log.e("KotlinWeather", "Error parsing weather data: ${e.message}")
-                    }
+            // Stored snapshot first (instant, works offline), then a refresh if it is stale
+            snapshotRepository.getWeatherResult(lat, lon).collect { result ->
+                result.fold(
+                    onSuccess = { weatherResult ->
+                        val isFirstResult = weather == null
+                        weather = weatherResult
+                        isLoading = false
+                        Log.d("KotlinWeather", "Weather loaded: ${weatherResult.response.timezone}")
 
-                    // Save location to database if it was a zip code search
-                    if (zipCodeInput.isNotBlank()) {
-                        try {
-                            coroutineScope.launch {
-                                // First get the location data from the zip code
-                                val zipResult = repository.getLocationDataByZip(zipCodeInput.trim())
-                                zipResult.fold(
-                                    onSuccess = { zipCodeResponse ->
-                                        // Save the location to database
-                                        locationRepository.saveLocation(zipCodeResponse)
-                                        Log.d("KotlinWeather", "Location saved: ${zipCodeResponse.name}")
-                                    },
-                                    onFailure = { e ->
-                                        Log.e("KotlinWeather", "Failed to save location: ${e.message}")
-                                    }
-                                )
+                        // Save location to database if it was a zip code search
+                        if (isFirstResult && zipCodeInput.isNotBlank()) {
+                            try {
+                                coroutineScope.launch {
+                                    // First get the location data from the zip code
+                                    val zipResult = repository.getLocationDataByZip(zipCodeInput.trim())
+                                    zipResult.fold(
+                                        onSuccess = { zipCodeResponse ->
+                                            // Save the location to database, keeping it a favorite if it was one
+                                            locationRepository.saveOrUpdateLocation(zipCodeResponse)
+                                            Log.d("KotlinWeather", "Location saved: ${zipCodeResponse.name}")
+                                        },
+                                        onFailure = { e ->
+                                            Log.e("KotlinWeather", "Failed to save location: ${e.message}")
+                                        }
+                                    )
+                                }
+                            } catch (e: Exception) {
+                                Log.e("KotlinWeather", "Error saving location: ${e.message}")
                             }
-                        } catch (e: Exception) {
-                            Log.e("KotlinWeather", "Error saving location: ${e.message}")
                         }
+                    },
+                    onFailure = { exception ->
+                        errorMessage = "Error: ${exception.message}"
+                        isLoading = false
                     }
-                },
-                onFailure = { exception ->
-                    errorMessage = "Error: ${exception.message}"
-                    isLoading = false
-                }
-            )
+                )
+            }
         } catch (e: Exception) {
+            // Cancelled because a newer request replaced this one; leave the UI to it
+            if (e is CancellationException) throw e
             errorMessage = "Unexpected error: ${e.message}"
             isLoading = false
         }
     }
 
+    // Cancel the weather request in progress and start [block] in its place
+    fun startWeatherRequest(block: suspend () -> Unit) {
+        weatherRequest?.cancel()
+        weatherRequest = coroutineScope.launch { block() }
+    }
+
+    // Function to fetch weather data (moved before savedLocationsLauncher)
+    fun fetchWeatherData(lat: Double, lon: Double, locationName: String) {
+        startWeatherRequest { loadWeather(lat, lon, locationName) }
+    }
+
     // Activity result launcher for saved locations
     val savedLocationsLauncher = rememberLauncherForActivityResult(
         contract = ActivityResultContracts.StartActivityForResult()
@@ -220,9 +265,7 @@ fun KotlinWeatherContent() {
                     currentLongitude = selectedLon
 
                     // Fetch weather data for selected location
-                    coroutineScope.launch {
-                        fetchWeatherData(selectedLat, selectedLon, selectedName)
-                    }
+                    fetchWeatherData(selectedLat, selectedLon, selectedName)
                 }
             }
         }
@@ -297,6 +340,12 @@ fun KotlinWeatherContent() {
         }
     }
 
+    // Parsed and formatted once by the repository; composition only binds strings
+    val weatherDisplay = weather?.display
+    val currentWeatherDisplay = weatherDisplay?.current
+    val currentWeatherIcon = currentWeatherDisplay?.iconCode
+    val currentWeatherDescription = currentWeatherDisplay?.description
+
     Column(
         modifier = Modifier
             .fillMaxSize()
@@ -308,6 +357,16 @@ fun KotlinWeatherContent() {
             text = "Kotlin Weather Implementation",
             style = MaterialTheme.typography.headlineSmall,
             fontWeight = FontWeight.Bold,
+            modifier = Modifier.padding(bottom = 4.dp)
+        )
+
+        // API budget as seen by the quota governor
+        Text(
+            text = "API calls today: ${quotaStatus.usedToday}/${quotaStatus.dailyBudget}" +
+                " · denied ${quotaStatus.deniedToday}" +
+                if (quotaStatus.isTight) " · saving calls" else "",
+            style = MaterialTheme.typography.bodySmall,
+            color = MaterialTheme.colorScheme.onSurface.copy(alpha = 0.6f),
             modifier = Modifier.padding(bottom = 16.dp)
         )
 
@@ -380,14 +439,11 @@ fun KotlinWeatherContent() {
             ) {
                 // Filter saved locations based on user interaction
                 val filteredLocations = if (!isUserTyping || zipCodeInput.isEmpty()) {
-                    // Show all locations when user clicked to open dropdown or field is empty
-                    savedLocations.take(8) // Show first 8 when no filter
+                    // Show the most recent locations when user clicked to open dropdown or field is empty
+                    savedLocations.take(DROPDOWN_RECENT_LIMIT)
                 } else {
-                    // Filter only when user is actively typing
-                    savedLocations.filter { location ->
-                        location.zip.contains(zipCodeInput, ignoreCase = true) ||
-                        location.name.contains(zipCodeInput, ignoreCase = true)
-                    }.take(5) // Limit to 5 most recent matches
+                    // Best matches for what is being typed, from the search index
+                    matchingLocations
                 }
 
                 if (filteredLocations.isEmpty()) {
@@ -433,16 +489,14 @@ fun KotlinWeatherContent() {
                                 isDropdownExpanded = false
 
                                 // Fetch weather data for selected location using stored coordinates
-                                coroutineScope.launch {
-                                    fetchWeatherData(location.lat, location.lon, location.name)
-                                }
+                                fetchWeatherData(location.lat, location.lon, location.name)
                             },
                             modifier = Modifier.fillMaxWidth()
                         )
                     }
 
                     // Show divider and "View all" option if there are many saved locations
-                    if (savedLocations.size > 8) {
+                    if (savedLocations.size > DROPDOWN_RECENT_LIMIT) {
                         HorizontalDivider(
                             modifier = Modifier.padding(vertical = 4.dp),
                             thickness = 1.dp,
@@ -483,72 +537,24 @@ fun KotlinWeatherContent() {
         ) {
             Button(
                 onClick = {
-                    coroutineScope.launch {
-                        isLoading = true
-                        errorMessage = null
-                        weatherJson = null
-                        currentWeatherIcon = null
-                        currentWeatherDescription = null
-
-                        try {
-                            val result = if (zipCodeInput.isNotBlank()) {
-                                // Use zip code search
-                                currentLocation = "Zip Code: ${zipCodeInput.trim()}"
-                                repository.getWeatherDataByZip(zipCodeInput.trim())
-                            } else {
-                                // Use default coordinates
-                                currentLocation = "Duluth, MN (46.8384°N, 92.1800°W)"
-                                repository.getWeatherDataAsJson(currentLatitude, currentLongitude)
-                            }
-
-                            result.fold(
-                                onSuccess = { json ->
-                                    weatherJson = json
-                                    isLoading = false
-                                    Log.d("KotlinWeather", "Weather JSON: $json")
-
-                                    // Parse JSON to extract icon information
-                                    try {
-                                        val gson = Gson()
-                                        val weatherResponse = gson.fromJson(json, WeatherResponse::class.java)
-                                        weatherResponse.current?.weather?.firstOrNull()?.let { weather ->
-                                            currentWeatherIcon = weather.icon
-                                            currentWeatherDescription = weather.description
-                                        }
-                                    } catch (e: Exception) {
-                                        Log.e("KotlinWeather", "Error parsing weather data: ${e.message}")
-                                    }
-
-                                    // Save location to database if it was a zip code search
-                                    if (zipCodeInput.isNotBlank()) {
-                                        try {
-                                            coroutineScope.launch {
-                                                // First get the location data from the zip code
-                                                val zipResult = repository.getLocationDataByZip(zipCodeInput.trim())
-                                                zipResult.fold(
-                                                    onSuccess = { zipCodeResponse ->
-                                                        // Save the location to database
-                                                        locationRepository.saveLocation(zipCodeResponse)
-                                                        Log.d("KotlinWeather", "Location saved: ${zipCodeResponse.name}")
-                                                    },
-                                                    onFailure = { e ->
-                                                        Log.e("KotlinWeather", "Failed to save location: ${e.message}")
-                                                    }
-                                                )
-                                            }
-                                        } catch (e: Exception) {
-                                            Log.e("KotlinWeather", "Error saving location: ${e.message}")
-                                        }
-                                    }
-                                },
+                    startWeatherRequest {
+                        if (zipCodeInput.isNotBlank()) {
+                            // Use zip code search; the location is saved once its weather loads
+                            val zipCode = zipCodeInput.trim()
+                            isLoading = true
+                            errorMessage = null
+                            weather = null
+                            currentLocation = "Zip Code: $zipCode"
+                            repository.getLocationDataByZip(zipCode).fold(
+                                onSuccess = { location -> loadWeather(location.lat, location.lon, "Zip Code: $zipCode") },
                                 onFailure = { exception ->
                                     errorMessage = "Error: ${exception.message}"
                                     isLoading = false
                                 }
                             )
-                        } catch (e: Exception) {
-                            errorMessage = "Unexpected error: ${e.message}"
-                            isLoading = false
+                        } else {
+                            // Use default coordinates
+                            loadWeather(currentLatitude, currentLongitude, "Duluth, MN (46.8384°N, 92.1800°W)")
                         }
                     }
                 },
@@ -577,21 +583,12 @@ fun KotlinWeatherContent() {
                     .padding(bottom = 16.dp)
                     .clip(RoundedCornerShape(16.dp))
                     .clickable {
-                        weatherJson?.let { json ->
-                            val gson = Gson()
-                            val weatherResponse = try {
-                                gson.fromJson(json, WeatherResponse::class.java)
-                            } catch (e: Exception) {
-                                null
-                            }
-
-                            weatherResponse?.current?.let { current ->
-                                val intent = Intent(context, CurrentWeatherDetailActivity::class.java).apply {
-                                    putExtra("current_weather_json", gson.toJson(current))
-                                    putExtra("location", currentLocation)
-                                }
-                                context.startActivity(intent)
+                        weather?.let { result ->
+                            val intent = Intent(context, CurrentWeatherDetailActivity::class.java).apply {
+                                putExtra(CurrentWeatherDetailActivity.EXTRA_SNAPSHOT_KEY, WeatherStore.put(result))
+                                putExtra("location", currentLocation)
                             }
+                            context.startActivity(intent)
                         }
                     },
                 colors = CardDefaults.cardColors(
@@ -603,22 +600,18 @@ fun KotlinWeatherContent() {
                     horizontalAlignment = Alignment.CenterHorizontally
                 ) {
                     // Current day and date
-                    val currentDate = java.util.Date()
-                    val dayFormatter = java.text.SimpleDateFormat("EEEE", java.util.Locale.getDefault())
-                    val dateFormatter = java.text.SimpleDateFormat("MMM d", java.util.Locale.getDefault())
-
                     Row(
                         verticalAlignment = Alignment.CenterVertically,
                         modifier = Modifier.padding(bottom = 8.dp)
                     ) {
                         Text(
-                            text = dayFormatter.format(currentDate),
+                            text = currentWeatherDisplay?.dayName.orEmpty(),
                             style = MaterialTheme.typography.titleMedium,
                             fontWeight = FontWeight.Bold
                         )
                         Spacer(modifier = Modifier.width(8.dp))
                         Text(
-                            text = dateFormatter.format(currentDate),
+                            text = currentWeatherDisplay?.shortDate.orEmpty(),
                             style = MaterialTheme.typography.bodyMedium,
                             color = MaterialTheme.colorScheme.onPrimaryContainer.copy(alpha = 0.7f)
                         )
@@ -632,198 +625,185 @@ fun KotlinWeatherContent() {
 
                     currentWeatherDescription?.let { description ->
                         Text(
-                            text = description.replaceFirstChar { it.uppercase() },
+                            text = description,
                             style = MaterialTheme.typography.bodyMedium,
                             modifier = Modifier.padding(top = 8.dp, bottom = 8.dp)
                         )
                     }
 
-                    // Parse weather data for temperature and wind info
-                    weatherJson?.let { json ->
-                        val gson = Gson()
-                        val weatherResponse = try {
-                            gson.fromJson(json, WeatherResponse::class.java)
-                        } catch (e: Exception) {
-                            Log.e("KotlinWeather", "Error parsing weather display data: ${e.message}")
-                            null
+                    // Temperature and wind info
+                    currentWeatherDisplay?.let { current ->
+                        // Temperature display
+                        Row(
+                            verticalAlignment = Alignment.CenterVertically,
+                            modifier = Modifier.padding(bottom = 8.dp)
+                        ) {
+                            Text(
+                                text = current.temperature,
+                                style = MaterialTheme.typography.headlineMedium,
+                                fontWeight = FontWeight.Bold
+                            )
                         }
 
-                        weatherResponse?.current?.let { current ->
-                            // Temperature display
-                            Row(
-                                verticalAlignment = Alignment.CenterVertically,
-                                modifier = Modifier.padding(bottom = 8.dp)
-                            ) {
-                                Text(
-                                    text = "${current.temp.toInt()}°F",
-                                    style = MaterialTheme.typography.headlineMedium,
-                                    fontWeight = FontWeight.Bold
-                                )
-                            }
+                        // Wind speed and direction display
+                        Row(
+                            verticalAlignment = Alignment.CenterVertically,
+                            horizontalArrangement = Arrangement.Center
+                        ) {
+                            Text(
+                                text = current.windSummary,
+                                style = MaterialTheme.typography.bodyMedium
+                            )
 
-                            // Wind speed and direction display
-                            Row(
-                                verticalAlignment = Alignment.CenterVertically,
-                                horizontalArrangement = Arrangement.Center
-                            ) {
-                                Text(
-                                    text = "Wind: ${current.windSpeed.toInt()} mph ",
-                                    style = MaterialTheme.typography.bodyMedium
-                                )
-
-                                // Wind direction arrow
-                                Text(
-                                    text = "↑",
-                                    style = MaterialTheme.typography.headlineSmall,
-                                    modifier = Modifier.graphicsLayer {
-                                        rotationZ = current.windDeg.toFloat()
-                                    }
-                                )
-                            }
+                            // Wind direction arrow
+                            Text(
+                                text = "↑",
+                                style = MaterialTheme.typography.headlineSmall,
+                                modifier = Modifier.graphicsLayer {
+                                    rotationZ = current.windDegrees
+                                }
+                            )
                         }
                     }
                 }
             }
         }
 
+        // Hourly outlook, summarized from the hourly series
+        weatherDisplay?.hourlyOutlook?.let { outlook ->
+            Text(
+                text = outlook,
+                style = MaterialTheme.typography.bodyMedium,
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .padding(bottom = 16.dp)
+            )
+        }
+
         // Daily Weather Forecast Row
-        weatherJson?.let { json ->
-            val gson = Gson()
-            val weatherResponse = try {
-                gson.fromJson(json, WeatherResponse::class.java)
-            } catch (e: Exception) {
-                Log.e("KotlinWeather", "Error parsing daily weather data: ${e.message}")
-                null
-            }
+        weatherDisplay?.daily?.takeIf { it.isNotEmpty() }?.let { dailyWeather ->
+            Column(
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .padding(bottom = 16.dp)
+            ) {
+                Text(
+                    text = "7-Day Forecast",
+                    style = MaterialTheme.typography.titleMedium,
+                    fontWeight = FontWeight.Bold,
+                    modifier = Modifier.padding(bottom = 8.dp)
+                )
 
-            weatherResponse?.daily?.let { dailyWeather ->
-                Column(
-                    modifier = Modifier
-                        .fillMaxWidth()
-                        .padding(bottom = 16.dp)
+                LazyRow(
+                    horizontalArrangement = Arrangement.spacedBy(12.dp),
+                    contentPadding = PaddingValues(horizontal = 4.dp)
                 ) {
-                    Text(
-                        text = "7-Day Forecast",
-                        style = MaterialTheme.typography.titleMedium,
-                        fontWeight = FontWeight.Bold,
-                        modifier = Modifier.padding(bottom = 8.dp)
-                    )
-
-                    LazyRow(
-                        horizontalArrangement = Arrangement.spacedBy(12.dp),
-                        contentPadding = PaddingValues(horizontal = 4.dp)
-                    ) {
-                        items(dailyWeather) { day ->
-                            Card(
+                    itemsIndexed(dailyWeather) { index, day ->
+                        Card(
+                            modifier = Modifier
+                                .width(120.dp)
+                                .clip(RoundedCornerShape(16.dp))
+                                .clickable {
+                                    val intent = Intent(context, DailyWeatherDetailActivity::class.java).apply {
+                                        putExtra(DailyWeatherDetailActivity.EXTRA_SNAPSHOT_KEY, weather?.let { WeatherStore.put(it) })
+                                        putExtra(DailyWeatherDetailActivity.EXTRA_DAY_INDEX, index)
+                                        putExtra("location", currentLocation)
+                                    }
+                                    context.startActivity(intent)
+                                },
+                            colors = CardDefaults.cardColors(
+                                containerColor = MaterialTheme.colorScheme.primaryContainer
+                            )
+                        ) {
+                            Column(
                                 modifier = Modifier
-                                    .width(120.dp)
-                                    .clip(RoundedCornerShape(16.dp))
-                                    .clickable {
-                                        val gson = Gson()
-                                        val intent = Intent(context, DailyWeatherDetailActivity::class.java).apply {
-                                            putExtra("daily_weather_json", gson.toJson(day))
-                                            putExtra("location", currentLocation)
-                                        }
-                                        context.startActivity(intent)
-                                    },
-                                colors = CardDefaults.cardColors(
-                                    containerColor = MaterialTheme.colorScheme.primaryContainer
-                                )
+                                    .padding(12.dp)
+                                    .fillMaxWidth(),
+                                horizontalAlignment = Alignment.CenterHorizontally
                             ) {
-                                Column(
-                                    modifier = Modifier
-                                        .padding(12.dp)
-                                        .fillMaxWidth(),
-                                    horizontalAlignment = Alignment.CenterHorizontally
+                                // Day of week and date
+                                Row(
+                                    verticalAlignment = Alignment.CenterVertically,
+                                    modifier = Modifier.padding(bottom = 8.dp)
                                 ) {
-                                    // Day of week and date
-                                    val dayFormatter = java.text.SimpleDateFormat("EEE", java.util.Locale.getDefault())
-                                    val dateFormatter = java.text.SimpleDateFormat("MMM d", java.util.Locale.getDefault())
-                                    val date = java.util.Date(day.dt * 1000)
-
-                                    Row(
-                                        verticalAlignment = Alignment.CenterVertically,
-                                        modifier = Modifier.padding(bottom = 8.dp)
-                                    ) {
-                                        Text(
-                                            text = dayFormatter.format(date),
-                                            style = MaterialTheme.typography.bodySmall,
-                                            fontWeight = FontWeight.Bold
-                                        )
-                                        Spacer(modifier = Modifier.width(4.dp))
-                                        Text(
-                                            text = dateFormatter.format(date),
-                                            style = MaterialTheme.typography.labelSmall,
-                                            color = MaterialTheme.colorScheme.onPrimaryContainer.copy(alpha = 0.7f)
-                                        )
-                                    }
+                                    Text(
+                                        text = day.shortDayName,
+                                        style = MaterialTheme.typography.bodySmall,
+                                        fontWeight = FontWeight.Bold
+                                    )
+                                    Spacer(modifier = Modifier.width(4.dp))
+                                    Text(
+                                        text = day.shortDate,
+                                        style = MaterialTheme.typography.labelSmall,
+                                        color = MaterialTheme.colorScheme.onPrimaryContainer.copy(alpha = 0.7f)
+                                    )
+                                }
 
-                                    // Weather icon
-                                    day.weather.firstOrNull()?.let { weather ->
-                                        AsyncImage(
-                                            model = "https://openweathermap.org/img/wn/${weather.icon}@2x.png",
-                                            contentDescription = weather.description,
-                                            modifier = Modifier
-                                                .size(48.dp)
-                                                .padding(bottom = 8.dp)
-                                        )
-                                    }
+                                // Weather icon
+                                day.iconCode?.let { iconCode ->
+                                    AsyncImage(
+                                        model = "https://openweathermap.org/img/wn/${iconCode}@2x.png",
+                                        contentDescription = day.description,
+                                        modifier = Modifier
+                                            .size(48.dp)
+                                            .padding(bottom = 8.dp)
+                                    )
+                                }
 
-                                    // High/Low temperatures with labels
-                                    Row(
-                                        horizontalArrangement = Arrangement.Center,
-                                        verticalAlignment = Alignment.CenterVertically,
-                                        modifier = Modifier.padding(bottom = 4.dp)
-                                    ) {
-                                        Text(
-                                            text = "High: ",
-                                            style = MaterialTheme.typography.labelSmall,
-                                            fontWeight = FontWeight.Bold
-                                        )
-                                        Text(
-                                            text = "${day.temp.max.toInt()}°",
-                                            style = MaterialTheme.typography.bodySmall
-                                        )
-                                    }
+                                // High/Low temperatures with labels
+                                Row(
+                                    horizontalArrangement = Arrangement.Center,
+                                    verticalAlignment = Alignment.CenterVertically,
+                                    modifier = Modifier.padding(bottom = 4.dp)
+                                ) {
+                                    Text(
+                                        text = "High: ",
+                                        style = MaterialTheme.typography.labelSmall,
+                                        fontWeight = FontWeight.Bold
+                                    )
+                                    Text(
+                                        text = day.high,
+                                        style = MaterialTheme.typography.bodySmall
+                                    )
+                                }
 
-                                    Row(
-                                        horizontalArrangement = Arrangement.Center,
-                                        verticalAlignment = Alignment.CenterVertically,
-                                        modifier = Modifier.padding(bottom = 8.dp)
-                                    ) {
-                                        Text(
-                                            text = "Low: ",
-                                            style = MaterialTheme.typography.labelSmall,
-                                            fontWeight = FontWeight.Bold
-                                        )
-                                        Text(
-                                            text = "${day.temp.min.toInt()}°",
-                                            style = MaterialTheme.typography.bodySmall
-                                        )
-                                    }
+                                Row(
+                                    horizontalArrangement = Arrangement.Center,
+                                    verticalAlignment = Alignment.CenterVertically,
+                                    modifier = Modifier.padding(bottom = 8.dp)
+                                ) {
+                                    Text(
+                                        text = "Low: ",
+                                        style = MaterialTheme.typography.labelSmall,
+                                        fontWeight = FontWeight.Bold
+                                    )
+                                    Text(
+                                        text = day.low,
+                                        style = MaterialTheme.typography.bodySmall
+                                    )
+                                }
 
-                                    // Wind info with label
-                                    Row(
-                                        horizontalArrangement = Arrangement.Center,
-                                        verticalAlignment = Alignment.CenterVertically
-                                    ) {
-                                        Text(
-                                            text = "Wind: ",
-                                            style = MaterialTheme.typography.labelSmall,
-                                            fontWeight = FontWeight.Bold
-                                        )
-                                        Text(
-                                            text = "${day.windSpeed.toInt()}",
-                                            style = MaterialTheme.typography.labelSmall
-                                        )
-                                        Text(
-                                            text = "↑",
-                                            style = MaterialTheme.typography.labelSmall,
-                                            modifier = Modifier.graphicsLayer {
-                                                rotationZ = day.windDeg.toFloat()
-                                            }
-                                        )
-                                    }
+                                // Wind info with label
+                                Row(
+                                    horizontalArrangement = Arrangement.Center,
+                                    verticalAlignment = Alignment.CenterVertically
+                                ) {
+                                    Text(
+                                        text = "Wind: ",
+                                        style = MaterialTheme.typography.labelSmall,
+                                        fontWeight = FontWeight.Bold
+                                    )
+                                    Text(
+                                        text = day.windSpeedValue,
+                                        style = MaterialTheme.typography.labelSmall
+                                    )
+                                    Text(
+                                        text = "↑",
+                                        style = MaterialTheme.typography.labelSmall,
+                                        modifier = Modifier.graphicsLayer {
+                                            rotationZ = day.windDegrees
+                                        }
+                                    )
                                 }
                             }
                         }
@@ -855,31 +835,13 @@ fun KotlinWeatherContent() {
             }
         }
 
-        weatherJson?.let { json ->
-            Card(
+        weather?.let { result ->
+            JsonInspectorCard(
+                result = result,
                 modifier = Modifier
                     .fillMaxWidth()
-                    .padding(bottom = 16.dp),
-                colors = CardDefaults.cardColors(
-                    containerColor = MaterialTheme.colorScheme.surfaceVariant
-                )
-            ) {
-                Column(
-                    modifier = Modifier.padding(16.dp)
-                ) {
-                    Text(
-                        text = "Weather Data (JSON):",
-                        style = MaterialTheme.typography.titleMedium,
-                        fontWeight = FontWeight.Bold,
-                        modifier = Modifier.padding(bottom = 8.dp)
-                    )
-                    Text(
-                        text = json,
-                        style = MaterialTheme.typography.bodySmall,
-                        modifier = Modifier.fillMaxWidth()
-                    )
-                }
-            }
+                    .padding(bottom = 16.dp)
+            )
         }
     }
 }
@@ -887,70 +849,103 @@ fun KotlinWeatherContent() {
 @Composable
 fun JavaWeatherContent() {
     var isLoading by remember { mutableStateOf(false) }
-    var weatherJson by remember { mutableStateOf<String?>(null) }
+    var weather by remember { mutableStateOf<WeatherResult?>(null) }
     var errorMessage by remember { mutableStateOf<String?>(null) }
-    var currentWeatherIcon by remember { mutableStateOf<String?>(null) }
-    var currentWeatherDescription by remember { mutableStateOf<String?>(null) }
     var zipCodeInput by remember { mutableStateOf("") }
     var currentLocation by remember { mutableStateOf("Loading location...") }
     val repository = remember { JavaWeatherRepository() }
     val context = LocalContext.current
+    val snapshotRepository = remember { WeatherSnapshotRepository.forJava(context, repository) }
+    var weatherRequest by remember { mutableStateOf<Job?>(null) }
     val locationManager = remember { LocationManager(context) }
     val locationRepository = remember { LocationRepository(context) }
     val coroutineScope = rememberCoroutineScope()
 
     // States for dropdown functionality
-    var savedLocations by remember { mutableStateOf<List<ZipCodeResponse>>(emptyList()) }
+    var savedLocations by remember { mutableStateOf<List<SavedLocationSummary>>(emptyList()) }
+    var matchingLocations by remember { mutableStateOf<List<SavedLocationSummary>>(emptyList()) }
     var isDropdownExpanded by remember { mutableStateOf(false) }
     var isUserTyping by remember { mutableStateOf(false) }
 
-    // Load saved locations from database
+    // Most recent saved locations for the dropdown; the extra row tells whether to offer "View all"
     LaunchedEffect(Unit) {
-        locationRepository.getAllLocations().collect { locations ->
+        locationRepository.getRecentLocationSummaries(DROPDOWN_RECENT_LIMIT + 1).collect { locations ->
             savedLocations = locations
         }
     }
 
+    // Saved matches for the typed text, re-queried per keystroke
+    LaunchedEffect(zipCodeInput, isUserTyping) {
+        if (!isUserTyping || zipCodeInput.isEmpty()) {
+            matchingLocations = emptyList()
+            return@LaunchedEffect
+        }
+        locationRepository.searchLocationSummaries(zipCodeInput, DROPDOWN_MATCH_LIMIT).collect { locations ->
+            matchingLocations = locations
+        }
+    }
+
     // Default coordinates: Duluth, MN
     var currentLatitude by remember { mutableStateOf(46.8384) }
     var currentLongitude by remember { mutableStateOf(-92.1800) }
     var hasTriedLocation by remember { mutableStateOf(false) }
 
     // Function to fetch weather data (moved before savedLocationsLauncher)
-    fun fetchWeatherData(lat: Double, lon: Double, locationName: String) {
+    // Stored snapshot first (instant, works offline), then a refresh if it is stale
+    fun fetchWeatherData(
+        lat: Double,
+        lon: Double,
+        locationName: String,
+        describeError: (String?) -> String = { error -> "Error: $error" }
+    ) {
         isLoading = true
         errorMessage = null
-        weatherJson = null
-        currentWeatherIcon = null
-        currentWeatherDescription = null
+        weather = null
         currentLocation = locationName
 
-        repository.getWeatherDataAsJson(lat, lon, object : JavaWeatherRepository.JsonDataCallback {
-            override fun onSuccess(jsonData: String) {
-                weatherJson = jsonData
+        // A newer request replaces any result still on its way
+        weatherRequest?.cancel()
+        weatherRequest = snapshotRepository.getWeatherResult(lat, lon, object : JavaWeatherRepository.WeatherResultCallback {
+            override fun onSuccess(weatherResult: WeatherResult) {
+                weather = weatherResult
                 isLoading = false
-                Log.d("JavaWeather", "Weather JSON: $jsonData")
-
-                // Parse JSON to extract icon information
-                try {
-                    val gson = Gson()
-                    val weatherResponse = gson.fromJson(jsonData, WeatherResponse::class.java)
-                    weatherResponse.current?.weather?.firstOrNull()?.let { weather ->
-                        currentWeatherIcon = weather.icon
-                        currentWeatherDescription = weather.description
-                    }
-                } catch (e: Exception) {
-                    Log.e("JavaWeather", "Error parsing weather data: ${e.message}")
-                }
+                Log.d("JavaWeather", "Weather loaded: ${weatherResult.response.timezone}")
             }
 
-            override fun onError(error: String) {
-                errorMessage = "Error: $error"
+            override fun onError(error: String?) {
+                errorMessage = describeError(error)
                 isLoading = false
             }
         })
     }
 
+    // Current location's weather, or the default coordinates' if the location is unavailable
+    fun fetchCurrentLocationWeather() {
+        isLoading = true
+        errorMessage = null
+        weather = null
+
+        repository.getCurrentLocation(object : JavaWeatherRepository.LocationCallback {
+            override fun onLocationReceived(latitude: Double, longitude: Double, locationName: String) {
+                currentLatitude = latitude
+                currentLongitude = longitude
+                fetchWeatherData(latitude, longitude, locationName)
+            }
+
+            override fun onError(error: String?) {
+                Log.e("JavaWeather", "Error getting location: $error")
+                // Fallback to default coordinates on error
+                fetchWeatherData(currentLatitude, currentLongitude, "Duluth, MN (46.8384°N, 92.1800°W)") { weatherError ->
+                    "Location error: $error, Weather error: $weatherError"
+                }
+            }
+        }, context)
+    }
+
+    DisposableEffect(Unit) {
+        onDispose { weatherRequest?.cancel() }
+    }
+
     // Activity result launcher for saved locations
     val savedLocationsLauncher = rememberLauncherForActivityResult(
         contract = ActivityResultContracts.StartActivityForResult()
@@ -969,35 +964,7 @@ fun JavaWeatherContent() {
                     currentLongitude = selectedLon
 
                     // Fetch weather data for selected location
-                    isLoading = true
-                    errorMessage = null
-                    weatherJson = null
-                    currentWeatherIcon = null
-                    currentWeatherDescription = null
-
-                    repository.getWeatherDataAsJson(selectedLat, selectedLon, object : JavaWeatherRepository.JsonDataCallback {
-                        override fun onSuccess(jsonData: String) {
-                            weatherJson = jsonData
-                            isLoading = false
-                            Log.d("JavaWeather", "Weather JSON (from saved location): $jsonData")
-
-                            try {
-                                val gson = Gson()
-                                val weatherResponse = gson.fromJson(jsonData, WeatherResponse::class.java)
-                                weatherResponse.current?.weather?.firstOrNull()?.let { weather ->
-                                    currentWeatherIcon = weather.icon
-                                    currentWeatherDescription = weather.description
-                                }
-                            } catch (e: Exception) {
-                                Log.e("JavaWeather", "Error parsing weather data: ${e.message}")
-                            }
-                        }
-
-                        override fun onError(error: String) {
-                            errorMessage = error
-                            isLoading = false
-                        }
-                    })
+                    fetchWeatherData(selectedLat, selectedLon, selectedName)
                 }
             }
         }
@@ -1012,94 +979,10 @@ fun JavaWeatherContent() {
 
         if (fineLocationGranted || coarseLocationGranted) {
             // Permission granted, get location and fetch weather
-            isLoading = true
-            errorMessage = null
-            weatherJson = null
-            currentWeatherIcon = null
-            currentWeatherDescription = null
-
-            repository.getCurrentLocationAndWeather(object : JavaWeatherRepository.LocationWeatherCallback {
-                override fun onLocationReceived(latitude: Double, longitude: Double, locationName: String) {
-                    currentLatitude = latitude
-                    currentLongitude = longitude
-                    currentLocation = locationName
-                }
-
-                override fun onWeatherSuccess(jsonData: String) {
-                    weatherJson = jsonData
-                    isLoading = false
-                    Log.d("JavaWeather", "Weather JSON: $jsonData")
-
-                    // Parse JSON to extract icon information
-                    try {
-                        val gson = Gson()
-                        val weatherResponse = gson.fromJson(jsonData, WeatherResponse::class.java)
-                        weatherResponse.current?.weather?.firstOrNull()?.let { weather ->
-                            currentWeatherIcon = weather.icon
-                            currentWeatherDescription = weather.description
-                        }
-                    } catch (e: Exception) {
-                        Log.e("JavaWeather", "Error parsing weather data: ${e.message}")
-                    }
-                }
-
-                override fun onError(error: String) {
-                    errorMessage = error
-                    isLoading = false
-                    // Fallback to default coordinates on error
-                    currentLocation = "Duluth, MN (46.8384°N, 92.1800°W)"
-                    repository.getWeatherDataAsJson(currentLatitude, currentLongitude, object : JavaWeatherRepository.JsonDataCallback {
-                        override fun onSuccess(jsonData: String) {
-                            weatherJson = jsonData
-                            isLoading = false
-                            Log.d("JavaWeather", "Weather JSON (fallback): $jsonData")
-
-                            try {
-                                val gson = Gson()
-                                val weatherResponse = gson.fromJson(jsonData, WeatherResponse::class.java)
-                                weatherResponse.current?.weather?.firstOrNull()?.let { weather ->
-                                    currentWeatherIcon = weather.icon
-                                    currentWeatherDescription = weather.description
-                                }
-                            } catch (e: Exception) {
-                                Log.e("JavaWeather", "Error parsing fallback weather data: ${e.message}")
-                            }
-                        }
-
-                        override fun onError(fallbackError: String) {
-                            errorMessage = "Location error: $error, Weather error: $fallbackError"
-                            isLoading = false
-                        }
-                    })
-                }
-            }, context)
+            fetchCurrentLocationWeather()
         } else {
             // Permission denied, use default coordinates
-            currentLocation = "Duluth, MN (46.8384°N, 92.1800°W)"
-            isLoading = true
-            repository.getWeatherDataAsJson(currentLatitude, currentLongitude, object : JavaWeatherRepository.JsonDataCallback {
-                override fun onSuccess(jsonData: String) {
-                    weatherJson = jsonData
-                    isLoading = false
-                    Log.d("JavaWeather", "Weather JSON (default): $jsonData")
-
-                    try {
-                        val gson = Gson()
-                        val weatherResponse = gson.fromJson(jsonData, WeatherResponse::class.java)
-                        weatherResponse.current?.weather?.firstOrNull()?.let { weather ->
-                            currentWeatherIcon = weather.icon
-                            currentWeatherDescription = weather.description
-                        }
-                    } catch (e: Exception) {
-                        Log.e("JavaWeather", "Error parsing default weather data: ${e.message}")
-                    }
-                }
-
-                override fun onError(defaultError: String) {
-                    errorMessage = defaultError
-                    isLoading = false
-                }
-            })
+            fetchWeatherData(currentLatitude, currentLongitude, "Duluth, MN (46.8384°N, 92.1800°W)")
         }
         hasTriedLocation = true
     }
@@ -1109,67 +992,7 @@ fun JavaWeatherContent() {
         if (!hasTriedLocation) {
             if (locationManager.hasLocationPermission()) {
                 // Permission already granted, get location
-                isLoading = true
-                errorMessage = null
-                weatherJson = null
-                currentWeatherIcon = null
-                currentWeatherDescription = null
-
-                repository.getCurrentLocationAndWeather(object : JavaWeatherRepository.LocationWeatherCallback {
-                    override fun onLocationReceived(latitude: Double, longitude: Double, locationName: String) {
-                        currentLatitude = latitude
-                        currentLongitude = longitude
-                        currentLocation = locationName
-                    }
-
-                    override fun onWeatherSuccess(jsonData: String) {
-                        weatherJson = jsonData
-                        isLoading = false
-                        Log.d("JavaWeather", "Weather JSON: $jsonData")
-
-                        // Parse JSON to extract icon information
-                        try {
-                            val gson = Gson()
-                            val weatherResponse = gson.fromJson(jsonData, WeatherResponse::class.java)
-                            weatherResponse.current?.weather?.firstOrNull()?.let { weather ->
-                                currentWeatherIcon = weather.icon
-                                currentWeatherDescription = weather.description
-                            }
-                        } catch (e: Exception) {
-                            Log.e("JavaWeather", "Error parsing weather data: ${e.message}")
-                        }
-                    }
-
-                    override fun onError(error: String) {
-                        errorMessage = error
-                        isLoading = false
-                        // Fallback to default coordinates on error
-                        currentLocation = "Duluth, MN (46.8384°N, 92.1800°W)"
-                        repository.getWeatherDataAsJson(currentLatitude, currentLongitude, object : JavaWeatherRepository.JsonDataCallback {
-                            override fun onSuccess(jsonData: String) {
-                                weatherJson = jsonData
-                                isLoading = false
-                                Log.d("JavaWeather", "Weather JSON (fallback): $jsonData")
-
-                                try {
-                                    val gson = Gson()
-                                    val weatherResponse = gson.fromJson(jsonData, WeatherResponse::class.java)
-                                    weatherResponse.current?.weather?.firstOrNull()?.let { weather ->
-                                        currentWeatherIcon = weather.icon
-                                        currentWeatherDescription = weather.description
-                                    }
-                                } catch (e: Exception) {
-                                    Log.e("JavaWeather", "Error parsing fallback weather data: ${e.message}")
-                                }
-                            }
-
-                            override fun onError(fallbackError: String) {
-                                errorMessage = "Location error: $error, Weather error: $fallbackError"
-                                isLoading = false
-                            }
-                        })
-                    }
-                }, context)
+                fetchCurrentLocationWeather()
             } else {
                 // Request location permission
                 locationPermissionLauncher.launch(
@@ -1183,6 +1006,12 @@ fun JavaWeatherContent() {
         }
     }
 
+    // Parsed and formatted once by the repository; composition only binds strings
+    val weatherDisplay = weather?.display
+    val currentWeatherDisplay = weatherDisplay?.current
+    val currentWeatherIcon = currentWeatherDisplay?.iconCode
+    val currentWeatherDescription = currentWeatherDisplay?.description
+
     Column(
         modifier = Modifier
             .fillMaxSize()
@@ -1265,14 +1094,11 @@ fun JavaWeatherContent() {
             ) {
                 // Filter saved locations based on user interaction
                 val filteredLocations = if (!isUserTyping || zipCodeInput.isEmpty()) {
-                    // Show all locations when user clicked to open dropdown or field is empty
-                    savedLocations.take(8) // Show first 8 when no filter
+                    // Show the most recent locations when user clicked to open dropdown or field is empty
+                    savedLocations.take(DROPDOWN_RECENT_LIMIT)
                 } else {
-                    // Filter only when user is actively typing
-                    savedLocations.filter { location ->
-                        location.zip.contains(zipCodeInput, ignoreCase = true) ||
-                        location.name.contains(zipCodeInput, ignoreCase = true)
-                    }.take(5) // Limit to 5 most recent matches
+                    // Best matches for what is being typed, from the search index
+                    matchingLocations
                 }
 
                 if (filteredLocations.isEmpty()) {
@@ -1327,7 +1153,7 @@ fun JavaWeatherContent() {
                     }
 
                     // Show divider and "View all" option if there are many saved locations
-                    if (savedLocations.size > 8) {
+                    if (savedLocations.size > DROPDOWN_RECENT_LIMIT) {
                         HorizontalDivider(
                             modifier = Modifier.padding(vertical = 4.dp),
                             thickness = 1.dp,
@@ -1368,66 +1194,26 @@ fun JavaWeatherContent() {
         ) {
             Button(
                 onClick = {
-                    isLoading = true
-                    errorMessage = null
-                    weatherJson = null
-                    currentWeatherIcon = null
-                    currentWeatherDescription = null
-
                     if (zipCodeInput.isNotBlank()) {
                         // Use zip code search
-                        currentLocation = "Zip Code: ${zipCodeInput.trim()}"
-                        repository.getWeatherDataByZip(zipCodeInput.trim(), object : JavaWeatherRepository.JsonDataCallback {
-                            override fun onSuccess(jsonData: String) {
-                                weatherJson = jsonData
-                                isLoading = false
-                                Log.d("JavaWeather", "Weather JSON (from zip): $jsonData")
-
-                                // Parse JSON to extract icon information
-                                try {
-                                    val gson = Gson()
-                                    val weatherResponse = gson.fromJson(jsonData, WeatherResponse::class.java)
-                                    weatherResponse.current?.weather?.firstOrNull()?.let { weather ->
-                                        currentWeatherIcon = weather.icon
-                                        currentWeatherDescription = weather.description
-                                    }
-                                } catch (e: Exception) {
-                                    Log.e("JavaWeather", "Error parsing weather data: ${e.message}")
-                                }
+                        val zipCode = zipCodeInput.trim()
+                        isLoading = true
+                        errorMessage = null
+                        weather = null
+                        currentLocation = "Zip Code: $zipCode"
+                        repository.getCoordinatesFromZip(zipCode, object : JavaWeatherRepository.CoordinatesCallback {
+                            override fun onSuccess(latitude: Double, longitude: Double) {
+                                fetchWeatherData(latitude, longitude, "Zip Code: $zipCode")
                             }
 
-                            override fun onError(error: String) {
+                            override fun onError(error: String?) {
                                 errorMessage = error
                                 isLoading = false
                             }
                         })
                     } else {
                         // Use default coordinates
-                        currentLocation = "Duluth, MN (46.8384°N, 92.1800°W)"
-                        repository.getWeatherDataAsJson(currentLatitude, currentLongitude, object : JavaWeatherRepository.JsonDataCallback {
-                            override fun onSuccess(jsonData: String) {
-                                weatherJson = jsonData
-                                isLoading = false
-                                Log.d("JavaWeather", "Weather JSON: $jsonData")
-
-                                // Parse JSON to extract icon information
-                                try {
-                                    val gson = Gson()
-                                    val weatherResponse = gson.fromJson(jsonData, WeatherResponse::class.java)
-                                    weatherResponse.current?.weather?.firstOrNull()?.let { weather ->
-                                        currentWeatherIcon = weather.icon
-                                        currentWeatherDescription = weather.description
-                                    }
-                                } catch (e: Exception) {
-                                    Log.e("JavaWeather", "Error parsing weather data: ${e.message}")
-                                }
-                            }
-
-                            override fun onError(error: String) {
-                                errorMessage = error
-                                isLoading = false
-                            }
-                        })
+                        fetchWeatherData(currentLatitude, currentLongitude, "Duluth, MN (46.8384°N, 92.1800°W)")
                     }
                 },
                 enabled = !isLoading,
@@ -1455,21 +1241,12 @@ fun JavaWeatherContent() {
                     .padding(bottom = 16.dp)
                     .clip(RoundedCornerShape(16.dp))
                     .clickable {
-                        weatherJson?.let { json ->
-                            val gson = Gson()
-                            val weatherResponse = try {
-                                gson.fromJson(json, WeatherResponse::class.java)
-                            } catch (e: Exception) {
-                                null
-                            }
-
-                            weatherResponse?.current?.let { current ->
-                                val intent = Intent(context, CurrentWeatherDetailActivity::class.java).apply {
-                                    putExtra("current_weather_json", gson.toJson(current))
-                                    putExtra("location", currentLocation)
-                                }
-                                context.startActivity(intent)
+                        weather?.let { result ->
+                            val intent = Intent(context, CurrentWeatherDetailActivity::class.java).apply {
+                                putExtra(CurrentWeatherDetailActivity.EXTRA_SNAPSHOT_KEY, WeatherStore.put(result))
+                                putExtra("location", currentLocation)
                             }
+                            context.startActivity(intent)
                         }
                     },
                 colors = CardDefaults.cardColors(
@@ -1481,22 +1258,18 @@ fun JavaWeatherContent() {
                     horizontalAlignment = Alignment.CenterHorizontally
                 ) {
                     // Current day and date
-                    val currentDate = java.util.Date()
-                    val dayFormatter = java.text.SimpleDateFormat("EEEE", java.util.Locale.getDefault())
-                    val dateFormatter = java.text.SimpleDateFormat("MMM d", java.util.Locale.getDefault())
-
                     Row(
                         verticalAlignment = Alignment.CenterVertically,
                         modifier = Modifier.padding(bottom = 8.dp)
                     ) {
                         Text(
-                            text = dayFormatter.format(currentDate),
+                            text = currentWeatherDisplay?.dayName.orEmpty(),
                             style = MaterialTheme.typography.titleMedium,
                             fontWeight = FontWeight.Bold
                         )
                         Spacer(modifier = Modifier.width(8.dp))
                         Text(
-                            text = dateFormatter.format(currentDate),
+                            text = currentWeatherDisplay?.shortDate.orEmpty(),
                             style = MaterialTheme.typography.bodyMedium,
                             color = MaterialTheme.colorScheme.onPrimaryContainer.copy(alpha = 0.7f)
                         )
@@ -1510,198 +1283,185 @@ fun JavaWeatherContent() {
 
                     currentWeatherDescription?.let { description ->
                         Text(
-                            text = description.replaceFirstChar { it.uppercase() },
+                            text = description,
                             style = MaterialTheme.typography.bodyMedium,
                             modifier = Modifier.padding(top = 8.dp, bottom = 8.dp)
                         )
                     }
 
-                    // Parse weather data for temperature and wind info
-                    weatherJson?.let { json ->
-                        val gson = Gson()
-                        val weatherResponse = try {
-                            gson.fromJson(json, WeatherResponse::class.java)
-                        } catch (e: Exception) {
-                            Log.e("JavaWeather", "Error parsing weather display data: ${e.message}")
-                            null
+                    // Temperature and wind info
+                    currentWeatherDisplay?.let { current ->
+                        // Temperature display
+                        Row(
+                            verticalAlignment = Alignment.CenterVertically,
+                            modifier = Modifier.padding(bottom = 8.dp)
+                        ) {
+                            Text(
+                                text = current.temperature,
+                                style = MaterialTheme.typography.headlineMedium,
+                                fontWeight = FontWeight.Bold
+                            )
                         }
 
-                        weatherResponse?.current?.let { current ->
-                            // Temperature display
-                            Row(
-                                verticalAlignment = Alignment.CenterVertically,
-                                modifier = Modifier.padding(bottom = 8.dp)
-                            ) {
-                                Text(
-                                    text = "${current.temp.toInt()}°F",
-                                    style = MaterialTheme.typography.headlineMedium,
-                                    fontWeight = FontWeight.Bold
-                                )
-                            }
+                        // Wind speed and direction display
+                        Row(
+                            verticalAlignment = Alignment.CenterVertically,
+                            horizontalArrangement = Arrangement.Center
+                        ) {
+                            Text(
+                                text = current.windSummary,
+                                style = MaterialTheme.typography.bodyMedium
+                            )
 
-                            // Wind speed and direction display
-                            Row(
-                                verticalAlignment = Alignment.CenterVertically,
-                                horizontalArrangement = Arrangement.Center
-                            ) {
-                                Text(
-                                    text = "Wind: ${current.windSpeed.toInt()} mph ",
-                                    style = MaterialTheme.typography.bodyMedium
-                                )
-
-                                // Wind direction arrow
-                                Text(
-                                    text = "↑",
-                                    style = MaterialTheme.typography.headlineSmall,
-                                    modifier = Modifier.graphicsLayer {
-                                        rotationZ = current.windDeg.toFloat()
-                                    }
-                                )
-                            }
+                            // Wind direction arrow
+                            Text(
+                                text = "↑",
+                                style = MaterialTheme.typography.headlineSmall,
+                                modifier = Modifier.graphicsLayer {
+                                    rotationZ = current.windDegrees
+                                }
+                            )
                         }
                     }
                 }
             }
         }
 
+        // Hourly outlook, summarized from the hourly series
+        weatherDisplay?.hourlyOutlook?.let { outlook ->
+            Text(
+                text = outlook,
+                style = MaterialTheme.typography.bodyMedium,
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .padding(bottom = 16.dp)
+            )
+        }
+
         // Daily Weather Forecast Row
-        weatherJson?.let { json ->
-            val gson = Gson()
-            val weatherResponse = try {
-                gson.fromJson(json, WeatherResponse::class.java)
-            } catch (e: Exception) {
-                Log.e("JavaWeather", "Error parsing daily weather data: ${e.message}")
-                null
-            }
+        weatherDisplay?.daily?.takeIf { it.isNotEmpty() }?.let { dailyWeather ->
+            Column(
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .padding(bottom = 16.dp)
+            ) {
+                Text(
+                    text = "7-Day Forecast",
+                    style = MaterialTheme.typography.titleMedium,
+                    fontWeight = FontWeight.Bold,
+                    modifier = Modifier.padding(bottom = 8.dp)
+                )
 
-            weatherResponse?.daily?.let { dailyWeather ->
-                Column(
-                    modifier = Modifier
-                        .fillMaxWidth()
-                        .padding(bottom = 16.dp)
+                LazyRow(
+                    horizontalArrangement = Arrangement.spacedBy(12.dp),
+                    contentPadding = PaddingValues(horizontal = 4.dp)
                 ) {
-                    Text(
-                        text = "7-Day Forecast",
-                        style = MaterialTheme.typography.titleMedium,
-                        fontWeight = FontWeight.Bold,
-                        modifier = Modifier.padding(bottom = 8.dp)
-                    )
-
-                    LazyRow(
-                        horizontalArrangement = Arrangement.spacedBy(12.dp),
-                        contentPadding = PaddingValues(horizontal = 4.dp)
-                    ) {
-                        items(dailyWeather) { day ->
-                            Card(
+                    itemsIndexed(dailyWeather) { index, day ->
+                        Card(
+                            modifier = Modifier
+                                .width(120.dp)
+                                .clip(RoundedCornerShape(16.dp))
+                                .clickable {
+                                    val intent = Intent(context, DailyWeatherDetailActivity::class.java).apply {
+                                        putExtra(DailyWeatherDetailActivity.EXTRA_SNAPSHOT_KEY, weather?.let { WeatherStore.put(it) })
+                                        putExtra(DailyWeatherDetailActivity.EXTRA_DAY_INDEX, index)
+                                        putExtra("location", currentLocation)
+                                    }
+                                    context.startActivity(intent)
+                                },
+                            colors = CardDefaults.cardColors(
+                                containerColor = MaterialTheme.colorScheme.primaryContainer
+                            )
+                        ) {
+                            Column(
                                 modifier = Modifier
-                                    .width(120.dp)
-                                    .clip(RoundedCornerShape(16.dp))
-                                    .clickable {
-                                        val gson = Gson()
-                                        val intent = Intent(context, DailyWeatherDetailActivity::class.java).apply {
-                                            putExtra("daily_weather_json", gson.toJson(day))
-                                            putExtra("location", currentLocation)
-                                        }
-                                        context.startActivity(intent)
-                                    },
-                                colors = CardDefaults.cardColors(
-                                    containerColor = MaterialTheme.colorScheme.primaryContainer
-                                )
+                                    .padding(12.dp)
+                                    .fillMaxWidth(),
+                                horizontalAlignment = Alignment.CenterHorizontally
                             ) {
-                                Column(
-                                    modifier = Modifier
-                                        .padding(12.dp)
-                                        .fillMaxWidth(),
-                                    horizontalAlignment = Alignment.CenterHorizontally
+                                // Day of week and date
+                                Row(
+                                    verticalAlignment = Alignment.CenterVertically,
+                                    modifier = Modifier.padding(bottom = 8.dp)
                                 ) {
-                                    // Day of week and date
-                                    val dayFormatter = java.text.SimpleDateFormat("EEE", java.util.Locale.getDefault())
-                                    val dateFormatter = java.text.SimpleDateFormat("MMM d", java.util.Locale.getDefault())
-                                    val date = java.util.Date(day.dt * 1000)
-
-                                    Row(
-                                        verticalAlignment = Alignment.CenterVertically,
-                                        modifier = Modifier.padding(bottom = 8.dp)
-                                    ) {
-                                        Text(
-                                            text = dayFormatter.format(date),
-                                            style = MaterialTheme.typography.bodySmall,
-                                            fontWeight = FontWeight.Bold
-                                        )
-                                        Spacer(modifier = Modifier.width(4.dp))
-                                        Text(
-                                            text = dateFormatter.format(date),
-                                            style = MaterialTheme.typography.labelSmall,
-                                            color = MaterialTheme.colorScheme.onPrimaryContainer.copy(alpha = 0.7f)
-                                        )
-                                    }
+                                    Text(
+                                        text = day.shortDayName,
+                                        style = MaterialTheme.typography.bodySmall,
+                                        fontWeight = FontWeight.Bold
+                                    )
+                                    Spacer(modifier = Modifier.width(4.dp))
+                                    Text(
+                                        text = day.shortDate,
+                                        style = MaterialTheme.typography.labelSmall,
+                                        color = MaterialTheme.colorScheme.onPrimaryContainer.copy(alpha = 0.7f)
+                                    )
+                                }
 
-                                    // Weather icon
-                                    day.weather.firstOrNull()?.let { weather ->
-                                        AsyncImage(
-                                            model = "https://openweathermap.org/img/wn/${weather.icon}@2x.png",
-                                            contentDescription = weather.description,
-                                            modifier = Modifier
-                                                .size(48.dp)
-                                                .padding(bottom = 8.dp)
-                                        )
-                                    }
+                                // Weather icon
+                                day.iconCode?.let { iconCode ->
+                                    AsyncImage(
+                                        model = "https://openweathermap.org/img/wn/${iconCode}@2x.png",
+                                        contentDescription = day.description,
+                                        modifier = Modifier
+                                            .size(48.dp)
+                                            .padding(bottom = 8.dp)
+                                    )
+                                }
 
-                                    // High/Low temperatures with labels
-                                    Row(
-                                        horizontalArrangement = Arrangement.Center,
-                                        verticalAlignment = Alignment.CenterVertically,
-                                        modifier = Modifier.padding(bottom = 4.dp)
-                                    ) {
-                                        Text(
-                                            text = "High: ",
-                                            style = MaterialTheme.typography.labelSmall,
-                                            fontWeight = FontWeight.Bold
-                                        )
-                                        Text(
-                                            text = "${day.temp.max.toInt()}°",
-                                            style = MaterialTheme.typography.bodySmall
-                                        )
-                                    }
+                                // High/Low temperatures with labels
+                                Row(
+                                    horizontalArrangement = Arrangement.Center,
+                                    verticalAlignment = Alignment.CenterVertically,
+                                    modifier = Modifier.padding(bottom = 4.dp)
+                                ) {
+                                    Text(
+                                        text = "High: ",
+                                        style = MaterialTheme.typography.labelSmall,
+                                        fontWeight = FontWeight.Bold
+                                    )
+                                    Text(
+                                        text = day.high,
+                                        style = MaterialTheme.typography.bodySmall
+                                    )
+                                }
 
-                                    Row(
-                                        horizontalArrangement = Arrangement.Center,
-                                        verticalAlignment = Alignment.CenterVertically,
-                                        modifier = Modifier.padding(bottom = 8.dp)
-                                    ) {
-                                        Text(
-                                            text = "Low: ",
-                                            style = MaterialTheme.typography.labelSmall,
-                                            fontWeight = FontWeight.Bold
-                                        )
-                                        Text(
-                                            text = "${day.temp.min.toInt()}°",
-                                            style = MaterialTheme.typography.bodySmall
-                                        )
-                                    }
+                                Row(
+                                    horizontalArrangement = Arrangement.Center,
+                                    verticalAlignment = Alignment.CenterVertically,
+                                    modifier = Modifier.padding(bottom = 8.dp)
+                                ) {
+                                    Text(
+                                        text = "Low: ",
+                                        style = MaterialTheme.typography.labelSmall,
+                                        fontWeight = FontWeight.Bold
+                                    )
+                                    Text(
+                                        text = day.low,
+                                        style = MaterialTheme.typography.bodySmall
+                                    )
+                                }
 
-                                    // Wind info with label
-                                    Row(
-                                        horizontalArrangement = Arrangement.Center,
-                                        verticalAlignment = Alignment.CenterVertically
-                                    ) {
-                                        Text(
-                                            text = "Wind: ",
-                                            style = MaterialTheme.typography.labelSmall,
-                                            fontWeight = FontWeight.Bold
-                                        )
-                                        Text(
-                                            text = "${day.windSpeed.toInt()}",
-                                            style = MaterialTheme.typography.labelSmall
-                                        )
-                                        Text(
-                                            text = "↑",
-                                            style = MaterialTheme.typography.labelSmall,
-                                            modifier = Modifier.graphicsLayer {
-                                                rotationZ = day.windDeg.toFloat()
-                                            }
-                                        )
-                                    }
+                                // Wind info with label
+                                Row(
+                                    horizontalArrangement = Arrangement.Center,
+                                    verticalAlignment = Alignment.CenterVertically
+                                ) {
+                                    Text(
+                                        text = "Wind: ",
+                                        style = MaterialTheme.typography.labelSmall,
+                                        fontWeight = FontWeight.Bold
+                                    )
+                                    Text(
+                                        text = day.windSpeedValue,
+                                        style = MaterialTheme.typography.labelSmall
+                                    )
+                                    Text(
+                                        text = "↑",
+                                        style = MaterialTheme.typography.labelSmall,
+                                        modifier = Modifier.graphicsLayer {
+                                            rotationZ = day.windDegrees
+                                        }
+                                    )
                                 }
                             }
                         }
@@ -1733,31 +1493,13 @@ fun JavaWeatherContent() {
             }
         }
 
-        weatherJson?.let { json ->
-            Card(
+        weather?.let { result ->
+            JsonInspectorCard(
+                result = result,
                 modifier = Modifier
                     .fillMaxWidth()
-                    .padding(bottom = 16.dp),
-                colors = CardDefaults.cardColors(
-                    containerColor = MaterialTheme.colorScheme.surfaceVariant
-                )
-            ) {
-                Column(
-                    modifier = Modifier.padding(16.dp)
-                ) {
-                    Text(
-                        text = "Weather Data (JSON):",
-                        style = MaterialTheme.typography.titleMedium,
-                        fontWeight = FontWeight.Bold,
-                        modifier = Modifier.padding(bottom = 8.dp)
-                    )
-                    Text(
-                        text = json,
-                        style = MaterialTheme.typography.bodySmall,
-                        modifier = Modifier.fillMaxWidth()
-                    )
-                }
-            }
+                    .padding(bottom = 16.dp)
+            )
         }
     }
 }
@@ -7,7 +7,6 @@ import androidx.activity.enableEdgeToEdge
 import androidx.compose.foundation.clickable
 import androidx.compose.foundation.layout.*
 import androidx.compose.foundation.lazy.LazyColumn
-import androidx.compose.foundation.lazy.items
 import androidx.compose.foundation.rememberScrollState
 import androidx.compose.foundation.shape.RoundedCornerShape
 import androidx.compose.foundation.verticalScroll
@@ -17,6 +16,7 @@ import androidx.compose.material.icons.filled.Delete
 import androidx.compose.material.icons.filled.Favorite
 import androidx.compose.material.icons.filled.FavoriteBorder
 import androidx.compose.material.icons.filled.LocationOn
+import androidx.compose.material.icons.filled.Search
 import androidx.compose.material3.*
 import androidx.compose.runtime.*
 import androidx.compose.ui.Alignment
@@ -26,12 +26,19 @@ import androidx.compose.ui.graphics.Color
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import androidx.lifecycle.lifecycleScope
+import androidx.paging.LoadState
+import androidx.paging.compose.collectAsLazyPagingItems
+import androidx.paging.compose.itemKey
+import androidx.paging.map
+import com.example.whetherornot.data.model.SavedLocationDisplay
 import com.example.whetherornot.data.model.ZipCodeResponse
 import com.example.whetherornot.data.repository.LocationRepository
 import com.example.whetherornot.ui.theme.WhetherOrNotTheme
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.launch
-import java.text.SimpleDateFormat
-import java.util.*
+
+private const val SEARCH_DEBOUNCE_MILLIS = 150L
 
 class SavedLocationsActivity : ComponentActivity() {
 
@@ -72,31 +79,24 @@ fun SavedLocationsScreen(
     onBackClick: () -> Unit,
     onLocationClick: (ZipCodeResponse) -> Unit
 ) {
-    var locations by remember { mutableStateOf<List<ZipCodeResponse>>(emptyList()) }
-    var isLoading by remember { mutableStateOf(true) }
-    var errorMessage by remember { mutableStateOf<String?>(null) }
     var showFavoritesOnly by remember { mutableStateOf(false) }
+    var searchQuery by remember { mutableStateOf("") }
+    // Search text actually queried, applied after a pause in typing
+    var activeQuery by remember { mutableStateOf("") }
 
-    // Load locations when the screen opens
-    LaunchedEffect(showFavoritesOnly) {
-        try {
-            if (showFavoritesOnly) {
-                locationRepository.getFavoriteLocations().collect { favoriteLocations ->
-                    locations = favoriteLocations
-                    isLoading = false
-                }
-            } else {
-                locationRepository.getAllLocations().collect { allLocations ->
-                    locations = allLocations
-                    isLoading = false
-                }
-            }
-        } catch (e: Exception) {
-            errorMessage = "Error loading locations: ${e.message}"
-            isLoading = false
-        }
+    LaunchedEffect(searchQuery) {
+        // A newer keystroke cancels this before it applies
+        if (searchQuery.isNotBlank()) delay(SEARCH_DEBOUNCE_MILLIS)
+        activeQuery = searchQuery
     }
 
+    // Only pages near the visible rows are loaded; card text is formatted once per page
+    val locations = remember(activeQuery, showFavoritesOnly) {
+        locationRepository.pagedLocations(activeQuery, showFavoritesOnly)
+            .map { page -> page.map { SavedLocationDisplay.from(it) } }
+    }.collectAsLazyPagingItems()
+    val refreshState = locations.loadState.refresh
+
     Column(
         modifier = Modifier
             .fillMaxSize()
@@ -123,6 +123,23 @@ fun SavedLocationsScreen(
             )
         }
 
+        // Search by name or zip
+        OutlinedTextField(
+            value = searchQuery,
+            onValueChange = { searchQuery = it },
+            modifier = Modifier
+                .fillMaxWidth()
+                .padding(bottom = 8.dp),
+            placeholder = { Text("Search by name or zip") },
+            leadingIcon = {
+                Icon(
+                    imageVector = Icons.Default.Search,
+                    contentDescription = null
+                )
+            },
+            singleLine = true
+        )
+
         // Filter Toggle
         Row(
             modifier = Modifier
@@ -144,7 +161,7 @@ fun SavedLocationsScreen(
 
         // Content
         when {
-            isLoading -> {
+            refreshState is LoadState.Loading && locations.itemCount == 0 -> {
                 Box(
                     modifier = Modifier.fillMaxSize(),
                     contentAlignment = Alignment.Center
@@ -152,7 +169,7 @@ fun SavedLocationsScreen(
                     CircularProgressIndicator()
                 }
             }
-            errorMessage != null -> {
+            refreshState is LoadState.Error -> {
                 Card(
                     modifier = Modifier.fillMaxWidth(),
                     colors = CardDefaults.cardColors(
@@ -160,13 +177,13 @@ fun SavedLocationsScreen(
                     )
                 ) {
                     Text(
-                        text = errorMessage!!,
+                        text = "Error loading locations: ${refreshState.error.message}",
                         modifier = Modifier.padding(16.dp),
                         color = MaterialTheme.colorScheme.onErrorContainer
                     )
                 }
             }
-            locations.isEmpty() -> {
+            locations.itemCount == 0 -> {
                 Card(
                     modifier = Modifier.fillMaxWidth(),
                     colors = CardDefaults.cardColors(
@@ -185,12 +202,20 @@ fun SavedLocationsScreen(
                         )
                         Spacer(modifier = Modifier.height(16.dp))
                         Text(
-                            text = if (showFavoritesOnly) "No favorite locations saved" else "No locations saved yet",
+                            text = when {
+                                activeQuery.isNotBlank() -> "No matching locations"
+                                showFavoritesOnly -> "No favorite locations saved"
+                                else -> "No locations saved yet"
+                            },
                             style = MaterialTheme.typography.titleMedium,
                             color = MaterialTheme.colorScheme.onSurfaceVariant
                         )
                         Text(
-                            text = if (showFavoritesOnly) "Mark locations as favorites to see them here" else "Search for weather data to save locations",
+                            text = when {
+                                activeQuery.isNotBlank() -> "Try a different name or zip code"
+                                showFavoritesOnly -> "Mark locations as favorites to see them here"
+                                else -> "Search for weather data to save locations"
+                            },
                             style = MaterialTheme.typography.bodyMedium,
                             color = MaterialTheme.colorScheme.onSurfaceVariant
                         )
@@ -202,31 +227,39 @@ fun SavedLocationsScreen(
                     modifier = Modifier.fillMaxSize(),
                     verticalArrangement = Arrangement.spacedBy(8.dp)
                 ) {
-                    items(locations) { location ->
-                        LocationCard(
-                            location = location,
-                            onLocationClick = onLocationClick,
-                            onFavoriteToggle = { loc, isFavorite ->
-                                // Update favorite status in database
-                                kotlinx.coroutines.CoroutineScope(kotlinx.coroutines.Dispatchers.IO).launch {
-                                    try {
-                                        locationRepository.toggleFavorite(loc.zip, isFavorite)
-                                    } catch (e: Exception) {
-                                        // Handle error
+                    items(
+                        count = locations.itemCount,
+                        key = locations.itemKey { it.location.zip }
+                    ) { index ->
+                        val item = locations[index]
+                        if (item == null) {
+                            LocationPlaceholderCard()
+                        } else {
+                            LocationCard(
+                                item = item,
+                                onLocationClick = onLocationClick,
+                                onFavoriteToggle = { loc, isFavorite ->
+                                    // Update favorite status in database
+                                    kotlinx.coroutines.CoroutineScope(kotlinx.coroutines.Dispatchers.IO).launch {
+                                        try {
+                                            locationRepository.toggleFavorite(loc.zip, isFavorite)
+                                        } catch (e: Exception) {
+                                            // Handle error
+                                        }
                                     }
-                                }
-                            },
-                            onDelete = { loc ->
-                                // Delete location from database
-                                kotlinx.coroutines.CoroutineScope(kotlinx.coroutines.Dispatchers.IO).launch {
-                                    try {
-                                        locationRepository.deleteLocation(loc)
-                                    } catch (e: Exception) {
-                                        // Handle error
+                                },
+                                onDelete = { loc ->
+                                    // Delete location from database
+                                    kotlinx.coroutines.CoroutineScope(kotlinx.coroutines.Dispatchers.IO).launch {
+                                        try {
+                                            locationRepository.deleteLocation(loc)
+                                        } catch (e: Exception) {
+                                            // Handle error
+                                        }
                                     }
                                 }
-                            }
-                        )
+                            )
+                        }
                     }
                 }
             }
@@ -234,13 +267,29 @@ fun SavedLocationsScreen(
     }
 }
 
+/**
+ * Stand-in for a row whose page has not loaded yet
+ */
+@Composable
+private fun LocationPlaceholderCard() {
+    Card(
+        modifier = Modifier
+            .fillMaxWidth()
+            .height(104.dp),
+        colors = CardDefaults.cardColors(
+            containerColor = MaterialTheme.colorScheme.surfaceVariant
+        )
+    ) {}
+}
+
 @Composable
 fun LocationCard(
-    location: ZipCodeResponse,
+    item: SavedLocationDisplay,
     onLocationClick: (ZipCodeResponse) -> Unit,
     onFavoriteToggle: (ZipCodeResponse, Boolean) -> Unit,
     onDelete: (ZipCodeResponse) -> Unit
 ) {
+    val location = item.location
     Card(
         modifier = Modifier
             .fillMaxWidth()
@@ -275,16 +324,14 @@ fun LocationCard(
                     color = MaterialTheme.colorScheme.onSurfaceVariant
                 )
                 Text(
-                    text = "${location.country} • ${String.format("%.4f°N, %.4f°W", location.lat, Math.abs(location.lon))}",
+                    text = item.coordinates,
                     style = MaterialTheme.typography.bodySmall,
                     color = MaterialTheme.colorScheme.onSurfaceVariant
                 )
 
                 // Last searched time
-                val searchedDate = Date(location.searchedAt)
-                val dateFormatter = SimpleDateFormat("MMM d, yyyy 'at' h:mm a", Locale.getDefault())
                 Text(
-                    text = "Last searched: ${dateFormatter.format(searchedDate)}",
+                    text = item.lastSearched,
                     style = MaterialTheme.typography.bodySmall,
                     color = MaterialTheme.colorScheme.onSurfaceVariant
                 )
@@ -0,0 +1,25 @@
+package com.example.whetherornot
+
+import android.app.Application
+import com.example.whetherornot.data.api.NetworkModule
+import com.example.whetherornot.data.cache.WeatherStore
+import com.example.whetherornot.data.database.DatabaseMaintenanceWorker
+import com.example.whetherornot.data.repository.LocationRepository
+
+/**
+ * Application class that wires up app-scoped components before any screen is created
+ */
+class WhetherOrNotApplication : Application() {
+
+    override fun onCreate() {
+        super.onCreate()
+        // Give the shared HTTP stack a disk cache location
+        NetworkModule.initialize(this)
+        // Lets detail screens reload their weather after process death
+        WeatherStore.initialize(this)
+        // Bounds saved history and reclaims database space while the device is idle
+        DatabaseMaintenanceWorker.schedule(this)
+        // Queued location saves must not wait out their delay in a backgrounded process
+        LocationRepository.flushSavesOnStop()
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.whetherornot.data.api
+
+/**
+ * Per-endpoint circuit breaker
+ * After [failureThreshold] consecutive failures the circuit opens and calls fail fast
+ * for [openDurationMillis]. Then a single trial call is let through (half-open); its
+ * outcome either closes the circuit again or re-opens it.
+ */
+class CircuitBreaker(
+    private val failureThreshold: Int = 5,
+    private val openDurationMillis: Long = 30_000L,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    enum class State { CLOSED, OPEN, HALF_OPEN }
+
+    private var state = State.CLOSED
+    private var consecutiveFailures = 0
+    private var openedAt = 0L
+    private var trialInFlight = false
+
+    /**
+     * Returns true if a call may proceed right now
+     */
+    @Synchronized
+    fun allowRequest(): Boolean {
+        return when (state) {
+            State.CLOSED -> true
+            State.OPEN -> {
+                if (clock() - openedAt >= openDurationMillis) {
+                    state = State.HALF_OPEN
+                    trialInFlight = true
+                    true
+                } else {
+                    false
+                }
+            }
+            State.HALF_OPEN -> {
+                // Only one trial call at a time
+                if (trialInFlight) {
+                    false
+                } else {
+                    trialInFlight = true
+                    true
+                }
+            }
+        }
+    }
+
+    @Synchronized
+    fun recordSuccess() {
+        state = State.CLOSED
+        consecutiveFailures = 0
+        trialInFlight = false
+    }
+
+    @Synchronized
+    fun recordFailure() {
+        trialInFlight = false
+        consecutiveFailures++
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN
+            openedAt = clock()
+        }
+    }
+
+    /**
+     * The call was abandoned by the caller; only frees the half-open trial slot
+     */
+    @Synchronized
+    fun recordCancelled() {
+        trialInFlight = false
+    }
+
+    @Synchronized
+    fun currentState(): State = state
+}
@@ -0,0 +1,98 @@
+package com.example.whetherornot.data.api
+
+import android.content.Context
+import android.content.pm.ApplicationInfo
+import com.example.whetherornot.data.json.StreamingWeatherConverterFactory
+import com.example.whetherornot.data.json.WeatherSectionsInterceptor
+import okhttp3.Cache
+import okhttp3.OkHttpClient
+import okhttp3.logging.HttpLoggingInterceptor
+import retrofit2.Retrofit
+import java.io.File
+import java.util.concurrent.TimeUnit
+
+/**
+ * Process-wide networking components shared by the Java and Kotlin repositories.
+ * Keeping a single OkHttpClient means one connection pool and dispatcher, so warm
+ * TLS connections to api.openweathermap.org are reused across screens.
+ */
+object NetworkModule {
+
+    private const val HTTP_CACHE_DIR = "http_cache"
+    private const val HTTP_CACHE_SIZE_BYTES = 10L * 1024 * 1024
+
+    @Volatile
+    private var cacheDirectory: File? = null
+
+    // BODY logging buffers the whole payload, which defeats streaming decode; debug builds only
+    @Volatile
+    private var httpLogLevel = HttpLoggingInterceptor.Level.BODY
+
+    /**
+     * Daily/burst call budget shared by every request made through [okHttpClient]
+     */
+    @JvmStatic
+    val quotaGovernor = QuotaGovernor()
+
+    /**
+     * Provide the application context so the HTTP cache and quota counters can live on disk
+     * Must be called before the client is first used, normally from the Application class
+     */
+    @JvmStatic
+    fun initialize(context: Context) {
+        cacheDirectory = File(context.applicationContext.cacheDir, HTTP_CACHE_DIR)
+        quotaGovernor.attachStorage(context)
+        val debuggable = (context.applicationInfo.flags and ApplicationInfo.FLAG_DEBUGGABLE) != 0
+        httpLogLevel = if (debuggable) HttpLoggingInterceptor.Level.BODY else HttpLoggingInterceptor.Level.BASIC
+    }
+
+    /**
+     * Shared OkHttp client with logging, timeouts and a disk-backed response cache
+     */
+    @JvmStatic
+    val okHttpClient: OkHttpClient by lazy {
+        // Setup HTTP logging interceptor for debugging
+        val loggingInterceptor = HttpLoggingInterceptor().apply {
+            level = httpLogLevel
+        }
+
+        val builder = OkHttpClient.Builder()
+            .addInterceptor(WeatherSectionsInterceptor())
+            .addInterceptor(OfflineCacheInterceptor(quotaGovernor))
+            .addInterceptor(ResilienceInterceptor())
+            .addInterceptor(loggingInterceptor)
+            .addNetworkInterceptor(QuotaInterceptor(quotaGovernor))
+            .addNetworkInterceptor(CacheFreshnessInterceptor())
+            .connectTimeout(30, TimeUnit.SECONDS)
+            .readTimeout(30, TimeUnit.SECONDS)
+            .writeTimeout(30, TimeUnit.SECONDS)
+
+        // Without a context the client still works, just without the disk cache
+        cacheDirectory?.let { directory ->
+            builder.cache(Cache(directory, HTTP_CACHE_SIZE_BYTES))
+        }
+
+        builder.build()
+    }
+
+    /**
+     * Shared Retrofit instance built on top of [okHttpClient]
+     * Weather payloads are decoded token by token from the response stream
+     */
+    @JvmStatic
+    val retrofit: Retrofit by lazy {
+        Retrofit.Builder()
+            .baseUrl(WeatherApiService.BASE_URL)
+            .client(okHttpClient)
+            .addConverterFactory(StreamingWeatherConverterFactory())
+            .build()
+    }
+
+    /**
+     * Shared API service proxy injected into both weather repositories
+     */
+    @JvmStatic
+    val weatherApiService: WeatherApiService by lazy {
+        retrofit.create(WeatherApiService::class.java)
+    }
+}
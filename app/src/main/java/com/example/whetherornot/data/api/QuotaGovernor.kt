@@ -0,0 +1,184 @@
+package com.example.whetherornot.data.api
+
+import android.content.Context
+import android.content.SharedPreferences
+import android.util.Log
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import okhttp3.Interceptor
+import okhttp3.Response
+import java.io.IOException
+
+/**
+ * Who asked for a request; user-initiated calls win when the budget is tight
+ * Attached to Retrofit calls with @Tag and read back by [QuotaInterceptor].
+ */
+enum class RequestPriority { USER, BACKGROUND }
+
+/**
+ * Thrown instead of making a request the quota governor refused
+ */
+class QuotaExceededException(message: String) : IOException(message)
+
+/**
+ * Client-side guard for the OpenWeather call budget
+ * Combines a token bucket (short bursts) with a daily budget that resets at UTC
+ * midnight, like OpenWeather's own counter. Background calls stop once the remaining
+ * budget drops into the reserve kept for user-initiated calls. The daily count is
+ * persisted so restarts do not reset it.
+ */
+class QuotaGovernor(
+    val dailyBudget: Int = 1000,
+    private val bucketCapacity: Int = 10,
+    private val refillIntervalMillis: Long = 6_000L,
+    private val backgroundReserveFraction: Double = 0.2,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    companion object {
+        private const val TAG = "WeatherQuota"
+        private const val PREFS_NAME = "quota_governor"
+        private const val KEY_DAY = "epoch_day"
+        private const val KEY_USED = "used_today"
+        private const val KEY_DENIED = "denied_today"
+        private const val MILLIS_PER_DAY = 24 * 60 * 60 * 1000L
+    }
+
+    /**
+     * Live counters for diagnostics and UI
+     */
+    data class QuotaStatus(
+        val usedToday: Int,
+        val deniedToday: Int,
+        val dailyBudget: Int,
+        val availableTokens: Int,
+        val isTight: Boolean
+    ) {
+        val remainingToday: Int get() = (dailyBudget - usedToday).coerceAtLeast(0)
+    }
+
+    private var prefs: SharedPreferences? = null
+    private var epochDay = clock() / MILLIS_PER_DAY
+    private var usedToday = 0
+    private var deniedToday = 0
+    private var tokens = bucketCapacity.toDouble()
+    private var lastRefillAt = clock()
+
+    private val _status = MutableStateFlow(buildStatus())
+    val status: StateFlow<QuotaStatus> = _status.asStateFlow()
+
+    /**
+     * Load and persist counters in SharedPreferences
+     */
+    @Synchronized
+    fun attachStorage(context: Context) {
+        val preferences = context.applicationContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+        prefs = preferences
+        if (preferences.getLong(KEY_DAY, -1L) == epochDay) {
+            usedToday = maxOf(usedToday, preferences.getInt(KEY_USED, 0))
+            deniedToday = maxOf(deniedToday, preferences.getInt(KEY_DENIED, 0))
+        }
+        publish()
+    }
+
+    /**
+     * Take one call from the budget, or return false if [priority] may not spend it now
+     */
+    @Synchronized
+    fun tryAcquire(priority: RequestPriority): Boolean {
+        rollOverIfNewDay()
+        refill()
+
+        val allowed = when {
+            usedToday >= dailyBudget -> false
+            tokens < 1.0 -> false
+            // Background work leaves the reserve and half the burst to the user
+            priority == RequestPriority.BACKGROUND ->
+                !isTightLocked() && tokens >= bucketCapacity / 2.0
+            else -> true
+        }
+
+        if (allowed) {
+            tokens -= 1.0
+            usedToday++
+        } else {
+            deniedToday++
+            Log.w(TAG, "Denied $priority call: used $usedToday/$dailyBudget, tokens ${tokens.toInt()}")
+        }
+        publish()
+        return allowed
+    }
+
+    /**
+     * True once the remaining daily budget is inside the user reserve
+     */
+    @Synchronized
+    fun isTight(): Boolean {
+        rollOverIfNewDay()
+        return isTightLocked()
+    }
+
+    /**
+     * Counters as of now, with the bucket refilled up to the current time
+     */
+    @Synchronized
+    fun currentStatus(): QuotaStatus {
+        rollOverIfNewDay()
+        refill()
+        return buildStatus()
+    }
+
+    private fun isTightLocked(): Boolean =
+        dailyBudget - usedToday <= (dailyBudget * backgroundReserveFraction).toInt()
+
+    private fun rollOverIfNewDay() {
+        val today = clock() / MILLIS_PER_DAY
+        if (today != epochDay) {
+            epochDay = today
+            usedToday = 0
+            deniedToday = 0
+        }
+    }
+
+    private fun refill() {
+        val now = clock()
+        val elapsed = now - lastRefillAt
+        if (elapsed <= 0) return
+        tokens = (tokens + elapsed.toDouble() / refillIntervalMillis).coerceAtMost(bucketCapacity.toDouble())
+        lastRefillAt = now
+    }
+
+    private fun buildStatus() = QuotaStatus(
+        usedToday = usedToday,
+        deniedToday = deniedToday,
+        dailyBudget = dailyBudget,
+        availableTokens = tokens.toInt(),
+        isTight = isTightLocked()
+    )
+
+    private fun publish() {
+        prefs?.edit()
+            ?.putLong(KEY_DAY, epochDay)
+            ?.putInt(KEY_USED, usedToday)
+            ?.putInt(KEY_DENIED, deniedToday)
+            ?.apply()
+        _status.value = buildStatus()
+    }
+}
+
+/**
+ * Network interceptor that charges every real network call to the [QuotaGovernor]
+ * Cache hits never reach network interceptors, so they are free.
+ */
+class QuotaInterceptor(private val governor: QuotaGovernor) : Interceptor {
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val priority = request.tag(RequestPriority::class.java) ?: RequestPriority.USER
+        if (!governor.tryAcquire(priority)) {
+            throw QuotaExceededException("API call budget exhausted for $priority request")
+        }
+        return chain.proceed(request)
+    }
+}
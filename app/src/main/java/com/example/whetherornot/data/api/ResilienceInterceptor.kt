@@ -0,0 +1,123 @@
+package com.example.whetherornot.data.api
+
+import android.util.Log
+import okhttp3.Interceptor
+import okhttp3.Response
+import java.io.IOException
+import java.io.InterruptedIOException
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.random.Random
+
+/**
+ * Thrown instead of making a request while an endpoint's circuit is open
+ */
+class CircuitOpenException(endpoint: String) : IOException("Service temporarily unavailable: $endpoint")
+
+/**
+ * Application interceptor that retries transient failures and guards each endpoint
+ * with a [CircuitBreaker]
+ * Responses served purely from the HTTP cache leave the breaker untouched.
+ * Retries cover timeouts, connection errors, 5xx and 429, using bounded exponential
+ * backoff with full jitter. Retry-After is honoured for 429 up to [maxDelayMillis].
+ */
+class ResilienceInterceptor(
+    private val maxAttempts: Int = 3,
+    private val baseDelayMillis: Long = 500L,
+    private val maxDelayMillis: Long = 8_000L,
+    private val breakerFactory: () -> CircuitBreaker = { CircuitBreaker() }
+) : Interceptor {
+
+    companion object {
+        private const val TAG = "WeatherResilience"
+    }
+
+    private val breakers = ConcurrentHashMap<String, CircuitBreaker>()
+
+    /**
+     * Circuit breaker for an endpoint path, e.g. "/data/3.0/onecall"
+     */
+    fun breakerFor(endpoint: String): CircuitBreaker =
+        breakers.getOrPut(endpoint) { breakerFactory() }
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        // Only idempotent requests are safe to retry; cache-only lookups never touch the network
+        if (request.method != "GET" || request.cacheControl.onlyIfCached) {
+            return chain.proceed(request)
+        }
+
+        val endpoint = request.url.encodedPath
+        val breaker = breakerFor(endpoint)
+        if (!breaker.allowRequest()) {
+            Log.w(TAG, "Circuit open for $endpoint, failing fast")
+            throw CircuitOpenException(endpoint)
+        }
+
+        var attempt = 0
+        while (true) {
+            attempt++
+            val response = try {
+                chain.proceed(request)
+            } catch (e: IOException) {
+                if (chain.call().isCanceled() || e is QuotaExceededException) {
+                    // A cancelled or locally refused call says nothing about the service's health
+                    breaker.recordCancelled()
+                    throw e
+                }
+                if (attempt >= maxAttempts || !isRetryable(e)) {
+                    breaker.recordFailure()
+                    throw e
+                }
+                Log.w(TAG, "Attempt $attempt for $endpoint failed: ${e.message}, retrying")
+                sleep(backoffDelay(attempt, null))
+                continue
+            }
+
+            if (response.networkResponse == null) {
+                // Served entirely from the HTTP cache, so it says nothing about the service's health
+                breaker.recordCancelled()
+                return response
+            }
+
+            if (!isTransient(response.code)) {
+                // 4xx other than 429 is the caller's problem, not the service's health
+                breaker.recordSuccess()
+                return response
+            }
+
+            if (chain.call().isCanceled() || attempt >= maxAttempts) {
+                breaker.recordFailure()
+                return response
+            }
+
+            val retryAfter = response.header("Retry-After")?.toLongOrNull()
+            response.close()
+            Log.w(TAG, "Attempt $attempt for $endpoint returned ${response.code}, retrying")
+            sleep(backoffDelay(attempt, retryAfter))
+        }
+    }
+
+    private fun isTransient(code: Int): Boolean = code == 429 || code in 500..599
+
+    private fun isRetryable(e: IOException): Boolean = e !is CircuitOpenException
+
+    /**
+     * Full-jitter exponential backoff: random in [0, min(max, base * 2^(attempt-1))]
+     */
+    private fun backoffDelay(attempt: Int, retryAfterSeconds: Long?): Long {
+        if (retryAfterSeconds != null) {
+            return (retryAfterSeconds * 1000).coerceIn(0L, maxDelayMillis)
+        }
+        val ceiling = (baseDelayMillis shl (attempt - 1).coerceAtMost(16)).coerceAtMost(maxDelayMillis)
+        return Random.nextLong(ceiling + 1)
+    }
+
+    private fun sleep(millis: Long) {
+        try {
+            Thread.sleep(millis)
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+            throw InterruptedIOException("Retry interrupted")
+        }
+    }
+}
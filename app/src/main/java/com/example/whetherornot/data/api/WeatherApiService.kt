@@ -1,11 +1,12 @@
 package com.example.whetherornot.data.api
 
-import com.example.whetherornot.data.model.WeatherResponse
+import com.example.whetherornot.data.model.WeatherPayload
 import com.example.whetherornot.data.model.ZipCodeResponse
 import retrofit2.Call
 import retrofit2.Response
 import retrofit2.http.GET
 import retrofit2.http.Query
+import retrofit2.http.Tag
 
 /**
  * Retrofit API interface for OpenWeatherMap API calls
@@ -25,6 +26,7 @@ interface WeatherApiService {
      * @param exclude Parts of the weather data to exclude (minutely,alerts)
      * @param appid API key
      * @param units Units of measurement (metric, imperial, standard)
+     * @param priority Quota priority of this call
      */
     @GET("data/3.0/onecall")
     suspend fun getWeatherData(
@@ -32,8 +34,9 @@ interface WeatherApiService {
         @Query("lon") lon: Double,
         @Query("exclude") exclude: String = "minutely,alerts",
         @Query("appid") appid: String = API_KEY,
-        @Query("units") units: String = "imperial"
-    ): Response<WeatherResponse>
+        @Query("units") units: String = "imperial",
+        @Tag priority: RequestPriority = RequestPriority.USER
+    ): Response<WeatherPayload>
 
     /**
      * Get weather data using One Call API 3.0 (Java Call version)
@@ -42,6 +45,7 @@ interface WeatherApiService {
      * @param exclude Parts of the weather data to exclude (minutely,alerts)
      * @param appid API key
      * @param units Units of measurement (metric, imperial, standard)
+     * @param priority Quota priority of this call
      */
     @GET("data/3.0/onecall")
     fun getWeatherDataCall(
@@ -49,28 +53,33 @@ interface WeatherApiService {
         @Query("lon") lon: Double,
         @Query("exclude") exclude: String,
         @Query("appid") appid: String,
-        @Query("units") units: String
-    ): Call<WeatherResponse>
+        @Query("units") units: String,
+        @Tag priority: RequestPriority
+    ): Call<WeatherPayload>
 
     /**
      * Get coordinates from zip code using Geocoding API
      * @param zip Zip code with country code (e.g., "90210,US")
      * @param appid API key
+     * @param priority Quota priority of this call
      */
     @GET("geo/1.0/zip")
     suspend fun getCoordinatesFromZip(
         @Query("zip") zip: String,
-        @Query("appid") appid: String = API_KEY
+        @Query("appid") appid: String = API_KEY,
+        @Tag priority: RequestPriority = RequestPriority.USER
     ): Response<ZipCodeResponse>
 
     /**
      * Get coordinates from zip code using Geocoding API (Java Call version)
      * @param zip Zip code with country code (e.g., "90210,US")
      * @param appid API key
+     * @param priority Quota priority of this call
      */
     @GET("geo/1.0/zip")
     fun getCoordinatesFromZipCall(
         @Query("zip") zip: String,
-        @Query("appid") appid: String
+        @Query("appid") appid: String,
+        @Tag priority: RequestPriority
     ): Call<ZipCodeResponse>
 }
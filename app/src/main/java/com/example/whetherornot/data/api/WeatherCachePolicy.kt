@@ -0,0 +1,143 @@
+package com.example.whetherornot.data.api
+
+import okhttp3.CacheControl
+import okhttp3.Interceptor
+import okhttp3.Request
+import okhttp3.Response
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Freshness rules for the HTTP response cache
+ * One Call data changes roughly every 10 minutes while zip geocodes practically never change
+ */
+object WeatherCachePolicy {
+
+    const val ONE_CALL_PATH = "data/3.0/onecall"
+    const val GEO_ZIP_PATH = "geo/1.0/zip"
+
+    const val ONE_CALL_MAX_AGE_SECONDS = 10 * 60
+    const val GEO_ZIP_MAX_AGE_SECONDS = 30 * 24 * 60 * 60
+
+    // How old a cached response may be when served offline or after a network failure
+    const val MAX_STALE_DAYS = 7
+
+    // How stale a cached response may be before hitting the network while the quota is tight
+    const val TIGHT_QUOTA_MAX_STALE_MINUTES = 60
+
+    /**
+     * When true every GET is answered from the cache only, regardless of age
+     */
+    @JvmStatic
+    @Volatile
+    var forceOffline: Boolean = false
+
+    /**
+     * Returns the max-age in seconds for the given request, or null if it should not be cached
+     */
+    @JvmStatic
+    fun maxAgeFor(request: Request): Int? {
+        if (request.method != "GET") return null
+        val path = request.url.encodedPath
+        return when {
+            path.endsWith(ONE_CALL_PATH) -> ONE_CALL_MAX_AGE_SECONDS
+            path.endsWith(GEO_ZIP_PATH) -> GEO_ZIP_MAX_AGE_SECONDS
+            else -> null
+        }
+    }
+
+    internal fun tightQuotaCacheControl(): CacheControl =
+        CacheControl.Builder()
+            .maxStale(TIGHT_QUOTA_MAX_STALE_MINUTES, TimeUnit.MINUTES)
+            .build()
+
+    internal fun staleCacheControl(): CacheControl =
+        CacheControl.Builder()
+            .onlyIfCached()
+            .maxStale(MAX_STALE_DAYS, TimeUnit.DAYS)
+            .build()
+}
+
+/**
+ * Application interceptor that serves stale cached data when offline
+ * Forced-offline mode answers from the cache only; otherwise a failed network call,
+ * an open circuit, a refused quota or a 5xx/429 falls back to the last cached response
+ * for the same URL. While the quota is tight, responses up to an hour stale are accepted
+ * without a network call.
+ */
+class OfflineCacheInterceptor(
+    private val quotaGovernor: QuotaGovernor? = null
+) : Interceptor {
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        if (WeatherCachePolicy.maxAgeFor(request) == null) {
+            return chain.proceed(request)
+        }
+
+        if (WeatherCachePolicy.forceOffline) {
+            return chain.proceed(
+                request.newBuilder()
+                    .cacheControl(WeatherCachePolicy.staleCacheControl())
+                    .build()
+            )
+        }
+
+        val networkRequest = if (quotaGovernor?.isTight() == true) {
+            request.newBuilder()
+                .cacheControl(WeatherCachePolicy.tightQuotaCacheControl())
+                .build()
+        } else {
+            request
+        }
+
+        val response = try {
+            chain.proceed(networkRequest)
+        } catch (e: IOException) {
+            // Network failed or the circuit is open, try the cache before giving up
+            return proceedFromCache(chain) ?: throw e
+        }
+
+        // Service unhealthy after retries: prefer stale data over an error
+        if (response.code == 429 || response.code >= 500) {
+            proceedFromCache(chain)?.let { cached ->
+                response.close()
+                return cached
+            }
+        }
+        return response
+    }
+
+    private fun proceedFromCache(chain: Interceptor.Chain): Response? {
+        val cached = chain.proceed(
+            chain.request().newBuilder()
+                .cacheControl(WeatherCachePolicy.staleCacheControl())
+                .build()
+        )
+        if (cached.isSuccessful) {
+            return cached
+        }
+        cached.close()
+        return null
+    }
+}
+
+/**
+ * Network interceptor that rewrites response headers with our own freshness rules
+ * OpenWeather does not send useful Cache-Control headers, so without this nothing would be cached
+ */
+class CacheFreshnessInterceptor : Interceptor {
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val response = chain.proceed(request)
+        val maxAge = WeatherCachePolicy.maxAgeFor(request) ?: return response
+        if (!response.isSuccessful) return response
+
+        return response.newBuilder()
+            .removeHeader("Pragma")
+            .removeHeader("Expires")
+            .header("Cache-Control", "public, max-age=$maxAge")
+            .build()
+    }
+}
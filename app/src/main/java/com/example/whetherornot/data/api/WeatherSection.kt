@@ -0,0 +1,77 @@
+package com.example.whetherornot.data.api
+
+import com.example.whetherornot.data.model.WeatherPayload
+import com.example.whetherornot.data.model.WeatherResponse
+import java.util.Collections
+import java.util.EnumSet
+
+/**
+ * Sections of a One Call payload that callers can ask for
+ * The repositories turn the requested set into the API's `exclude` parameter,
+ * so screens only download and parse what they actually render.
+ */
+enum class WeatherSection(val apiName: String) {
+    CURRENT("current"),
+    HOURLY("hourly"),
+    DAILY("daily");
+
+    companion object {
+
+        // Not modelled by WeatherResponse, so never requested
+        private val ALWAYS_EXCLUDED = listOf("minutely", "alerts")
+
+        /**
+         * Everything the main screen uses today; read-only, so callers can't change it for others
+         */
+        @JvmField
+        val DEFAULT: Set<WeatherSection> = Collections.unmodifiableSet(EnumSet.allOf(WeatherSection::class.java))
+
+        /**
+         * Build the `exclude` query value for the requested sections
+         * e.g. {CURRENT, DAILY} -> "minutely,alerts,hourly"
+         */
+        @JvmStatic
+        fun excludeFor(sections: Set<WeatherSection>): String {
+            require(sections.isNotEmpty()) { "At least one weather section must be requested" }
+            val excluded = ALWAYS_EXCLUDED + values().filter { it !in sections }.map { it.apiName }
+            return excluded.joinToString(",")
+        }
+
+        /**
+         * Sections an `exclude` query value leaves in the payload; the inverse of [excludeFor]
+         */
+        @JvmStatic
+        fun fromExclude(exclude: String): Set<WeatherSection> {
+            val excluded = exclude.split(',').map { it.trim() }
+            return values().filterTo(EnumSet.noneOf(WeatherSection::class.java)) { it.apiName !in excluded }
+        }
+
+        /**
+         * Overlay the sections fetched in [update] onto [base]
+         */
+        @JvmStatic
+        fun merge(base: WeatherResponse, update: WeatherResponse, updatedSections: Set<WeatherSection>): WeatherResponse =
+            base.copy(
+                current = if (CURRENT in updatedSections) update.current else base.current,
+                hourly = if (HOURLY in updatedSections) update.hourly else base.hourly,
+                daily = if (DAILY in updatedSections) update.daily else base.daily
+            )
+
+        /**
+         * [merge] for payloads, overlaying the original JSON as well when both sides have it
+         */
+        @JvmStatic
+        fun merge(base: WeatherPayload, update: WeatherPayload, updatedSections: Set<WeatherSection>): WeatherPayload {
+            val baseSource = base.source
+            val updateSource = update.source
+            return WeatherPayload(
+                merge(base.response, update.response, updatedSections),
+                if (baseSource != null && updateSource != null) {
+                    baseSource.merge(updateSource, updatedSections)
+                } else {
+                    null
+                }
+            )
+        }
+    }
+}
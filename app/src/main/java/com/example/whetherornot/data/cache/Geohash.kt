@@ -0,0 +1,61 @@
+package com.example.whetherornot.data.cache
+
+/**
+ * Geohash encoding used to quantize coordinates into cache keys
+ * Each extra character of precision shrinks the cell roughly 4-8x:
+ * precision 5 is about 4.9 km x 4.9 km, precision 6 about 1.2 km x 0.6 km.
+ */
+object Geohash {
+
+    private const val BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz"
+
+    const val DEFAULT_PRECISION = 6
+
+    /**
+     * Encode a coordinate into a geohash string of the given precision
+     */
+    @JvmStatic
+    fun encode(latitude: Double, longitude: Double, precision: Int = DEFAULT_PRECISION): String {
+        require(precision in 1..12) { "Geohash precision must be between 1 and 12" }
+
+        var minLat = -90.0
+        var maxLat = 90.0
+        var minLon = -180.0
+        var maxLon = 180.0
+
+        val hash = StringBuilder(precision)
+        var isEvenBit = true
+        var bit = 0
+        var charIndex = 0
+
+        while (hash.length < precision) {
+            if (isEvenBit) {
+                val mid = (minLon + maxLon) / 2
+                if (longitude >= mid) {
+                    charIndex = (charIndex shl 1) or 1
+                    minLon = mid
+                } else {
+                    charIndex = charIndex shl 1
+                    maxLon = mid
+                }
+            } else {
+                val mid = (minLat + maxLat) / 2
+                if (latitude >= mid) {
+                    charIndex = (charIndex shl 1) or 1
+                    minLat = mid
+                } else {
+                    charIndex = charIndex shl 1
+                    maxLat = mid
+                }
+            }
+            isEvenBit = !isEvenBit
+
+            if (++bit == 5) {
+                hash.append(BASE32[charIndex])
+                bit = 0
+                charIndex = 0
+            }
+        }
+        return hash.toString()
+    }
+}
@@ -0,0 +1,450 @@
+package com.example.whetherornot.data.cache
+
+import com.example.whetherornot.data.model.CurrentWeather
+import com.example.whetherornot.data.model.DailyFeelsLike
+import com.example.whetherornot.data.model.DailyTemperature
+import com.example.whetherornot.data.model.DailyWeather
+import com.example.whetherornot.data.model.HourlyWeather
+import com.example.whetherornot.data.model.Weather
+import com.example.whetherornot.data.model.WeatherConditionRegistry
+import com.example.whetherornot.data.model.WeatherResponse
+import java.io.ByteArrayOutputStream
+import java.io.IOException
+
+/**
+ * Compact, versioned binary encoding of a full [WeatherResponse]
+ * Timestamps are varint deltas from `current.dt`, decimals are fixed-point varints
+ * (falling back to raw doubles when that would lose precision) and weather conditions
+ * are written once in a table and referenced by index. Typically several times smaller
+ * than the JSON and decoded without any text parsing.
+ */
+object WeatherBinaryCodec {
+
+    const val FORMAT_VERSION = 1
+
+    // "WONS": Whether Or Not Snapshot
+    private const val MAGIC = 0x574F4E53
+
+    private const val HAS_CURRENT = 1
+    private const val HAS_HOURLY = 2
+    private const val HAS_DAILY = 4
+
+    // Fixed-point scales: 4 decimals for coordinates, 2 for everything the API reports
+    private const val COORDINATE_SCALE = 10_000.0
+    private const val VALUE_SCALE = 100.0
+
+    @JvmStatic
+    fun encode(response: WeatherResponse): ByteArray {
+        val out = Output()
+        out.writeInt(MAGIC)
+        out.writeByte(FORMAT_VERSION)
+
+        val baseTime = baseTimeOf(response)
+        out.writeVarLong(baseTime)
+        out.writeFixed(response.lat, COORDINATE_SCALE)
+        out.writeFixed(response.lon, COORDINATE_SCALE)
+        out.writeString(response.timezone)
+        out.writeSignedVarLong(response.timezoneOffset.toLong())
+
+        val conditions = ConditionTable()
+        response.current?.weather?.forEach(conditions::add)
+        response.hourly?.forEach { hour -> hour.weather.forEach(conditions::add) }
+        response.daily?.forEach { day -> day.weather.forEach(conditions::add) }
+        out.writeVarLong(conditions.size.toLong())
+        for (condition in conditions.entries) {
+            out.writeSignedVarLong(condition.id.toLong())
+            out.writeString(condition.main)
+            out.writeString(condition.description)
+            out.writeString(condition.icon)
+        }
+
+        var flags = 0
+        if (response.current != null) flags = flags or HAS_CURRENT
+        if (response.hourly != null) flags = flags or HAS_HOURLY
+        if (response.daily != null) flags = flags or HAS_DAILY
+        out.writeByte(flags)
+
+        response.current?.let { writeCurrent(out, it, baseTime, conditions) }
+        response.hourly?.let { hours ->
+            out.writeVarLong(hours.size.toLong())
+            hours.forEach { writeHourly(out, it, baseTime, conditions) }
+        }
+        response.daily?.let { days ->
+            out.writeVarLong(days.size.toLong())
+            days.forEach { writeDaily(out, it, baseTime, conditions) }
+        }
+        return out.toByteArray()
+    }
+
+    /**
+     * @throws IOException if [bytes] is not a snapshot or was written by an unsupported version
+     */
+    @JvmStatic
+    @Throws(IOException::class)
+    fun decode(bytes: ByteArray): WeatherResponse {
+        val input = Input(bytes)
+        if (input.readInt() != MAGIC) {
+            throw IOException("Not a weather snapshot")
+        }
+        val version = input.readByte()
+        if (version != FORMAT_VERSION) {
+            throw IOException("Unsupported weather snapshot version: $version")
+        }
+
+        val baseTime = input.readVarLong()
+        val lat = input.readFixed(COORDINATE_SCALE)
+        val lon = input.readFixed(COORDINATE_SCALE)
+        val timezone = input.readString()
+        val timezoneOffset = input.readSignedVarLong().toInt()
+
+        val conditionCount = input.readCount()
+        val conditions = ArrayList<Weather>(conditionCount)
+        repeat(conditionCount) {
+            conditions.add(
+                WeatherConditionRegistry.intern(
+                    id = input.readSignedVarLong().toInt(),
+                    main = input.readString(),
+                    description = input.readString(),
+                    icon = input.readString()
+                )
+            )
+        }
+
+        val flags = input.readByte()
+        val current = if (flags and HAS_CURRENT != 0) readCurrent(input, baseTime, conditions) else null
+        val hourly = if (flags and HAS_HOURLY != 0) {
+            List(input.readCount()) { readHourly(input, baseTime, conditions) }
+        } else {
+            null
+        }
+        val daily = if (flags and HAS_DAILY != 0) {
+            List(input.readCount()) { readDaily(input, baseTime, conditions) }
+        } else {
+            null
+        }
+
+        return WeatherResponse(
+            lat = lat,
+            lon = lon,
+            timezone = timezone,
+            timezoneOffset = timezoneOffset,
+            current = current,
+            hourly = hourly,
+            daily = daily
+        )
+    }
+
+    /**
+     * Reference point for timestamp deltas: current.dt, or the first forecast entry
+     */
+    private fun baseTimeOf(response: WeatherResponse): Long =
+        response.current?.dt
+            ?: response.hourly?.firstOrNull()?.dt
+            ?: response.daily?.firstOrNull()?.dt
+            ?: 0L
+
+    private fun writeCurrent(out: Output, value: CurrentWeather, baseTime: Long, conditions: ConditionTable) {
+        out.writeTime(value.dt, baseTime)
+        out.writeTime(value.sunrise, baseTime)
+        out.writeTime(value.sunset, baseTime)
+        out.writeFixed(value.temp, VALUE_SCALE)
+        out.writeFixed(value.feelsLike, VALUE_SCALE)
+        out.writeSignedVarLong(value.pressure.toLong())
+        out.writeSignedVarLong(value.humidity.toLong())
+        out.writeFixed(value.dewPoint, VALUE_SCALE)
+        out.writeFixed(value.uvi, VALUE_SCALE)
+        out.writeSignedVarLong(value.clouds.toLong())
+        out.writeSignedVarLong(value.visibility.toLong())
+        out.writeFixed(value.windSpeed, VALUE_SCALE)
+        out.writeFixed(value.windDeg, VALUE_SCALE)
+        out.writeOptionalFixed(value.windGust, VALUE_SCALE)
+        writeConditions(out, value.weather, conditions)
+    }
+
+    private fun readCurrent(input: Input, baseTime: Long, conditions: List<Weather>) = CurrentWeather(
+        dt = input.readTime(baseTime),
+        sunrise = input.readTime(baseTime),
+        sunset = input.readTime(baseTime),
+        temp = input.readFixed(VALUE_SCALE),
+        feelsLike = input.readFixed(VALUE_SCALE),
+        pressure = input.readSignedVarLong().toInt(),
+        humidity = input.readSignedVarLong().toInt(),
+        dewPoint = input.readFixed(VALUE_SCALE),
+        uvi = input.readFixed(VALUE_SCALE),
+        clouds = input.readSignedVarLong().toInt(),
+        visibility = input.readSignedVarLong().toInt(),
+        windSpeed = input.readFixed(VALUE_SCALE),
+        windDeg = input.readFixed(VALUE_SCALE),
+        windGust = input.readOptionalFixed(VALUE_SCALE),
+        weather = readConditions(input, conditions)
+    )
+
+    private fun writeHourly(out: Output, value: HourlyWeather, baseTime: Long, conditions: ConditionTable) {
+        out.writeTime(value.dt, baseTime)
+        out.writeFixed(value.temp, VALUE_SCALE)
+        out.writeFixed(value.feelsLike, VALUE_SCALE)
+        out.writeSignedVarLong(value.pressure.toLong())
+        out.writeSignedVarLong(value.humidity.toLong())
+        out.writeFixed(value.dewPoint, VALUE_SCALE)
+        out.writeFixed(value.uvi, VALUE_SCALE)
+        out.writeSignedVarLong(value.clouds.toLong())
+        out.writeSignedVarLong(value.visibility.toLong())
+        out.writeFixed(value.windSpeed, VALUE_SCALE)
+        out.writeFixed(value.windDeg, VALUE_SCALE)
+        out.writeOptionalFixed(value.windGust, VALUE_SCALE)
+        writeConditions(out, value.weather, conditions)
+        out.writeFixed(value.pop, VALUE_SCALE)
+    }
+
+    private fun readHourly(input: Input, baseTime: Long, conditions: List<Weather>) = HourlyWeather(
+        dt = input.readTime(baseTime),
+        temp = input.readFixed(VALUE_SCALE),
+        feelsLike = input.readFixed(VALUE_SCALE),
+        pressure = input.readSignedVarLong().toInt(),
+        humidity = input.readSignedVarLong().toInt(),
+        dewPoint = input.readFixed(VALUE_SCALE),
+        uvi = input.readFixed(VALUE_SCALE),
+        clouds = input.readSignedVarLong().toInt(),
+        visibility = input.readSignedVarLong().toInt(),
+        windSpeed = input.readFixed(VALUE_SCALE),
+        windDeg = input.readFixed(VALUE_SCALE),
+        windGust = input.readOptionalFixed(VALUE_SCALE),
+        weather = readConditions(input, conditions),
+        pop = input.readFixed(VALUE_SCALE)
+    )
+
+    private fun writeDaily(out: Output, value: DailyWeather, baseTime: Long, conditions: ConditionTable) {
+        out.writeTime(value.dt, baseTime)
+        out.writeTime(value.sunrise, baseTime)
+        out.writeTime(value.sunset, baseTime)
+        out.writeTime(value.moonrise, baseTime)
+        out.writeTime(value.moonset, baseTime)
+        out.writeFixed(value.moonPhase, VALUE_SCALE)
+        out.writeOptionalString(value.summary)
+        out.writeFixed(value.temp.day, VALUE_SCALE)
+        out.writeFixed(value.temp.min, VALUE_SCALE)
+        out.writeFixed(value.temp.max, VALUE_SCALE)
+        out.writeFixed(value.temp.night, VALUE_SCALE)
+        out.writeFixed(value.temp.eve, VALUE_SCALE)
+        out.writeFixed(value.temp.morn, VALUE_SCALE)
+        out.writeFixed(value.feelsLike.day, VALUE_SCALE)
+        out.writeFixed(value.feelsLike.night, VALUE_SCALE)
+        out.writeFixed(value.feelsLike.eve, VALUE_SCALE)
+        out.writeFixed(value.feelsLike.morn, VALUE_SCALE)
+        out.writeSignedVarLong(value.pressure.toLong())
+        out.writeSignedVarLong(value.humidity.toLong())
+        out.writeFixed(value.dewPoint, VALUE_SCALE)
+        out.writeFixed(value.windSpeed, VALUE_SCALE)
+        out.writeFixed(value.windDeg, VALUE_SCALE)
+        out.writeOptionalFixed(value.windGust, VALUE_SCALE)
+        writeConditions(out, value.weather, conditions)
+        out.writeSignedVarLong(value.clouds.toLong())
+        out.writeFixed(value.pop, VALUE_SCALE)
+        out.writeFixed(value.uvi, VALUE_SCALE)
+    }
+
+    private fun readDaily(input: Input, baseTime: Long, conditions: List<Weather>) = DailyWeather(
+        dt = input.readTime(baseTime),
+        sunrise = input.readTime(baseTime),
+        sunset = input.readTime(baseTime),
+        moonrise = input.readTime(baseTime),
+        moonset = input.readTime(baseTime),
+        moonPhase = input.readFixed(VALUE_SCALE),
+        summary = input.readOptionalString(),
+        temp = DailyTemperature(
+            day = input.readFixed(VALUE_SCALE),
+            min = input.readFixed(VALUE_SCALE),
+            max = input.readFixed(VALUE_SCALE),
+            night = input.readFixed(VALUE_SCALE),
+            eve = input.readFixed(VALUE_SCALE),
+            morn = input.readFixed(VALUE_SCALE)
+        ),
+        feelsLike = DailyFeelsLike(
+            day = input.readFixed(VALUE_SCALE),
+            night = input.readFixed(VALUE_SCALE),
+            eve = input.readFixed(VALUE_SCALE),
+            morn = input.readFixed(VALUE_SCALE)
+        ),
+        pressure = input.readSignedVarLong().toInt(),
+        humidity = input.readSignedVarLong().toInt(),
+        dewPoint = input.readFixed(VALUE_SCALE),
+        windSpeed = input.readFixed(VALUE_SCALE),
+        windDeg = input.readFixed(VALUE_SCALE),
+        windGust = input.readOptionalFixed(VALUE_SCALE),
+        weather = readConditions(input, conditions),
+        clouds = input.readSignedVarLong().toInt(),
+        pop = input.readFixed(VALUE_SCALE),
+        uvi = input.readFixed(VALUE_SCALE)
+    )
+
+    private fun writeConditions(out: Output, weather: List<Weather>, conditions: ConditionTable) {
+        out.writeVarLong(weather.size.toLong())
+        weather.forEach { out.writeVarLong(conditions.indexOf(it).toLong()) }
+    }
+
+    private fun readConditions(input: Input, conditions: List<Weather>): List<Weather> =
+        List(input.readCount()) {
+            val index = input.readVarLong().toInt()
+            conditions.getOrNull(index) ?: throw IOException("Bad weather condition reference: $index")
+        }
+
+    /**
+     * Distinct conditions in first-seen order
+     */
+    private class ConditionTable {
+        private val indices = LinkedHashMap<Weather, Int>()
+
+        val size: Int get() = indices.size
+        val entries: Set<Weather> get() = indices.keys
+
+        fun add(condition: Weather) {
+            if (condition !in indices) indices[condition] = indices.size
+        }
+
+        fun indexOf(condition: Weather): Int = indices.getValue(condition)
+    }
+
+    private class Output {
+        private val buffer = ByteArrayOutputStream(1024)
+
+        fun toByteArray(): ByteArray = buffer.toByteArray()
+
+        fun writeByte(value: Int) = buffer.write(value)
+
+        fun writeInt(value: Int) {
+            buffer.write(value ushr 24)
+            buffer.write(value ushr 16)
+            buffer.write(value ushr 8)
+            buffer.write(value)
+        }
+
+        fun writeLong(value: Long) {
+            writeInt((value ushr 32).toInt())
+            writeInt(value.toInt())
+        }
+
+        fun writeVarLong(value: Long) {
+            var remaining = value
+            while (remaining and 0x7FL.inv() != 0L) {
+                buffer.write(((remaining and 0x7F) or 0x80).toInt())
+                remaining = remaining ushr 7
+            }
+            buffer.write(remaining.toInt())
+        }
+
+        fun writeSignedVarLong(value: Long) = writeVarLong(zigZag(value))
+
+        fun writeTime(epochSeconds: Long, baseTime: Long) = writeSignedVarLong(epochSeconds - baseTime)
+
+        /**
+         * Tag bit 0 means fixed-point follows, 1 means the raw double bits follow
+         */
+        fun writeFixed(value: Double, scale: Double) {
+            val scaled = Math.round(value * scale)
+            // compare() rather than == so that -0.0 and NaN take the lossless path
+            if (java.lang.Double.compare(scaled / scale, value) == 0 && scaled in FIXED_RANGE) {
+                writeVarLong(zigZag(scaled) shl 1)
+            } else {
+                writeVarLong(1)
+                writeLong(java.lang.Double.doubleToRawLongBits(value))
+            }
+        }
+
+        fun writeOptionalFixed(value: Double?, scale: Double) {
+            if (value == null) {
+                writeByte(0)
+            } else {
+                writeByte(1)
+                writeFixed(value, scale)
+            }
+        }
+
+        fun writeString(value: String) {
+            val bytes = value.toByteArray(Charsets.UTF_8)
+            writeVarLong(bytes.size.toLong())
+            buffer.write(bytes)
+        }
+
+        fun writeOptionalString(value: String?) {
+            if (value == null) {
+                writeByte(0)
+            } else {
+                writeByte(1)
+                writeString(value)
+            }
+        }
+    }
+
+    private class Input(private val bytes: ByteArray) {
+        private var position = 0
+
+        fun readByte(): Int {
+            if (position >= bytes.size) throw IOException("Truncated weather snapshot")
+            return bytes[position++].toInt() and 0xFF
+        }
+
+        fun readInt(): Int =
+            (readByte() shl 24) or (readByte() shl 16) or (readByte() shl 8) or readByte()
+
+        fun readLong(): Long =
+            (readInt().toLong() shl 32) or (readInt().toLong() and 0xFFFFFFFFL)
+
+        fun readVarLong(): Long {
+            var result = 0L
+            var shift = 0
+            while (shift < 64) {
+                val b = readByte()
+                result = result or ((b and 0x7F).toLong() shl shift)
+                if (b and 0x80 == 0) return result
+                shift += 7
+            }
+            throw IOException("Malformed varint in weather snapshot")
+        }
+
+        fun readSignedVarLong(): Long = unZigZag(readVarLong())
+
+        fun readTime(baseTime: Long): Long = baseTime + readSignedVarLong()
+
+        fun readFixed(scale: Double): Double {
+            val tagged = readVarLong()
+            return if (tagged and 1L == 0L) {
+                unZigZag(tagged ushr 1) / scale
+            } else {
+                java.lang.Double.longBitsToDouble(readLong())
+            }
+        }
+
+        fun readOptionalFixed(scale: Double): Double? =
+            if (readByte() == 0) null else readFixed(scale)
+
+        /**
+         * Length of a list; every element takes at least one byte, so a count beyond the
+         * bytes left can only come from a corrupt snapshot and is refused before allocating
+         */
+        fun readCount(): Int {
+            val count = readVarLong()
+            if (count < 0 || count > bytes.size - position) {
+                throw IOException("Bad element count in weather snapshot: $count")
+            }
+            return count.toInt()
+        }
+
+        fun readString(): String {
+            val length = readVarLong()
+            if (length < 0 || length > bytes.size - position) throw IOException("Truncated weather snapshot")
+            val value = String(bytes, position, length.toInt(), Charsets.UTF_8)
+            position += length.toInt()
+            return value
+        }
+
+        fun readOptionalString(): String? =
+            if (readByte() == 0) null else readString()
+    }
+
+    // Keeps zigzag(value) shl 1 inside a Long
+    private val FIXED_RANGE = -(1L shl 61) until (1L shl 61)
+
+    private fun zigZag(value: Long): Long = (value shl 1) xor (value shr 63)
+
+    private fun unZigZag(value: Long): Long = (value ushr 1) xor -(value and 1)
+}
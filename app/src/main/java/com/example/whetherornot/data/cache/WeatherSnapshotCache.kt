@@ -0,0 +1,207 @@
+package com.example.whetherornot.data.cache
+
+import com.example.whetherornot.data.api.WeatherSection
+import com.example.whetherornot.data.json.LazyJsonList
+import com.example.whetherornot.data.json.WeatherJsonSource
+import com.example.whetherornot.data.model.DailySeries
+import com.example.whetherornot.data.model.HourlySeries
+import com.example.whetherornot.data.model.WeatherDisplay
+import com.example.whetherornot.data.model.WeatherPayload
+import com.example.whetherornot.data.model.WeatherResponse
+import com.example.whetherornot.data.model.WeatherResult
+import kotlin.math.atan2
+import kotlin.math.cos
+import kotlin.math.sin
+import kotlin.math.sqrt
+
+/**
+ * In-memory One Call cache keyed by quantized coordinates plus units
+ * GPS fixes drift a few meters between launches, so lookups accept any snapshot
+ * within [ReusePolicy.maxDistanceKm] and [ReusePolicy.maxAgeMillis] instead of
+ * requiring an exact coordinate match.
+ */
+class WeatherSnapshotCache(
+    private val geohashPrecision: Int = Geohash.DEFAULT_PRECISION,
+    private val maxEntries: Int = DEFAULT_MAX_ENTRIES,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    companion object {
+        const val DEFAULT_MAX_ENTRIES = 32
+
+        /**
+         * App-wide instance shared by the Java and Kotlin repositories
+         */
+        @JvmStatic
+        val shared = WeatherSnapshotCache()
+
+        private const val EARTH_RADIUS_KM = 6371.0
+    }
+
+    /**
+     * "Good enough" rule for reusing a snapshot
+     * @param maxDistanceKm Maximum distance between requested and cached coordinates
+     * @param maxAgeMillis Maximum age of the cached snapshot
+     */
+    data class ReusePolicy(
+        val maxDistanceKm: Double,
+        val maxAgeMillis: Long
+    ) {
+        companion object {
+            /**
+             * Matches the One Call update cadence and typical GPS drift
+             */
+            @JvmField
+            val DEFAULT = ReusePolicy(maxDistanceKm = 2.0, maxAgeMillis = 10 * 60 * 1000L)
+
+            /**
+             * Last resort while the API is failing: old or somewhat distant data beats an error
+             */
+            @JvmField
+            val STALE_FALLBACK = ReusePolicy(maxDistanceKm = 25.0, maxAgeMillis = 24 * 60 * 60 * 1000L)
+        }
+    }
+
+    /**
+     * A cached One Call payload, where/when it was fetched and which sections it holds
+     * Forecasts are retained as [HourlySeries]/[DailySeries] columns rather than lists of
+     * objects, built on first access if the payload was still undecoded. Display formatting
+     * reads the columns directly; [toResponse] and [toPayload] build boxed copies for the
+     * codec, merges and the public repository APIs. [source] is the JSON the payload was
+     * decoded from, if known.
+     */
+    class Snapshot(
+        val key: String,
+        val latitude: Double,
+        val longitude: Double,
+        val units: String,
+        val fetchedAt: Long,
+        val sections: Set<WeatherSection>,
+        payload: WeatherPayload
+    ) {
+        val source: WeatherJsonSource? = payload.source
+
+        /**
+         * Location and current conditions; forecasts live in [hourly] and [daily]
+         */
+        val header: WeatherResponse = payload.response.copy(hourly = null, daily = null)
+
+        private val hourlySeries = seriesOf(payload.response.hourly) { HourlySeries.from(it) }
+        private val dailySeries = seriesOf(payload.response.daily) { DailySeries.from(it) }
+
+        val hourly: HourlySeries? get() = hourlySeries.value
+        val daily: DailySeries? get() = dailySeries.value
+
+        /**
+         * Boxed copy of the whole payload, built afresh on every call
+         */
+        fun toResponse(): WeatherResponse =
+            header.copy(hourly = hourly?.toList(), daily = daily?.toList())
+
+        fun toPayload(): WeatherPayload = WeatherPayload(toResponse(), source)
+
+        /**
+         * Result for the UI, formatted from the columns
+         */
+        fun toResult(): WeatherResult =
+            WeatherResult(toResponse(), WeatherDisplay.from(header, hourly, daily), source)
+
+        /**
+         * Columns for a forecast section; one still held as raw JSON is only decoded on first use
+         */
+        private fun <T, S> seriesOf(items: List<T>?, build: (List<T>) -> S): Lazy<S?> = when {
+            items == null -> lazyOf(null)
+            items is LazyJsonList<T> && !items.isDecoded -> lazy { build(items) }
+            else -> lazyOf(build(items))
+        }
+    }
+
+    // Access-ordered so the least recently used cell is evicted first
+    private val entries = object : LinkedHashMap<String, Snapshot>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Snapshot>?): Boolean =
+            size > maxEntries
+    }
+
+    /**
+     * Cache key for a coordinate: geohash cell plus units
+     */
+    fun keyFor(latitude: Double, longitude: Double, units: String): String =
+        "${Geohash.encode(latitude, longitude, geohashPrecision)}:$units"
+
+    /**
+     * Find the closest snapshot that satisfies [policy], or null
+     */
+    @JvmOverloads
+    fun find(
+        latitude: Double,
+        longitude: Double,
+        units: String,
+        policy: ReusePolicy = ReusePolicy.DEFAULT
+    ): Snapshot? {
+        val now = clock()
+        synchronized(entries) {
+            // Fast path: same quantized cell
+            entries[keyFor(latitude, longitude, units)]?.let { snapshot ->
+                if (isReusable(snapshot, latitude, longitude, now, policy)) return snapshot
+            }
+
+            // Neighbouring cells: pick the nearest reusable snapshot
+            return entries.values
+                .filter { it.units == units && isReusable(it, latitude, longitude, now, policy) }
+                .minByOrNull { distanceKm(latitude, longitude, it.latitude, it.longitude) }
+        }
+    }
+
+    /**
+     * Store a fetched payload, replacing any older snapshot in the same cell
+     * @param fetchedAt When the oldest section of [payload] was fetched, so merged
+     * snapshots do not look fresher than they are
+     */
+    @JvmOverloads
+    fun put(
+        latitude: Double,
+        longitude: Double,
+        units: String,
+        payload: WeatherPayload,
+        sections: Set<WeatherSection>,
+        fetchedAt: Long = clock()
+    ): Snapshot {
+        val key = keyFor(latitude, longitude, units)
+        val snapshot = Snapshot(key, latitude, longitude, units, fetchedAt, sections, payload)
+        synchronized(entries) {
+            entries[key] = snapshot
+        }
+        return snapshot
+    }
+
+    fun clear() {
+        synchronized(entries) {
+            entries.clear()
+        }
+    }
+
+    fun size(): Int = synchronized(entries) { entries.size }
+
+    private fun isReusable(
+        snapshot: Snapshot,
+        latitude: Double,
+        longitude: Double,
+        now: Long,
+        policy: ReusePolicy
+    ): Boolean {
+        if (now - snapshot.fetchedAt > policy.maxAgeMillis) return false
+        return distanceKm(latitude, longitude, snapshot.latitude, snapshot.longitude) <= policy.maxDistanceKm
+    }
+
+    /**
+     * Great-circle distance using the haversine formula
+     */
+    private fun distanceKm(lat1: Double, lon1: Double, lat2: Double, lon2: Double): Double {
+        val dLat = Math.toRadians(lat2 - lat1)
+        val dLon = Math.toRadians(lon2 - lon1)
+        val a = sin(dLat / 2) * sin(dLat / 2) +
+                cos(Math.toRadians(lat1)) * cos(Math.toRadians(lat2)) *
+                sin(dLon / 2) * sin(dLon / 2)
+        return EARTH_RADIUS_KM * 2 * atan2(sqrt(a), sqrt(1 - a))
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.whetherornot.data.cache
+
+import android.content.Context
+import android.util.Log
+import com.example.whetherornot.data.model.WeatherDisplay
+import com.example.whetherornot.data.model.WeatherResponse
+import com.example.whetherornot.data.model.WeatherResult
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import java.io.File
+import java.io.IOException
+import java.lang.ref.WeakReference
+import java.util.concurrent.Executors
+import kotlin.math.roundToLong
+
+/**
+ * App-scoped store of parsed One Call payloads shared between screens
+ * Detail screens receive a snapshot key instead of the model as JSON, so navigating
+ * neither serializes nor re-parses anything. Each stored payload is also written to
+ * disk with [WeatherBinaryCodec], so a detail screen restored after process death
+ * can still load it.
+ */
+object WeatherStore {
+
+    /**
+     * A stored payload with its preformatted display strings
+     */
+    class Entry(val response: WeatherResponse, val display: WeatherDisplay)
+
+    private const val TAG = "WeatherStore"
+    private const val DIRECTORY = "weather_store"
+    private const val FILE_SUFFIX = ".bin"
+    private const val MAX_IN_MEMORY = 8
+    private const val MAX_ON_DISK = 8
+
+    // Access-ordered so the least recently opened payload is dropped first
+    private val entries = object : LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Entry>?): Boolean =
+            size > MAX_IN_MEMORY
+    }
+
+    // The payload last written to disk under each key; weak, so it never outlives the memory cache
+    private val persisted = HashMap<String, WeakReference<WeatherResponse>>()
+    private val diskExecutor = Executors.newSingleThreadExecutor()
+
+    @Volatile
+    private var directory: File? = null
+
+    /**
+     * Give the store its disk location; without it the store is memory-only
+     */
+    @JvmStatic
+    fun initialize(context: Context) {
+        directory = File(context.applicationContext.cacheDir, DIRECTORY)
+    }
+
+    /**
+     * Store [result] and return the key detail screens use to read it back
+     * Storing the same payload again is cheap: the key is derived from its location
+     * and time, and it is written to disk only once. A different payload under the same
+     * key, such as a refresh within the same data time, replaces the stored file. The
+     * file holds [WeatherResult.binary], so nothing is encoded again for the store.
+     */
+    @JvmStatic
+    fun put(result: WeatherResult): String {
+        val response = result.response
+        val key = keyFor(response)
+        val needsWrite = synchronized(entries) {
+            entries[key] = Entry(response, result.display)
+            if (persisted[key]?.get() === response) {
+                false
+            } else {
+                persisted[key] = WeakReference(response)
+                true
+            }
+        }
+        if (needsWrite) {
+            directory?.let { dir -> diskExecutor.execute { write(dir, key, response, result.binary) } }
+        }
+        return key
+    }
+
+    /**
+     * Payload for [key] if it is still in memory, without touching the disk
+     */
+    @JvmStatic
+    fun peek(key: String): Entry? = synchronized(entries) { entries[key] }
+
+    /**
+     * Payload for [key] from memory, or from disk after process death; null if it is gone
+     */
+    suspend fun load(key: String): Entry? {
+        peek(key)?.let { return it }
+        val dir = directory ?: return null
+        return withContext(Dispatchers.IO) {
+            try {
+                val file = File(dir, key + FILE_SUFFIX)
+                if (!file.exists()) return@withContext null
+                val response = WeatherBinaryCodec.decode(file.readBytes())
+                val entry = Entry(response, WeatherDisplay.from(response))
+                synchronized(entries) {
+                    // A put made while the file was being read is newer than the file
+                    entries[key] ?: entry.also {
+                        entries[key] = it
+                        persisted[key] = WeakReference(response)
+                    }
+                }
+            } catch (e: Exception) {
+                if (e is CancellationException) throw e
+                // Damaged or written by an older codec version; drop it rather than fail again
+                Log.w(TAG, "Dropping unreadable stored weather $key: ${e.message}")
+                File(dir, key + FILE_SUFFIX).delete()
+                synchronized(entries) { persisted.remove(key) }
+                null
+            }
+        }
+    }
+
+    /**
+     * Location plus data time, which identifies a One Call payload and is safe as a file name
+     */
+    private fun keyFor(response: WeatherResponse): String {
+        val dataTime = response.current?.dt
+            ?: response.hourly?.firstOrNull()?.dt
+            ?: response.daily?.firstOrNull()?.dt
+            ?: 0L
+        val lat = (response.lat * 10000).roundToLong()
+        val lon = (response.lon * 10000).roundToLong()
+        return "${lat}_${lon}_$dataTime"
+    }
+
+    private fun write(dir: File, key: String, response: WeatherResponse, bytes: ByteArray) {
+        try {
+            if (!dir.exists() && !dir.mkdirs()) throw IOException("Cannot create $dir")
+            // Write then rename, so a reader never sees a half-written file
+            val target = File(dir, key + FILE_SUFFIX)
+            val temp = File(dir, "$key.tmp")
+            temp.writeBytes(bytes)
+            if (!temp.renameTo(target)) throw IOException("Cannot rename $temp")
+            prune(dir)
+        } catch (e: IOException) {
+            Log.w(TAG, "Could not store weather $key: ${e.message}")
+            synchronized(entries) {
+                // Only forget the write if no newer payload has been queued since
+                if (persisted[key]?.get() === response) persisted.remove(key)
+            }
+        }
+    }
+
+    /**
+     * Keep only the most recently written payloads on disk
+     */
+    private fun prune(dir: File) {
+        val files = dir.listFiles { file -> file.name.endsWith(FILE_SUFFIX) } ?: return
+        files.sortedByDescending { it.lastModified() }
+            .drop(MAX_ON_DISK)
+            .forEach { file ->
+                if (file.delete()) {
+                    synchronized(entries) { persisted.remove(file.name.removeSuffix(FILE_SUFFIX)) }
+                }
+            }
+    }
+}
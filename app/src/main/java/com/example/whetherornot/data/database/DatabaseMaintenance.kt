@@ -0,0 +1,122 @@
+package com.example.whetherornot.data.database
+
+import android.annotation.SuppressLint
+import android.database.sqlite.SQLiteException
+import android.util.Log
+import androidx.room.withTransaction
+import androidx.sqlite.db.SupportSQLiteDatabase
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+
+/**
+ * Keeps the database bounded: evicts old history, then hands freed pages back to the file system
+ * Eviction is least-recently-searched first and never touches favorites. Space is reclaimed
+ * with incremental vacuum, so a run only frees what was deleted instead of rewriting the file.
+ */
+class DatabaseMaintenance(
+    private val database: WeatherDatabase,
+    private val policy: RetentionPolicy = RetentionPolicy.DEFAULT,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    companion object {
+        private const val TAG = "DatabaseMaintenance"
+
+        // PRAGMA auto_vacuum value for INCREMENTAL
+        private const val AUTO_VACUUM_INCREMENTAL = 2L
+        private const val DAY_MILLIS = 24 * 60 * 60 * 1000L
+    }
+
+    /**
+     * @param maxHistory Non-favorite saved locations kept, most recently searched first
+     * @param maxHistoryAgeMillis Non-favorites not searched for this long are dropped regardless
+     * @param maxSnapshotAgeMillis Stored weather older than this is no longer worth showing offline
+     */
+    data class RetentionPolicy(
+        val maxHistory: Int,
+        val maxHistoryAgeMillis: Long,
+        val maxSnapshotAgeMillis: Long
+    ) {
+        companion object {
+            @JvmField
+            val DEFAULT = RetentionPolicy(
+                maxHistory = 500,
+                maxHistoryAgeMillis = 365 * DAY_MILLIS,
+                maxSnapshotAgeMillis = 7 * DAY_MILLIS
+            )
+        }
+    }
+
+    class Result(
+        val evictedLocations: Int,
+        val evictedSnapshots: Int,
+        val reclaimedPages: Long
+    )
+
+    suspend fun run(): Result {
+        val now = clock()
+        val locationDao = database.locationDao()
+        val evictedLocations = database.withTransaction {
+            locationDao.deleteNonFavoritesSearchedBefore(now - policy.maxHistoryAgeMillis) +
+                    locationDao.deleteNonFavoritesBeyond(policy.maxHistory)
+        }
+        val evictedSnapshots = database.weatherSnapshotDao()
+            .deleteSnapshotsFetchedBefore(now - policy.maxSnapshotAgeMillis)
+        val reclaimedPages = try {
+            withContext(Dispatchers.IO) { compact(database.openHelper.writableDatabase) }
+        } catch (e: SQLiteException) {
+            // Busy with another connection; the next run tries again
+            Log.w(TAG, "Compaction skipped: ${e.message}")
+            0L
+        }
+        Log.d(TAG, "Evicted $evictedLocations location(s), $evictedSnapshots snapshot(s); reclaimed $reclaimedPages page(s)")
+        return Result(evictedLocations, evictedSnapshots, reclaimedPages)
+    }
+
+    /**
+     * Release free pages; must run outside a transaction
+     * Room creates every database without auto_vacuum, so the first run on each one
+     * rebuilds it with a full VACUUM, the only way SQLite applies a new auto_vacuum mode.
+     * VACUUM may renumber the rowids the full-text index keys on, so the index is rebuilt
+     * straight after, in one transaction, and observers are notified of the new contents.
+     */
+    @SuppressLint("RestrictedApi")
+    private fun compact(db: SupportSQLiteDatabase): Long {
+        if (pragma(db, "auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            Log.d(TAG, "Switching to incremental auto-vacuum")
+            db.execSQL("PRAGMA auto_vacuum = INCREMENTAL")
+            db.execSQL("VACUUM")
+            db.beginTransaction()
+            try {
+                db.execSQL("INSERT INTO `saved_locations_fts`(`saved_locations_fts`) VALUES('rebuild')")
+                db.setTransactionSuccessful()
+            } finally {
+                db.endTransaction()
+            }
+            // Raw statements bypass Room's triggers, so tell open search queries to run again
+            database.invalidationTracker.notifyObserversByTableNames("saved_locations", "saved_locations_fts")
+            return 0
+        }
+        val freePages = pragma(db, "freelist_count")
+        if (freePages > 0) {
+            pragma(db, "incremental_vacuum")
+            // Shrink the WAL as well, or the freed space just moves there
+            pragma(db, "wal_checkpoint(TRUNCATE)")
+        }
+        return freePages
+    }
+
+    /**
+     * Run a PRAGMA through query(), since some return rows, and read the first value if any
+     */
+    private fun pragma(db: SupportSQLiteDatabase, statement: String): Long =
+        db.query("PRAGMA $statement").use { cursor ->
+            var first = -1L
+            if (cursor.moveToFirst()) {
+                first = cursor.getLong(0)
+                // incremental_vacuum frees one page per step
+                while (cursor.moveToNext()) Unit
+            }
+            first
+        }
+}
@@ -0,0 +1,54 @@
+package com.example.whetherornot.data.database
+
+import android.content.Context
+import android.util.Log
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingPeriodicWorkPolicy
+import androidx.work.PeriodicWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import kotlinx.coroutines.CancellationException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Runs [DatabaseMaintenance] about once a day while the device is idle
+ */
+class DatabaseMaintenanceWorker(
+    context: Context,
+    params: WorkerParameters
+) : CoroutineWorker(context, params) {
+
+    companion object {
+        private const val TAG = "DatabaseMaintenance"
+        private const val WORK_NAME = "database_maintenance"
+
+        /**
+         * Schedule the periodic run; keeps an existing schedule untouched
+         */
+        @JvmStatic
+        fun schedule(context: Context) {
+            val constraints = Constraints.Builder()
+                .setRequiresDeviceIdle(true)
+                .setRequiresBatteryNotLow(true)
+                .build()
+            val request = PeriodicWorkRequestBuilder<DatabaseMaintenanceWorker>(1, TimeUnit.DAYS)
+                .setConstraints(constraints)
+                .build()
+            WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request)
+        }
+    }
+
+    override suspend fun doWork(): Result {
+        return try {
+            DatabaseMaintenance(WeatherDatabase.getDatabase(applicationContext)).run()
+            Result.success()
+        } catch (e: Exception) {
+            if (e is CancellationException) throw e
+            // Disk full, database locked and the like are transient; let WorkManager back off
+            Log.w(TAG, "Database maintenance failed: ${e.message}")
+            Result.retry()
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.whetherornot.data.database
+
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * Schema migrations for [WeatherDatabase], oldest first
+ */
+object DatabaseMigrations {
+
+    /**
+     * Adds the offline weather snapshot table
+     */
+    @JvmField
+    val MIGRATION_1_2 = object : Migration(1, 2) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `weather_snapshots` (" +
+                        "`locationKey` TEXT NOT NULL, `units` TEXT NOT NULL, " +
+                        "`latitude` REAL NOT NULL, `longitude` REAL NOT NULL, " +
+                        "`fetchedAt` INTEGER NOT NULL, `payload` BLOB NOT NULL, " +
+                        "PRIMARY KEY(`locationKey`))"
+            )
+        }
+    }
+
+    /**
+     * Indexes saved_locations for the recent-first and favorites queries
+     */
+    @JvmField
+    val MIGRATION_2_3 = object : Migration(2, 3) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_saved_locations_searchedAt` " +
+                        "ON `saved_locations` (`searchedAt`)"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_saved_locations_isFavorite_name` " +
+                        "ON `saved_locations` (`isFavorite`, `name`)"
+            )
+        }
+    }
+
+    /**
+     * Adds the saved location full-text index with Room's sync triggers and fills it
+     */
+    @JvmField
+    val MIGRATION_3_4 = object : Migration(3, 4) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE VIRTUAL TABLE IF NOT EXISTS `saved_locations_fts` USING FTS4(" +
+                        "`zip` TEXT NOT NULL, `name` TEXT NOT NULL, " +
+                        "tokenize=unicode61, content=`saved_locations`)"
+            )
+            // Same triggers Room creates for an external-content FTS entity
+            db.execSQL(
+                "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_saved_locations_fts_BEFORE_UPDATE " +
+                        "BEFORE UPDATE ON `saved_locations` BEGIN " +
+                        "DELETE FROM `saved_locations_fts` WHERE `docid`=OLD.`rowid`; END"
+            )
+            db.execSQL(
+                "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_saved_locations_fts_BEFORE_DELETE " +
+                        "BEFORE DELETE ON `saved_locations` BEGIN " +
+                        "DELETE FROM `saved_locations_fts` WHERE `docid`=OLD.`rowid`; END"
+            )
+            db.execSQL(
+                "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_saved_locations_fts_AFTER_UPDATE " +
+                        "AFTER UPDATE ON `saved_locations` BEGIN " +
+                        "INSERT INTO `saved_locations_fts`(`docid`, `zip`, `name`) " +
+                        "VALUES (NEW.`rowid`, NEW.`zip`, NEW.`name`); END"
+            )
+            db.execSQL(
+                "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_saved_locations_fts_AFTER_INSERT " +
+                        "AFTER INSERT ON `saved_locations` BEGIN " +
+                        "INSERT INTO `saved_locations_fts`(`docid`, `zip`, `name`) " +
+                        "VALUES (NEW.`rowid`, NEW.`zip`, NEW.`name`); END"
+            )
+            // Index the rows that already exist
+            db.execSQL("INSERT INTO `saved_locations_fts`(`saved_locations_fts`) VALUES('rebuild')")
+        }
+    }
+
+    @JvmField
+    val ALL: Array<Migration> = arrayOf(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4)
+}
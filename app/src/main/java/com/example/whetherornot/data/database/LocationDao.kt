@@ -1,33 +1,138 @@
 package com.example.whetherornot.data.database
 
+import androidx.paging.PagingSource
 import androidx.room.*
+import com.example.whetherornot.data.model.SavedLocationSummary
 import com.example.whetherornot.data.model.ZipCodeResponse
 import kotlinx.coroutines.flow.Flow
 
+/**
+ * SQL of the hot [LocationDao] list and lookup queries
+ * Kept as constants so LocationQueryPlanTest checks the plans of the exact statements
+ * the DAO runs.
+ */
+internal object LocationQueries {
+    const val ALL_BY_RECENCY = "SELECT * FROM saved_locations ORDER BY searchedAt DESC"
+    const val RECENT_SUMMARIES =
+        "SELECT zip, name, lat, lon, isFavorite FROM saved_locations ORDER BY searchedAt DESC LIMIT :limit"
+    const val FAVORITES_BY_NAME = "SELECT * FROM saved_locations WHERE isFavorite = 1 ORDER BY name ASC"
+    const val FAVORITE_COUNT = "SELECT COUNT(*) FROM saved_locations WHERE isFavorite = 1"
+    const val LOCATION_BY_ZIP = "SELECT * FROM saved_locations WHERE zip = :zipCode LIMIT 1"
+}
+
 /**
  * Data Access Object for saved location operations
  */
 @Dao
 interface LocationDao {
 
-    @Query("SELECT * FROM saved_locations ORDER BY searchedAt DESC")
+    @Query(LocationQueries.ALL_BY_RECENCY)
     fun getAllLocations(): Flow<List<ZipCodeResponse>>
 
-    @Query("SELECT * FROM saved_locations WHERE isFavorite = 1 ORDER BY name ASC")
+    @Query(LocationQueries.FAVORITES_BY_NAME)
     fun getFavoriteLocations(): Flow<List<ZipCodeResponse>>
 
     @Query("SELECT * FROM saved_locations ORDER BY searchedAt DESC LIMIT 10")
     fun getRecentLocations(): Flow<List<ZipCodeResponse>>
 
-    @Query("SELECT * FROM saved_locations WHERE zip = :zipCode LIMIT 1")
+    // Narrow projections for the zip dropdowns
+    @Query(LocationQueries.RECENT_SUMMARIES)
+    fun getRecentLocationSummaries(limit: Int): Flow<List<SavedLocationSummary>>
+
+    @Query(
+        """
+        SELECT saved_locations.zip, saved_locations.name, saved_locations.lat, saved_locations.lon,
+            saved_locations.isFavorite
+        FROM saved_locations
+        JOIN saved_locations_fts ON saved_locations.rowid = saved_locations_fts.docid
+        WHERE saved_locations_fts MATCH :match
+        ORDER BY saved_locations.zip = :term DESC,
+            saved_locations.name LIKE :term || '%' DESC,
+            saved_locations.isFavorite DESC,
+            saved_locations.searchedAt DESC
+        LIMIT :limit
+        """
+    )
+    fun searchLocationSummaries(match: String, term: String, limit: Int): Flow<List<SavedLocationSummary>>
+
+    // Paged versions of the list queries; each page walks the same index as the full query
+    @Query(LocationQueries.ALL_BY_RECENCY)
+    fun pageAllLocations(): PagingSource<Int, ZipCodeResponse>
+
+    @Query(LocationQueries.FAVORITES_BY_NAME)
+    fun pageFavoriteLocations(): PagingSource<Int, ZipCodeResponse>
+
+    @Query(LocationQueries.LOCATION_BY_ZIP)
     suspend fun getLocationByZip(zipCode: String): ZipCodeResponse?
 
-    @Query("SELECT * FROM saved_locations WHERE name LIKE '%' || :name || '%' ORDER BY name ASC")
-    fun searchLocationsByName(name: String): Flow<List<ZipCodeResponse>>
+    /**
+     * Prefix search over name and zip through the FTS index
+     * Ranked by exact zip match, then names starting with [term], then favorites and recency.
+     * @param match MATCH expression from [LocationSearch.matchExpression]
+     * @param term The raw query, used for ranking
+     */
+    @Query(
+        """
+        SELECT saved_locations.* FROM saved_locations
+        JOIN saved_locations_fts ON saved_locations.rowid = saved_locations_fts.docid
+        WHERE saved_locations_fts MATCH :match
+            AND (:favoritesOnly = 0 OR saved_locations.isFavorite = 1)
+        ORDER BY saved_locations.zip = :term DESC,
+            saved_locations.name LIKE :term || '%' DESC,
+            saved_locations.isFavorite DESC,
+            saved_locations.searchedAt DESC
+        LIMIT :limit
+        """
+    )
+    fun searchLocations(
+        match: String,
+        term: String,
+        favoritesOnly: Boolean,
+        limit: Int = LocationSearch.MAX_RESULTS
+    ): Flow<List<ZipCodeResponse>>
+
+    /**
+     * Paged [searchLocations] without the result cap
+     */
+    @Query(
+        """
+        SELECT saved_locations.* FROM saved_locations
+        JOIN saved_locations_fts ON saved_locations.rowid = saved_locations_fts.docid
+        WHERE saved_locations_fts MATCH :match
+            AND (:favoritesOnly = 0 OR saved_locations.isFavorite = 1)
+        ORDER BY saved_locations.zip = :term DESC,
+            saved_locations.name LIKE :term || '%' DESC,
+            saved_locations.isFavorite DESC,
+            saved_locations.searchedAt DESC
+        """
+    )
+    fun pageSearchLocations(match: String, term: String, favoritesOnly: Boolean): PagingSource<Int, ZipCodeResponse>
 
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     suspend fun insertLocation(location: ZipCodeResponse)
 
+    /**
+     * Insert a location or refresh an existing one in a single atomic statement
+     * An existing row keeps its favorite flag; every other column, including
+     * [searchedAt], is overwritten. Works on every SQLite version the app supports.
+     */
+    @Query(
+        """
+        INSERT OR REPLACE INTO saved_locations (zip, name, lat, lon, country, searchedAt, isFavorite)
+        VALUES (:zip, :name, :lat, :lon, :country, :searchedAt,
+            COALESCE((SELECT isFavorite FROM saved_locations WHERE zip = :zip), :isFavorite))
+        """
+    )
+    suspend fun upsertLocation(
+        zip: String,
+        name: String,
+        lat: Double,
+        lon: Double,
+        country: String,
+        searchedAt: Long,
+        isFavorite: Boolean
+    )
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     suspend fun insertLocations(locations: List<ZipCodeResponse>)
 
@@ -52,9 +157,23 @@ interface LocationDao {
     @Query("DELETE FROM saved_locations")
     suspend fun deleteAllLocations()
 
+    // Retention: favorites are never evicted
+    @Query("DELETE FROM saved_locations WHERE isFavorite = 0 AND searchedAt < :cutoff")
+    suspend fun deleteNonFavoritesSearchedBefore(cutoff: Long): Int
+
+    @Query(
+        """
+        DELETE FROM saved_locations WHERE zip IN (
+            SELECT zip FROM saved_locations WHERE isFavorite = 0
+            ORDER BY searchedAt DESC LIMIT -1 OFFSET :keep
+        )
+        """
+    )
+    suspend fun deleteNonFavoritesBeyond(keep: Int): Int
+
     @Query("SELECT COUNT(*) FROM saved_locations")
     suspend fun getLocationCount(): Int
 
-    @Query("SELECT COUNT(*) FROM saved_locations WHERE isFavorite = 1")
+    @Query(LocationQueries.FAVORITE_COUNT)
     suspend fun getFavoriteCount(): Int
 }
@@ -0,0 +1,25 @@
+package com.example.whetherornot.data.database
+
+import java.util.Locale
+
+/**
+ * Turns what the user typed into an FTS MATCH expression
+ */
+object LocationSearch {
+
+    const val MAX_RESULTS = 100
+
+    private val separators = Regex("[^\\p{L}\\p{N}]+")
+
+    /**
+     * Every word becomes a prefix term and all of them must match,
+     * e.g. "St. Paul 551" -> "st* paul* 551*"; null when nothing searchable was typed.
+     * Terms are lowercased so words like OR and NOT are never read as operators.
+     */
+    @JvmStatic
+    fun matchExpression(query: String): String? {
+        val terms = query.split(separators).filter { it.isNotEmpty() }.map { it.lowercase(Locale.ROOT) }
+        if (terms.isEmpty()) return null
+        return terms.joinToString(" ") { "$it*" }
+    }
+}
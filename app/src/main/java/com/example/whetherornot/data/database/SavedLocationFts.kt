@@ -0,0 +1,18 @@
+package com.example.whetherornot.data.database
+
+import androidx.room.Entity
+import androidx.room.Fts4
+import androidx.room.FtsOptions
+import com.example.whetherornot.data.model.ZipCodeResponse
+
+/**
+ * Full-text index over saved location names and zips
+ * Uses saved_locations as external content, so only the index is stored here; Room's
+ * triggers keep it in sync with every insert, update and delete on that table.
+ */
+@Fts4(contentEntity = ZipCodeResponse::class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "saved_locations_fts")
+data class SavedLocationFts(
+    val zip: String,
+    val name: String
+)
@@ -5,25 +5,39 @@ import androidx.room.Room
 import androidx.room.RoomDatabase
 import androidx.room.TypeConverters
 import android.content.Context
+import androidx.sqlite.db.SupportSQLiteDatabase
 import com.example.whetherornot.data.model.ZipCodeResponse
 
 /**
- * Room database for storing weather location data
+ * Room database for storing weather location data and the last weather seen per location
  */
 @Database(
-    entities = [ZipCodeResponse::class],
-    version = 1,
-    exportSchema = false
+    entities = [ZipCodeResponse::class, SavedLocationFts::class, WeatherSnapshotEntity::class],
+    version = 4,
+    exportSchema = true
 )
 @TypeConverters(Converters::class)
 abstract class WeatherDatabase : RoomDatabase() {
 
     abstract fun locationDao(): LocationDao
 
+    abstract fun weatherSnapshotDao(): WeatherSnapshotDao
+
     companion object {
         @Volatile
         private var INSTANCE: WeatherDatabase? = null
 
+        /**
+         * Per-connection settings
+         * REPLACE inserts delete the old row without firing delete triggers unless
+         * recursive triggers are on, which would leave stale full-text index entries.
+         */
+        internal val connectionCallback = object : RoomDatabase.Callback() {
+            override fun onOpen(db: SupportSQLiteDatabase) {
+                db.execSQL("PRAGMA recursive_triggers = ON")
+            }
+        }
+
         fun getDatabase(context: Context): WeatherDatabase {
             return INSTANCE ?: synchronized(this) {
                 val instance = Room.databaseBuilder(
@@ -31,7 +45,10 @@ abstract class WeatherDatabase : RoomDatabase() {
                     WeatherDatabase::class.java,
                     "weather_database"
                 )
-                .fallbackToDestructiveMigration()
+                .addMigrations(*DatabaseMigrations.ALL)
+                .addCallback(connectionCallback)
+                // Only downgrades (older builds over newer data) may drop tables
+                .fallbackToDestructiveMigrationOnDowngrade()
                 .build()
                 INSTANCE = instance
                 instance
@@ -0,0 +1,28 @@
+package com.example.whetherornot.data.database
+
+import androidx.room.*
+
+/**
+ * Data Access Object for stored weather snapshots
+ */
+@Dao
+interface WeatherSnapshotDao {
+
+    @Query("SELECT * FROM weather_snapshots WHERE locationKey = :locationKey LIMIT 1")
+    suspend fun getSnapshot(locationKey: String): WeatherSnapshotEntity?
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertSnapshot(snapshot: WeatherSnapshotEntity)
+
+    @Query("DELETE FROM weather_snapshots WHERE locationKey = :locationKey")
+    suspend fun deleteSnapshot(locationKey: String)
+
+    @Query("DELETE FROM weather_snapshots")
+    suspend fun deleteAllSnapshots()
+
+    @Query("DELETE FROM weather_snapshots WHERE fetchedAt < :cutoff")
+    suspend fun deleteSnapshotsFetchedBefore(cutoff: Long): Int
+
+    @Query("SELECT COUNT(*) FROM weather_snapshots")
+    suspend fun getSnapshotCount(): Int
+}
@@ -0,0 +1,22 @@
+package com.example.whetherornot.data.database
+
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+import com.example.whetherornot.data.cache.WeatherBinaryCodec
+
+/**
+ * Last full One Call payload for a quantized location, kept for offline-first launches
+ * @param locationKey Geohash cell plus units, as produced by the snapshot cache
+ * @param fetchedAt When the payload was downloaded, in epoch millis
+ * @param payload The response encoded with [WeatherBinaryCodec]
+ */
+@Entity(tableName = "weather_snapshots")
+class WeatherSnapshotEntity(
+    @PrimaryKey
+    val locationKey: String,
+    val units: String,
+    val latitude: Double,
+    val longitude: Double,
+    val fetchedAt: Long,
+    val payload: ByteArray
+)
@@ -0,0 +1,113 @@
+package com.example.whetherornot.data.json
+
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+
+/**
+ * A JSON document flattened into display lines for the raw data inspector
+ * Every object and array has an opening line, its children and a closing line. An
+ * opening line knows where its closing line is, so a collapsed container is skipped
+ * in one step and only the visible lines are ever listed.
+ */
+class JsonOutline private constructor(val lines: List<Line>) {
+
+    /**
+     * @param closeIndex Index of the matching closing line for an opening line, otherwise -1
+     * @param collapsedText Single-line summary shown while the container is collapsed
+     */
+    class Line(
+        val depth: Int,
+        val text: String,
+        val closeIndex: Int = -1,
+        val collapsedText: String? = null
+    ) {
+        val isContainer: Boolean get() = closeIndex >= 0
+    }
+
+    companion object {
+        /**
+         * Index of the root line, the only container expanded initially
+         */
+        const val ROOT = 0
+
+        /**
+         * Tokenize [json]; meant to run off the main thread
+         */
+        @JvmStatic
+        fun parse(json: ByteArray): JsonOutline {
+            val lines = ArrayList<Line>()
+            JsonReader(json.inputStream().reader(Charsets.UTF_8)).use { reader ->
+                readValue(reader, null, 0, lines)
+            }
+            return JsonOutline(lines)
+        }
+
+        private fun readValue(reader: JsonReader, key: String?, depth: Int, lines: MutableList<Line>) {
+            val prefix = if (key != null) "${JsonText.quote(key)}: " else ""
+            when (reader.peek()) {
+                JsonToken.BEGIN_OBJECT -> readContainer(reader, prefix, depth, lines, isObject = true)
+                JsonToken.BEGIN_ARRAY -> readContainer(reader, prefix, depth, lines, isObject = false)
+                else -> {
+                    val scalar = JsonText.readScalar(reader)
+                    if (scalar != null) lines.add(Line(depth, prefix + scalar)) else reader.skipValue()
+                }
+            }
+        }
+
+        private fun readContainer(
+            reader: JsonReader,
+            prefix: String,
+            depth: Int,
+            lines: MutableList<Line>,
+            isObject: Boolean
+        ) {
+            val openIndex = lines.size
+            lines.add(Line(depth, prefix))
+            var count = 0
+            if (isObject) {
+                reader.beginObject()
+                while (reader.hasNext()) {
+                    readValue(reader, reader.nextName(), depth + 1, lines)
+                    count++
+                }
+                reader.endObject()
+            } else {
+                reader.beginArray()
+                while (reader.hasNext()) {
+                    readValue(reader, null, depth + 1, lines)
+                    count++
+                }
+                reader.endArray()
+            }
+            val (open, close) = if (isObject) "{" to "}" else "[" to "]"
+            val noun = when {
+                isObject && count == 1 -> "key"
+                isObject -> "keys"
+                count == 1 -> "item"
+                else -> "items"
+            }
+            lines.add(Line(depth, close))
+            lines[openIndex] = Line(
+                depth = depth,
+                text = prefix + open,
+                closeIndex = lines.size - 1,
+                collapsedText = "$prefix$open $count $noun $close"
+            )
+        }
+    }
+
+    /**
+     * Indices of the lines to show when only the containers in [expanded] are open
+     */
+    fun visibleLines(expanded: Set<Int>): IntArray {
+        val visible = IntArray(lines.size)
+        var count = 0
+        var i = 0
+        while (i < lines.size) {
+            visible[count++] = i
+            val line = lines[i]
+            i = if (line.isContainer && i !in expanded) line.closeIndex + 1 else i + 1
+        }
+        return visible.copyOf(count)
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.whetherornot.data.json
+
+import com.google.gson.stream.MalformedJsonException
+import okio.Buffer
+import okio.BufferedSource
+import java.io.IOException
+
+/**
+ * Streaming scanner that splits a JSON object into the raw bytes of its top-level values
+ * Only brackets, quotes and commas are inspected; numbers and strings are never decoded,
+ * so splitting a payload costs far less than parsing it. Each kept value is copied into
+ * its own array as it streams past, so the whole body is never held in one buffer.
+ */
+internal object JsonSectionScanner {
+
+    /**
+     * One top-level member
+     * @param name Key exactly as written between its quotes
+     * @param value Raw bytes of the value, or null if it was skipped
+     * @param elementCount Number of elements when the value is an array, otherwise 0
+     */
+    class Section(val name: String, val value: ByteArray?, val elementCount: Int)
+
+    /**
+     * Read the object from [source] member by member, in payload order
+     * @param keep Whether to copy out the value of a key; other values are skipped over
+     * @param stopAfter Keys after which nothing more is needed; once all of them have been
+     * read the scan returns without consuming the rest of [source]
+     * @throws MalformedJsonException if [source] does not hold a well-formed JSON object
+     */
+    @Throws(IOException::class)
+    fun scanTopLevel(
+        source: BufferedSource,
+        keep: (String) -> Boolean = { true },
+        stopAfter: Set<String> = emptySet()
+    ): List<Section> {
+        val pending = HashSet(stopAfter)
+        val sections = ArrayList<Section>()
+        skipWhitespace(source)
+        expect(source, '{')
+        skipWhitespace(source)
+        if (peek(source) == '}'.code.toByte()) {
+            source.skip(1)
+            return sections
+        }
+
+        while (true) {
+            expect(source, '"')
+            val name = Buffer()
+            copyString(source, name)
+            // Drop the closing quote that copyString kept
+            val key = name.readUtf8(name.size - 1)
+            skipWhitespace(source)
+            expect(source, ':')
+            skipWhitespace(source)
+
+            val value = if (keep(key)) Buffer() else null
+            val elementCount = copyValue(source, value)
+            sections.add(Section(key, value?.readByteArray(), elementCount))
+            if (pending.remove(key) && pending.isEmpty()) return sections
+
+            skipWhitespace(source)
+            when (read(source).toInt().toChar()) {
+                ',' -> skipWhitespace(source)
+                '}' -> return sections
+                else -> throw MalformedJsonException("Expected ',' or '}' after \"$key\"")
+            }
+        }
+    }
+
+    /**
+     * Copy one value to [out], or just skip it when [out] is null
+     * @return Element count if the value is an array, otherwise 0
+     */
+    private fun copyValue(source: BufferedSource, out: Buffer?): Int {
+        return when (peek(source).toInt().toChar()) {
+            '"' -> {
+                val quote = read(source)
+                out?.writeByte(quote.toInt())
+                copyString(source, out)
+                0
+            }
+            '{', '[' -> copyContainer(source, out)
+            else -> {
+                copyPrimitive(source, out)
+                0
+            }
+        }
+    }
+
+    /**
+     * Copy a string whose opening quote has already been consumed, up to and including the
+     * closing quote
+     */
+    private fun copyString(source: BufferedSource, out: Buffer?) {
+        while (true) {
+            val b = read(source)
+            out?.writeByte(b.toInt())
+            when (b) {
+                // The escaped character can't end the string, whatever it is
+                '\\'.code.toByte() -> {
+                    val escaped = read(source)
+                    out?.writeByte(escaped.toInt())
+                }
+                '"'.code.toByte() -> return
+            }
+        }
+    }
+
+    /**
+     * Copy an object or array, returning the element count if it is an array
+     */
+    private fun copyContainer(source: BufferedSource, out: Buffer?): Int {
+        var depth = 0
+        var elements = 0
+        var empty = true
+        while (true) {
+            val b = read(source)
+            out?.writeByte(b.toInt())
+            when (b) {
+                '"'.code.toByte() -> {
+                    empty = false
+                    copyString(source, out)
+                }
+                '{'.code.toByte(), '['.code.toByte() -> {
+                    if (depth > 0) empty = false
+                    depth++
+                }
+                '}'.code.toByte(), ']'.code.toByte() -> {
+                    depth--
+                    if (depth == 0) return if (empty) 0 else elements + 1
+                }
+                ','.code.toByte() -> if (depth == 1) elements++
+                ' '.code.toByte(), '\t'.code.toByte(), '\n'.code.toByte(), '\r'.code.toByte() -> Unit
+                else -> empty = false
+            }
+        }
+    }
+
+    private fun copyPrimitive(source: BufferedSource, out: Buffer?) {
+        var length = 0
+        while (source.request(1)) {
+            when (source.buffer[0L]) {
+                ','.code.toByte(), '}'.code.toByte(), ']'.code.toByte(),
+                ' '.code.toByte(), '\t'.code.toByte(), '\n'.code.toByte(), '\r'.code.toByte() -> break
+                else -> {
+                    val b = source.readByte()
+                    out?.writeByte(b.toInt())
+                    length++
+                }
+            }
+        }
+        if (length == 0) throw MalformedJsonException("Expected a value")
+    }
+
+    private fun skipWhitespace(source: BufferedSource) {
+        while (source.request(1)) {
+            when (source.buffer[0L]) {
+                ' '.code.toByte(), '\t'.code.toByte(), '\n'.code.toByte(), '\r'.code.toByte() -> source.skip(1)
+                else -> return
+            }
+        }
+    }
+
+    private fun expect(source: BufferedSource, c: Char) {
+        if (read(source) != c.code.toByte()) {
+            throw MalformedJsonException("Expected '$c'")
+        }
+    }
+
+    private fun peek(source: BufferedSource): Byte {
+        if (!source.request(1)) throw MalformedJsonException("Unexpected end of input")
+        return source.buffer[0L]
+    }
+
+    private fun read(source: BufferedSource): Byte {
+        if (!source.request(1)) throw MalformedJsonException("Unexpected end of input")
+        return source.readByte()
+    }
+}
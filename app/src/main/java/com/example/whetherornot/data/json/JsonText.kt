@@ -0,0 +1,56 @@
+package com.example.whetherornot.data.json
+
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+
+/**
+ * Renders JSON names and scalar values back into JSON source text for the raw data views
+ */
+internal object JsonText {
+
+    /**
+     * [value] as a JSON string literal, escaping quotes, backslashes and control characters
+     */
+    fun quote(value: String): String {
+        val out = StringBuilder(value.length + 2)
+        out.append('"')
+        for (c in value) {
+            when (c) {
+                '"' -> out.append("\\\"")
+                '\\' -> out.append("\\\\")
+                '\n' -> out.append("\\n")
+                '\r' -> out.append("\\r")
+                '\t' -> out.append("\\t")
+                '\b' -> out.append("\\b")
+                '\u000C' -> out.append("\\f")
+                // Line and paragraph separators are legal in JSON but break many renderers
+                '\u2028', '\u2029' -> appendUnicodeEscape(out, c)
+                else -> if (c < ' ') appendUnicodeEscape(out, c) else out.append(c)
+            }
+        }
+        return out.append('"').toString()
+    }
+
+    /**
+     * Consume the scalar at the reader's position and return its source text
+     * Numbers keep their literal form. Returns null, without consuming anything, when
+     * the next token is not a scalar.
+     */
+    fun readScalar(reader: JsonReader): String? = when (reader.peek()) {
+        JsonToken.STRING -> quote(reader.nextString())
+        JsonToken.NUMBER -> reader.nextString()
+        JsonToken.BOOLEAN -> reader.nextBoolean().toString()
+        JsonToken.NULL -> {
+            reader.nextNull()
+            "null"
+        }
+        else -> null
+    }
+
+    private fun appendUnicodeEscape(out: StringBuilder, c: Char) {
+        out.append("\\u")
+        val hex = Integer.toHexString(c.code)
+        repeat(4 - hex.length) { out.append('0') }
+        out.append(hex)
+    }
+}
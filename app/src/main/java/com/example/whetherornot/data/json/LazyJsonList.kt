@@ -0,0 +1,55 @@
+package com.example.whetherornot.data.json
+
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonWriter
+import java.io.ByteArrayInputStream
+
+/**
+ * List backed by the raw UTF-8 bytes of a JSON array, decoded on first element access
+ * [size] is known up front from the scanner, so counting entries does not decode anything.
+ * The decoded items are memoized and the raw bytes dropped; until then [writeTo] copies
+ * the bytes through verbatim.
+ */
+class LazyJsonList<T>(
+    json: ByteArray,
+    override val size: Int,
+    private val readItem: (JsonReader) -> T
+) : AbstractList<T>(), RandomAccess {
+
+    @Volatile
+    private var json: ByteArray? = json
+
+    @Volatile
+    private var decoded: List<T>? = null
+
+    /**
+     * Whether the items have been decoded yet
+     */
+    val isDecoded: Boolean get() = decoded != null
+
+    override fun get(index: Int): T = items()[index]
+
+    /**
+     * Write the array to [writer] without decoding it if it is still raw
+     */
+    fun writeTo(writer: JsonWriter, writeItem: (JsonWriter, T) -> Unit) {
+        val raw = json
+        if (raw != null) {
+            writer.jsonValue(String(raw, Charsets.UTF_8))
+        } else {
+            WeatherJsonWriter.writeList(writer, items(), writeItem)
+        }
+    }
+
+    private fun items(): List<T> = decoded ?: synchronized(this) {
+        decoded ?: decode(json!!).also {
+            decoded = it
+            json = null
+        }
+    }
+
+    private fun decode(raw: ByteArray): List<T> =
+        JsonReader(ByteArrayInputStream(raw).reader(Charsets.UTF_8)).use { reader ->
+            WeatherJsonReader.readList(reader, readItem)
+        }
+}
@@ -0,0 +1,91 @@
+package com.example.whetherornot.data.json
+
+import com.example.whetherornot.data.api.WeatherSection
+import com.example.whetherornot.data.model.WeatherPayload
+import com.example.whetherornot.data.model.ZipCodeResponse
+import com.google.gson.stream.JsonReader
+import okhttp3.Interceptor
+import okhttp3.MediaType
+import okhttp3.MediaType.Companion.toMediaTypeOrNull
+import okhttp3.RequestBody
+import okhttp3.Response
+import okhttp3.ResponseBody
+import okhttp3.ResponseBody.Companion.asResponseBody
+import retrofit2.Converter
+import retrofit2.Retrofit
+import retrofit2.converter.gson.GsonConverterFactory
+import java.lang.reflect.Type
+import java.util.EnumSet
+
+/**
+ * Retrofit converter that decodes weather payloads with [WeatherJsonReader]
+ * One Call bodies are split into the sections the call asked for as they stream in;
+ * [ZipCodeResponse] is read straight from the stream and other types go to [fallback].
+ */
+class StreamingWeatherConverterFactory(
+    private val fallback: Converter.Factory = GsonConverterFactory.create(WeatherJson.gson)
+) : Converter.Factory() {
+
+    override fun responseBodyConverter(
+        type: Type,
+        annotations: Array<out Annotation>,
+        retrofit: Retrofit
+    ): Converter<ResponseBody, *>? = when (type) {
+        WeatherPayload::class.java -> Converter<ResponseBody, WeatherPayload> { body ->
+            // Forecasts stay as raw bytes until first access, so current conditions are ready sooner
+            val sections = WeatherSectionsInterceptor.sectionsOf(body.contentType())
+            body.use { WeatherJsonReader.readWeatherResponseLazily(it.source(), sections) }
+        }
+        ZipCodeResponse::class.java -> Converter<ResponseBody, ZipCodeResponse> { body ->
+            JsonReader(body.charStream()).use { reader ->
+                WeatherJsonReader.readZipCodeResponse(reader)
+            }
+        }
+        else -> fallback.responseBodyConverter(type, annotations, retrofit)
+    }
+
+    override fun requestBodyConverter(
+        type: Type,
+        parameterAnnotations: Array<out Annotation>,
+        methodAnnotations: Array<out Annotation>,
+        retrofit: Retrofit
+    ): Converter<*, RequestBody>? =
+        fallback.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit)
+}
+
+/**
+ * Application interceptor that tells [StreamingWeatherConverterFactory] which sections a
+ * One Call request asked for
+ * Converters never see the request, so the sections left by its `exclude` query travel
+ * as a parameter of the response body's media type.
+ */
+class WeatherSectionsInterceptor : Interceptor {
+
+    companion object {
+        private const val PARAMETER = "sections"
+
+        /**
+         * Sections recorded on [contentType], or [WeatherSection.DEFAULT] if there are none
+         */
+        @JvmStatic
+        fun sectionsOf(contentType: MediaType?): Set<WeatherSection> {
+            val names = contentType?.parameter(PARAMETER) ?: return WeatherSection.DEFAULT
+            return WeatherSection.values().filterTo(EnumSet.noneOf(WeatherSection::class.java)) {
+                it.apiName in names.split(',')
+            }
+        }
+    }
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val response = chain.proceed(request)
+        val exclude = request.url.queryParameter("exclude") ?: return response
+        val body = response.body ?: return response
+
+        val sections = WeatherSection.fromExclude(exclude).joinToString(",") { it.apiName }
+        val contentType = "${body.contentType() ?: "application/json"}; $PARAMETER=\"$sections\""
+        return response.newBuilder()
+            .body(body.source().asResponseBody(contentType.toMediaTypeOrNull(), body.contentLength()))
+            .build()
+    }
+}
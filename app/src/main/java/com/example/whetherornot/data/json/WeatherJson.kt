@@ -0,0 +1,62 @@
+package com.example.whetherornot.data.json
+
+import com.example.whetherornot.data.model.CurrentWeather
+import com.example.whetherornot.data.model.DailyFeelsLike
+import com.example.whetherornot.data.model.DailyTemperature
+import com.example.whetherornot.data.model.DailyWeather
+import com.example.whetherornot.data.model.HourlyWeather
+import com.example.whetherornot.data.model.Weather
+import com.example.whetherornot.data.model.WeatherResponse
+import com.example.whetherornot.data.model.ZipCodeResponse
+import com.google.gson.Gson
+import com.google.gson.GsonBuilder
+import com.google.gson.TypeAdapter
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonWriter
+
+/**
+ * App-wide Gson with hand-written adapters for every weather model
+ * No reflection is involved for these types, so there is no per-instance reflection
+ * cache to warm up and renamed fields under minification cannot break parsing.
+ * Use this instead of creating a new Gson().
+ */
+object WeatherJson {
+
+    @JvmStatic
+    val gson: Gson by lazy {
+        GsonBuilder()
+            .registerTypeAdapter(WeatherResponse::class.java, adapter(
+                WeatherJsonReader::readWeatherResponse, WeatherJsonWriter::writeWeatherResponse))
+            .registerTypeAdapter(CurrentWeather::class.java, adapter(
+                WeatherJsonReader::readCurrentWeather, WeatherJsonWriter::writeCurrentWeather))
+            .registerTypeAdapter(HourlyWeather::class.java, adapter(
+                WeatherJsonReader::readHourlyWeather, WeatherJsonWriter::writeHourlyWeather))
+            .registerTypeAdapter(DailyWeather::class.java, adapter(
+                WeatherJsonReader::readDailyWeather, WeatherJsonWriter::writeDailyWeather))
+            .registerTypeAdapter(DailyTemperature::class.java, adapter(
+                WeatherJsonReader::readDailyTemperature, WeatherJsonWriter::writeDailyTemperature))
+            .registerTypeAdapter(DailyFeelsLike::class.java, adapter(
+                WeatherJsonReader::readDailyFeelsLike, WeatherJsonWriter::writeDailyFeelsLike))
+            .registerTypeAdapter(Weather::class.java, adapter(
+                WeatherJsonReader::readWeather, WeatherJsonWriter::writeWeather))
+            .registerTypeAdapter(ZipCodeResponse::class.java, adapter(
+                WeatherJsonReader::readZipCodeResponse, WeatherJsonWriter::writeZipCodeResponse))
+            .create()
+    }
+
+    /**
+     * [response] re-serialized as UTF-8 JSON, for when the original payload is not available
+     */
+    @JvmStatic
+    fun toJsonBytes(response: WeatherResponse): ByteArray =
+        gson.toJson(response).toByteArray(Charsets.UTF_8)
+
+    private fun <T : Any> adapter(
+        readValue: (JsonReader) -> T,
+        writeValue: (JsonWriter, T) -> Unit
+    ): TypeAdapter<T> = object : TypeAdapter<T>() {
+        override fun read(reader: JsonReader): T = readValue(reader)
+
+        override fun write(writer: JsonWriter, value: T) = writeValue(writer, value)
+    }.nullSafe()
+}
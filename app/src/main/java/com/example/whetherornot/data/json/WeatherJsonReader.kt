@@ -0,0 +1,456 @@
+package com.example.whetherornot.data.json
+
+import com.example.whetherornot.data.api.WeatherSection
+import com.example.whetherornot.data.model.CurrentWeather
+import com.example.whetherornot.data.model.DailyFeelsLike
+import com.example.whetherornot.data.model.DailyTemperature
+import com.example.whetherornot.data.model.DailyWeather
+import com.example.whetherornot.data.model.HourlyWeather
+import com.example.whetherornot.data.model.Weather
+import com.example.whetherornot.data.model.WeatherConditionRegistry
+import com.example.whetherornot.data.model.WeatherPayload
+import com.example.whetherornot.data.model.WeatherResponse
+import com.example.whetherornot.data.model.ZipCodeResponse
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+import com.google.gson.stream.MalformedJsonException
+import okio.BufferedSource
+import java.io.IOException
+
+/**
+ * Token-by-token decoder for One Call and geocoding payloads
+ * Reads straight from a [JsonReader] into the model classes, with no intermediate
+ * strings or JSON trees. Missing numeric fields default to 0, like reflective Gson.
+ */
+object WeatherJsonReader {
+
+    // Top-level members besides the sections that make up a WeatherResponse
+    private val HEADER_FIELDS = setOf("lat", "lon", "timezone", "timezone_offset")
+
+    /**
+     * Decode a One Call payload
+     */
+    @JvmStatic
+    fun readWeatherResponse(reader: JsonReader): WeatherResponse {
+        var lat = 0.0
+        var lon = 0.0
+        var timezone = ""
+        var timezoneOffset = 0
+        var current: CurrentWeather? = null
+        var hourly: List<HourlyWeather>? = null
+        var daily: List<DailyWeather>? = null
+
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "lat" -> lat = reader.nextDouble()
+                "lon" -> lon = reader.nextDouble()
+                "timezone" -> timezone = reader.nextString()
+                "timezone_offset" -> timezoneOffset = reader.nextInt()
+                "current" -> current = readNullable(reader) { readCurrentWeather(it) }
+                "hourly" -> hourly = readNullable(reader) { readList(it, ::readHourlyWeather) }
+                "daily" -> daily = readNullable(reader) { readList(it, ::readDailyWeather) }
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+
+        return WeatherResponse(
+            lat = lat,
+            lon = lon,
+            timezone = timezone,
+            timezoneOffset = timezoneOffset,
+            current = current,
+            hourly = hourly,
+            daily = daily
+        )
+    }
+
+    /**
+     * Decode a One Call payload as it streams in, leaving the forecasts undecoded
+     * The body is split into its top-level values without parsing them. Header fields and
+     * current conditions are then decoded from their own small values, while the hourly and
+     * daily arrays stay raw [LazyJsonList]s, only parsed when an entry is accessed. The
+     * values are kept as a [WeatherJsonSource] for the raw data view, and no buffer of the
+     * whole body is ever held.
+     * @param source UTF-8 payload
+     * @param sections Sections to keep; others are skipped without being copied. Once the
+     * header and every requested section have been read the rest of [source] is left unread.
+     */
+    @JvmStatic
+    @JvmOverloads
+    @Throws(IOException::class)
+    fun readWeatherResponseLazily(
+        source: BufferedSource,
+        sections: Set<WeatherSection> = WeatherSection.DEFAULT
+    ): WeatherPayload {
+        val wanted = HEADER_FIELDS + sections.map { it.apiName }
+        val scanned = JsonSectionScanner.scanTopLevel(source, keep = { it in wanted }, stopAfter = wanted)
+        val members = scanned.mapNotNull { section ->
+            section.value?.let { WeatherJsonSource.Member(section.name, it) }
+        }
+
+        val forecasts = listOf(WeatherSection.HOURLY.apiName, WeatherSection.DAILY.apiName)
+        val headerJson = WeatherJsonSource(members.filter { it.name !in forecasts }).toByteArray()
+        val header = JsonReader(headerJson.inputStream().reader(Charsets.UTF_8)).use { reader ->
+            readWeatherResponse(reader)
+        }
+        val response = header.copy(
+            hourly = lazySection(scanned, WeatherSection.HOURLY, ::readHourlyWeather),
+            daily = lazySection(scanned, WeatherSection.DAILY, ::readDailyWeather)
+        )
+        return WeatherPayload(response, WeatherJsonSource(members))
+    }
+
+    /**
+     * Decode a geocoding zip payload
+     */
+    @JvmStatic
+    fun readZipCodeResponse(reader: JsonReader): ZipCodeResponse {
+        var zip = ""
+        var name = ""
+        var lat = 0.0
+        var lon = 0.0
+        var country = ""
+        var searchedAt = System.currentTimeMillis()
+        var isFavorite = false
+
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "zip" -> zip = nextStringOrDefault(reader)
+                "name" -> name = nextStringOrDefault(reader)
+                "lat" -> lat = reader.nextDouble()
+                "lon" -> lon = reader.nextDouble()
+                "country" -> country = nextStringOrDefault(reader)
+                // Local-only fields, present when a saved location is serialized
+                "searchedAt" -> searchedAt = reader.nextLong()
+                "isFavorite" -> isFavorite = reader.nextBoolean()
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+
+        return ZipCodeResponse(
+            zip = zip,
+            name = name,
+            lat = lat,
+            lon = lon,
+            country = country,
+            searchedAt = searchedAt,
+            isFavorite = isFavorite
+        )
+    }
+
+    @JvmStatic
+    fun readCurrentWeather(reader: JsonReader): CurrentWeather {
+        var dt = 0L
+        var sunrise = 0L
+        var sunset = 0L
+        var temp = 0.0
+        var feelsLike = 0.0
+        var pressure = 0
+        var humidity = 0
+        var dewPoint = 0.0
+        var uvi = 0.0
+        var clouds = 0
+        var visibility = 0
+        var windSpeed = 0.0
+        var windDeg = 0.0
+        var windGust: Double? = null
+        var weather: List<Weather> = emptyList()
+
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "dt" -> dt = reader.nextLong()
+                "sunrise" -> sunrise = reader.nextLong()
+                "sunset" -> sunset = reader.nextLong()
+                "temp" -> temp = reader.nextDouble()
+                "feels_like" -> feelsLike = reader.nextDouble()
+                "pressure" -> pressure = reader.nextInt()
+                "humidity" -> humidity = reader.nextInt()
+                "dew_point" -> dewPoint = reader.nextDouble()
+                "uvi" -> uvi = reader.nextDouble()
+                "clouds" -> clouds = reader.nextInt()
+                "visibility" -> visibility = reader.nextInt()
+                "wind_speed" -> windSpeed = reader.nextDouble()
+                "wind_deg" -> windDeg = reader.nextDouble()
+                "wind_gust" -> windGust = nextDoubleOrNull(reader)
+                "weather" -> weather = readList(reader, ::readWeather)
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+
+        return CurrentWeather(
+            dt = dt,
+            sunrise = sunrise,
+            sunset = sunset,
+            temp = temp,
+            feelsLike = feelsLike,
+            pressure = pressure,
+            humidity = humidity,
+            dewPoint = dewPoint,
+            uvi = uvi,
+            clouds = clouds,
+            visibility = visibility,
+            windSpeed = windSpeed,
+            windDeg = windDeg,
+            windGust = windGust,
+            weather = weather
+        )
+    }
+
+    @JvmStatic
+    fun readHourlyWeather(reader: JsonReader): HourlyWeather {
+        var dt = 0L
+        var temp = 0.0
+        var feelsLike = 0.0
+        var pressure = 0
+        var humidity = 0
+        var dewPoint = 0.0
+        var uvi = 0.0
+        var clouds = 0
+        var visibility = 0
+        var windSpeed = 0.0
+        var windDeg = 0.0
+        var windGust: Double? = null
+        var weather: List<Weather> = emptyList()
+        var pop = 0.0
+
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "dt" -> dt = reader.nextLong()
+                "temp" -> temp = reader.nextDouble()
+                "feels_like" -> feelsLike = reader.nextDouble()
+                "pressure" -> pressure = reader.nextInt()
+                "humidity" -> humidity = reader.nextInt()
+                "dew_point" -> dewPoint = reader.nextDouble()
+                "uvi" -> uvi = reader.nextDouble()
+                "clouds" -> clouds = reader.nextInt()
+                "visibility" -> visibility = reader.nextInt()
+                "wind_speed" -> windSpeed = reader.nextDouble()
+                "wind_deg" -> windDeg = reader.nextDouble()
+                "wind_gust" -> windGust = nextDoubleOrNull(reader)
+                "weather" -> weather = readList(reader, ::readWeather)
+                "pop" -> pop = reader.nextDouble()
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+
+        return HourlyWeather(
+            dt = dt,
+            temp = temp,
+            feelsLike = feelsLike,
+            pressure = pressure,
+            humidity = humidity,
+            dewPoint = dewPoint,
+            uvi = uvi,
+            clouds = clouds,
+            visibility = visibility,
+            windSpeed = windSpeed,
+            windDeg = windDeg,
+            windGust = windGust,
+            weather = weather,
+            pop = pop
+        )
+    }
+
+    @JvmStatic
+    fun readDailyWeather(reader: JsonReader): DailyWeather {
+        var dt = 0L
+        var sunrise = 0L
+        var sunset = 0L
+        var moonrise = 0L
+        var moonset = 0L
+        var moonPhase = 0.0
+        var summary: String? = null
+        var temp = DailyTemperature(0.0, 0.0, 0.0, 0.0, 0.0, 0.0)
+        var feelsLike = DailyFeelsLike(0.0, 0.0, 0.0, 0.0)
+        var pressure = 0
+        var humidity = 0
+        var dewPoint = 0.0
+        var windSpeed = 0.0
+        var windDeg = 0.0
+        var windGust: Double? = null
+        var weather: List<Weather> = emptyList()
+        var clouds = 0
+        var pop = 0.0
+        var uvi = 0.0
+
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "dt" -> dt = reader.nextLong()
+                "sunrise" -> sunrise = reader.nextLong()
+                "sunset" -> sunset = reader.nextLong()
+                "moonrise" -> moonrise = reader.nextLong()
+                "moonset" -> moonset = reader.nextLong()
+                "moon_phase" -> moonPhase = reader.nextDouble()
+                "summary" -> summary = nextStringOrNull(reader)
+                "temp" -> temp = readDailyTemperature(reader)
+                "feels_like" -> feelsLike = readDailyFeelsLike(reader)
+                "pressure" -> pressure = reader.nextInt()
+                "humidity" -> humidity = reader.nextInt()
+                "dew_point" -> dewPoint = reader.nextDouble()
+                "wind_speed" -> windSpeed = reader.nextDouble()
+                "wind_deg" -> windDeg = reader.nextDouble()
+                "wind_gust" -> windGust = nextDoubleOrNull(reader)
+                "weather" -> weather = readList(reader, ::readWeather)
+                "clouds" -> clouds = reader.nextInt()
+                "pop" -> pop = reader.nextDouble()
+                "uvi" -> uvi = reader.nextDouble()
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+
+        return DailyWeather(
+            dt = dt,
+            sunrise = sunrise,
+            sunset = sunset,
+            moonrise = moonrise,
+            moonset = moonset,
+            moonPhase = moonPhase,
+            summary = summary,
+            temp = temp,
+            feelsLike = feelsLike,
+            pressure = pressure,
+            humidity = humidity,
+            dewPoint = dewPoint,
+            windSpeed = windSpeed,
+            windDeg = windDeg,
+            windGust = windGust,
+            weather = weather,
+            clouds = clouds,
+            pop = pop,
+            uvi = uvi
+        )
+    }
+
+    @JvmStatic
+    fun readDailyTemperature(reader: JsonReader): DailyTemperature {
+        var day = 0.0
+        var min = 0.0
+        var max = 0.0
+        var night = 0.0
+        var eve = 0.0
+        var morn = 0.0
+
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "day" -> day = reader.nextDouble()
+                "min" -> min = reader.nextDouble()
+                "max" -> max = reader.nextDouble()
+                "night" -> night = reader.nextDouble()
+                "eve" -> eve = reader.nextDouble()
+                "morn" -> morn = reader.nextDouble()
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+
+        return DailyTemperature(day = day, min = min, max = max, night = night, eve = eve, morn = morn)
+    }
+
+    @JvmStatic
+    fun readDailyFeelsLike(reader: JsonReader): DailyFeelsLike {
+        var day = 0.0
+        var night = 0.0
+        var eve = 0.0
+        var morn = 0.0
+
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "day" -> day = reader.nextDouble()
+                "night" -> night = reader.nextDouble()
+                "eve" -> eve = reader.nextDouble()
+                "morn" -> morn = reader.nextDouble()
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+
+        return DailyFeelsLike(day = day, night = night, eve = eve, morn = morn)
+    }
+
+    @JvmStatic
+    fun readWeather(reader: JsonReader): Weather {
+        var id = 0
+        var main = ""
+        var description = ""
+        var icon = ""
+
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.nextName()) {
+                "id" -> id = reader.nextInt()
+                "main" -> main = nextStringOrDefault(reader)
+                "description" -> description = nextStringOrDefault(reader)
+                "icon" -> icon = nextStringOrDefault(reader)
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+
+        // Resolve to the shared instance so the parsed strings can be dropped right away
+        return WeatherConditionRegistry.intern(id, main, description, icon)
+    }
+
+    /**
+     * Read a JSON array into a list, treating null as an empty list
+     */
+    @JvmStatic
+    fun <T> readList(reader: JsonReader, readItem: (JsonReader) -> T): List<T> {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull()
+            return emptyList()
+        }
+        val items = ArrayList<T>()
+        reader.beginArray()
+        while (reader.hasNext()) {
+            items.add(readItem(reader))
+        }
+        reader.endArray()
+        return items
+    }
+
+    /**
+     * Copy one array section out of the payload, so the rest of the body can be freed
+     */
+    private fun <T> lazySection(
+        scanned: List<JsonSectionScanner.Section>,
+        section: WeatherSection,
+        readItem: (JsonReader) -> T
+    ): List<T>? {
+        val scannedSection = scanned.firstOrNull { it.name == section.apiName } ?: return null
+        val value = scannedSection.value ?: return null
+        if (value[0] == 'n'.code.toByte()) return null
+        if (value[0] != '['.code.toByte()) {
+            throw MalformedJsonException("Expected an array for \"${section.apiName}\"")
+        }
+        return LazyJsonList(value, scannedSection.elementCount, readItem)
+    }
+
+    private inline fun <T> readNullable(reader: JsonReader, read: (JsonReader) -> T): T? {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull()
+            return null
+        }
+        return read(reader)
+    }
+
+    private fun nextDoubleOrNull(reader: JsonReader): Double? =
+        readNullable(reader) { it.nextDouble() }
+
+    private fun nextStringOrNull(reader: JsonReader): String? =
+        readNullable(reader) { it.nextString() }
+
+    private fun nextStringOrDefault(reader: JsonReader): String =
+        nextStringOrNull(reader) ?: ""
+}
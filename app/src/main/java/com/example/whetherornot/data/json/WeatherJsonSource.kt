@@ -0,0 +1,62 @@
+package com.example.whetherornot.data.json
+
+import com.example.whetherornot.data.api.WeatherSection
+import java.io.ByteArrayOutputStream
+
+/**
+ * One Call JSON as received from the API, held member by member
+ * Each top-level value keeps its original UTF-8 bytes, so the forecast arrays are shared
+ * with their [LazyJsonList]s instead of copied, and merging a partial refresh swaps members
+ * without re-serializing anything.
+ */
+class WeatherJsonSource internal constructor(private val members: List<Member>) {
+
+    /**
+     * One top-level member; [name] is kept exactly as written between its quotes
+     */
+    internal class Member(val name: String, val value: ByteArray)
+
+    /**
+     * Raw bytes of the top-level value [name], or null if the payload has none
+     */
+    internal fun value(name: String): ByteArray? = members.firstOrNull { it.name == name }?.value
+
+    /**
+     * Copy of this source with the members for [sections] taken from [update]
+     * A section that [update] lacks is dropped, matching [WeatherSection.merge].
+     */
+    fun merge(update: WeatherJsonSource, sections: Set<WeatherSection>): WeatherJsonSource {
+        val replaced = sections.mapTo(HashSet()) { it.apiName }
+        val merged = ArrayList<Member>(members.size + replaced.size)
+        for (member in members) {
+            if (member.name !in replaced) {
+                merged.add(member)
+            } else {
+                update.members.firstOrNull { it.name == member.name }?.let(merged::add)
+            }
+        }
+        // Sections this source did not have yet go after the existing members
+        update.members
+            .filter { it.name in replaced && members.none { existing -> existing.name == it.name } }
+            .forEach(merged::add)
+        return WeatherJsonSource(merged)
+    }
+
+    /**
+     * The payload as one JSON object; whitespace between top-level members is not kept
+     */
+    fun toByteArray(): ByteArray {
+        val out = ByteArrayOutputStream(members.sumOf { it.name.length + it.value.size + 4 } + 2)
+        out.write('{'.code)
+        members.forEachIndexed { i, member ->
+            if (i > 0) out.write(','.code)
+            out.write('"'.code)
+            out.write(member.name.toByteArray(Charsets.UTF_8))
+            out.write('"'.code)
+            out.write(':'.code)
+            out.write(member.value)
+        }
+        out.write('}'.code)
+        return out.toByteArray()
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.whetherornot.data.json
+
+import com.example.whetherornot.data.model.CurrentWeather
+import com.example.whetherornot.data.model.DailyFeelsLike
+import com.example.whetherornot.data.model.DailyTemperature
+import com.example.whetherornot.data.model.DailyWeather
+import com.example.whetherornot.data.model.HourlyWeather
+import com.example.whetherornot.data.model.Weather
+import com.example.whetherornot.data.model.WeatherResponse
+import com.example.whetherornot.data.model.ZipCodeResponse
+import com.google.gson.stream.JsonWriter
+
+/**
+ * Token-by-token encoder for the weather models, the counterpart of [WeatherJsonReader]
+ * Field names match the API payload. Null values are written as JSON null and dropped
+ * by the writer unless it serializes nulls, the same as reflective Gson.
+ */
+object WeatherJsonWriter {
+
+    @JvmStatic
+    fun writeWeatherResponse(writer: JsonWriter, value: WeatherResponse) {
+        writer.beginObject()
+        writer.name("lat").value(value.lat)
+        writer.name("lon").value(value.lon)
+        writer.name("timezone").value(value.timezone)
+        writer.name("timezone_offset").value(value.timezoneOffset.toLong())
+        writer.name("current")
+        value.current?.let { writeCurrentWeather(writer, it) } ?: writer.nullValue()
+        writer.name("hourly")
+        value.hourly?.let { writeSection(writer, it, ::writeHourlyWeather) } ?: writer.nullValue()
+        writer.name("daily")
+        value.daily?.let { writeSection(writer, it, ::writeDailyWeather) } ?: writer.nullValue()
+        writer.endObject()
+    }
+
+    @JvmStatic
+    fun writeZipCodeResponse(writer: JsonWriter, value: ZipCodeResponse) {
+        writer.beginObject()
+        writer.name("zip").value(value.zip)
+        writer.name("name").value(value.name)
+        writer.name("lat").value(value.lat)
+        writer.name("lon").value(value.lon)
+        writer.name("country").value(value.country)
+        writer.name("searchedAt").value(value.searchedAt)
+        writer.name("isFavorite").value(value.isFavorite)
+        writer.endObject()
+    }
+
+    @JvmStatic
+    fun writeCurrentWeather(writer: JsonWriter, value: CurrentWeather) {
+        writer.beginObject()
+        writer.name("dt").value(value.dt)
+        writer.name("sunrise").value(value.sunrise)
+        writer.name("sunset").value(value.sunset)
+        writer.name("temp").value(value.temp)
+        writer.name("feels_like").value(value.feelsLike)
+        writer.name("pressure").value(value.pressure.toLong())
+        writer.name("humidity").value(value.humidity.toLong())
+        writer.name("dew_point").value(value.dewPoint)
+        writer.name("uvi").value(value.uvi)
+        writer.name("clouds").value(value.clouds.toLong())
+        writer.name("visibility").value(value.visibility.toLong())
+        writer.name("wind_speed").value(value.windSpeed)
+        writer.name("wind_deg").value(value.windDeg)
+        writer.name("wind_gust").value(value.windGust)
+        writer.name("weather")
+        writeList(writer, value.weather, ::writeWeather)
+        writer.endObject()
+    }
+
+    @JvmStatic
+    fun writeHourlyWeather(writer: JsonWriter, value: HourlyWeather) {
+        writer.beginObject()
+        writer.name("dt").value(value.dt)
+        writer.name("temp").value(value.temp)
+        writer.name("feels_like").value(value.feelsLike)
+        writer.name("pressure").value(value.pressure.toLong())
+        writer.name("humidity").value(value.humidity.toLong())
+        writer.name("dew_point").value(value.dewPoint)
+        writer.name("uvi").value(value.uvi)
+        writer.name("clouds").value(value.clouds.toLong())
+        writer.name("visibility").value(value.visibility.toLong())
+        writer.name("wind_speed").value(value.windSpeed)
+        writer.name("wind_deg").value(value.windDeg)
+        writer.name("wind_gust").value(value.windGust)
+        writer.name("weather")
+        writeList(writer, value.weather, ::writeWeather)
+        writer.name("pop").value(value.pop)
+        writer.endObject()
+    }
+
+    @JvmStatic
+    fun writeDailyWeather(writer: JsonWriter, value: DailyWeather) {
+        writer.beginObject()
+        writer.name("dt").value(value.dt)
+        writer.name("sunrise").value(value.sunrise)
+        writer.name("sunset").value(value.sunset)
+        writer.name("moonrise").value(value.moonrise)
+        writer.name("moonset").value(value.moonset)
+        writer.name("moon_phase").value(value.moonPhase)
+        writer.name("summary").value(value.summary)
+        writer.name("temp")
+        writeDailyTemperature(writer, value.temp)
+        writer.name("feels_like")
+        writeDailyFeelsLike(writer, value.feelsLike)
+        writer.name("pressure").value(value.pressure.toLong())
+        writer.name("humidity").value(value.humidity.toLong())
+        writer.name("dew_point").value(value.dewPoint)
+        writer.name("wind_speed").value(value.windSpeed)
+        writer.name("wind_deg").value(value.windDeg)
+        writer.name("wind_gust").value(value.windGust)
+        writer.name("weather")
+        writeList(writer, value.weather, ::writeWeather)
+        writer.name("clouds").value(value.clouds.toLong())
+        writer.name("pop").value(value.pop)
+        writer.name("uvi").value(value.uvi)
+        writer.endObject()
+    }
+
+    @JvmStatic
+    fun writeDailyTemperature(writer: JsonWriter, value: DailyTemperature) {
+        writer.beginObject()
+        writer.name("day").value(value.day)
+        writer.name("min").value(value.min)
+        writer.name("max").value(value.max)
+        writer.name("night").value(value.night)
+        writer.name("eve").value(value.eve)
+        writer.name("morn").value(value.morn)
+        writer.endObject()
+    }
+
+    @JvmStatic
+    fun writeDailyFeelsLike(writer: JsonWriter, value: DailyFeelsLike) {
+        writer.beginObject()
+        writer.name("day").value(value.day)
+        writer.name("night").value(value.night)
+        writer.name("eve").value(value.eve)
+        writer.name("morn").value(value.morn)
+        writer.endObject()
+    }
+
+    @JvmStatic
+    fun writeWeather(writer: JsonWriter, value: Weather) {
+        writer.beginObject()
+        writer.name("id").value(value.id.toLong())
+        writer.name("main").value(value.main)
+        writer.name("description").value(value.description)
+        writer.name("icon").value(value.icon)
+        writer.endObject()
+    }
+
+    @JvmStatic
+    fun <T> writeList(writer: JsonWriter, items: List<T>, writeItem: (JsonWriter, T) -> Unit) {
+        writer.beginArray()
+        for (item in items) {
+            writeItem(writer, item)
+        }
+        writer.endArray()
+    }
+
+    /**
+     * Forecast sections still held as raw JSON are copied through without decoding them
+     */
+    private fun <T> writeSection(writer: JsonWriter, items: List<T>, writeItem: (JsonWriter, T) -> Unit) {
+        if (items is LazyJsonList<T>) {
+            items.writeTo(writer, writeItem)
+        } else {
+            writeList(writer, items, writeItem)
+        }
+    }
+}
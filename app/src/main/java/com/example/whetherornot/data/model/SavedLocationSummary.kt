@@ -0,0 +1,13 @@
+package com.example.whetherornot.data.model
+
+/**
+ * The few saved location columns the zip dropdowns need
+ * Read straight from saved_locations as a projection, so dropdown queries skip the rest of the row.
+ */
+data class SavedLocationSummary(
+    val zip: String,
+    val name: String,
+    val lat: Double,
+    val lon: Double,
+    val isFavorite: Boolean
+)
@@ -0,0 +1,51 @@
+package com.example.whetherornot.data.model
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Canonical [Weather] instances keyed by OpenWeather condition id plus day/night icon variant
+ * There are only a few dozen conditions, so every forecast entry for every location can
+ * share one immutable instance instead of carrying its own copies of the same strings.
+ * Equal conditions resolved through here are the same reference.
+ */
+object WeatherConditionRegistry {
+
+    // OpenWeather defines ~55 condition ids, each with a day and a night icon
+    private const val MAX_ENTRIES = 256
+
+    private val conditions = ConcurrentHashMap<Long, Weather>()
+
+    /**
+     * Return the shared instance for this condition, registering it on first sight
+     * A condition whose wording differs from the registered one (e.g. another language)
+     * is returned as a new, unshared instance.
+     */
+    @JvmStatic
+    fun intern(id: Int, main: String, description: String, icon: String): Weather {
+        val key = keyOf(id, icon)
+        conditions[key]?.let { existing ->
+            return if (existing.matches(main, description, icon)) existing else Weather(id, main, description, icon)
+        }
+
+        val created = Weather(id, main, description, icon)
+        if (conditions.size >= MAX_ENTRIES) {
+            return created
+        }
+        val winner = conditions.putIfAbsent(key, created) ?: return created
+        return if (winner.matches(main, description, icon)) winner else created
+    }
+
+    @JvmStatic
+    fun intern(weather: Weather): Weather =
+        intern(weather.id, weather.main, weather.description, weather.icon)
+
+    fun size(): Int = conditions.size
+
+    private fun keyOf(id: Int, icon: String): Long {
+        val night = if (icon.endsWith("n")) 1L else 0L
+        return (id.toLong() shl 1) or night
+    }
+
+    private fun Weather.matches(main: String, description: String, icon: String): Boolean =
+        this.main == main && this.description == description && this.icon == icon
+}
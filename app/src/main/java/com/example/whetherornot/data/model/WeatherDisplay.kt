@@ -0,0 +1,220 @@
+package com.example.whetherornot.data.model
+
+import com.example.whetherornot.utils.WeatherFormatters
+import java.util.Locale
+import kotlin.math.abs
+
+/**
+ * Every user-visible string for a One Call snapshot, formatted once off the main thread
+ * Composables only bind these values; nothing is formatted during composition.
+ * Dates and times are shown in the location's own timezone.
+ */
+data class WeatherDisplay(
+    val current: CurrentWeatherDisplay?,
+    val hourlyOutlook: String?,
+    val daily: List<DailyWeatherDisplay>
+) {
+    companion object {
+        @JvmStatic
+        @JvmOverloads
+        fun from(response: WeatherResponse, locale: Locale = Locale.getDefault()): WeatherDisplay =
+            from(
+                response,
+                response.hourly?.let { HourlySeries.from(it) },
+                response.daily?.let { DailySeries.from(it) },
+                locale
+            )
+
+        /**
+         * Format straight from forecast columns, without materializing per-entry objects
+         * @param header Location and current conditions; its forecast lists are ignored
+         */
+        @JvmStatic
+        @JvmOverloads
+        fun from(
+            header: WeatherResponse,
+            hourly: HourlySeries?,
+            daily: DailySeries?,
+            locale: Locale = Locale.getDefault()
+        ): WeatherDisplay {
+            val formatter = DisplayFormatter(header.timezoneOffset, locale)
+            return WeatherDisplay(
+                current = header.current?.let { formatter.current(it) },
+                hourlyOutlook = hourly?.takeIf { it.size > 0 }?.let { formatter.hourlyOutlook(it) },
+                daily = daily?.let { series -> List(series.size) { formatter.daily(series, it) } } ?: emptyList()
+            )
+        }
+    }
+}
+
+data class CurrentWeatherDisplay(
+    val dayName: String,
+    val shortDate: String,
+    val fullDate: String,
+    val iconCode: String?,
+    val description: String?,
+    val temperature: String,
+    val feelsLike: String,
+    val windSummary: String,
+    val windSpeed: String,
+    val windDegrees: Float,
+    val windGust: String?,
+    val humidity: String,
+    val pressure: String,
+    val visibility: String,
+    val uvIndex: String,
+    val dewPoint: String,
+    val cloudCover: String,
+    val sunrise: String,
+    val sunset: String
+)
+
+data class DailyWeatherDisplay(
+    val shortDayName: String,
+    val shortDate: String,
+    val fullDate: String,
+    val iconCode: String?,
+    val description: String?,
+    val summary: String?,
+    val high: String,
+    val low: String,
+    val highWithUnit: String,
+    val lowWithUnit: String,
+    val morning: String,
+    val day: String,
+    val evening: String,
+    val night: String,
+    val feelsLikeMorning: String,
+    val feelsLikeDay: String,
+    val feelsLikeEvening: String,
+    val feelsLikeNight: String,
+    val windSpeedValue: String,
+    val windSpeed: String,
+    val windDegrees: Float,
+    val windGust: String?,
+    val humidity: String,
+    val pressure: String,
+    val uvIndex: String,
+    val dewPoint: String,
+    val cloudCover: String,
+    val chanceOfRain: String,
+    val moonPhase: String,
+    val sunrise: String,
+    val sunset: String,
+    val moonrise: String,
+    val moonset: String
+)
+
+/**
+ * Saved location with its card text preformatted
+ */
+data class SavedLocationDisplay(
+    val location: ZipCodeResponse,
+    val coordinates: String,
+    val lastSearched: String
+) {
+    companion object {
+        @JvmStatic
+        @JvmOverloads
+        fun from(location: ZipCodeResponse, locale: Locale = Locale.getDefault()): SavedLocationDisplay =
+            SavedLocationDisplay(
+                location = location,
+                coordinates = "${location.country} • " +
+                        String.format(locale, "%.4f°N, %.4f°W", location.lat, abs(location.lon)),
+                lastSearched = "Last searched: " +
+                        WeatherFormatters.formatLocalMillis(location.searchedAt, WeatherFormatters.DATE_TIME, locale)
+            )
+    }
+}
+
+/**
+ * Formatting rules for one snapshot; imperial units, matching the API request
+ */
+private class DisplayFormatter(private val offsetSeconds: Int, private val locale: Locale) {
+
+    fun current(weather: CurrentWeather): CurrentWeatherDisplay {
+        val condition = weather.weather.firstOrNull()
+        return CurrentWeatherDisplay(
+            dayName = date(weather.dt, WeatherFormatters.DAY_NAME),
+            shortDate = date(weather.dt, WeatherFormatters.SHORT_DATE),
+            fullDate = date(weather.dt, WeatherFormatters.FULL_DATE),
+            iconCode = condition?.icon,
+            description = condition?.description?.let { capitalize(it) },
+            temperature = fahrenheit(weather.temp),
+            feelsLike = "Feels like ${fahrenheit(weather.feelsLike)}",
+            windSummary = "Wind: ${mph(weather.windSpeed)} ",
+            windSpeed = mph(weather.windSpeed),
+            windDegrees = weather.windDeg.toFloat(),
+            windGust = weather.windGust?.let { mph(it) },
+            humidity = "${weather.humidity}%",
+            pressure = "${weather.pressure} hPa",
+            visibility = "${(weather.visibility / METERS_PER_MILE).toInt()} miles",
+            uvIndex = "${weather.uvi}",
+            dewPoint = fahrenheit(weather.dewPoint),
+            cloudCover = "${weather.clouds}%",
+            sunrise = date(weather.sunrise, WeatherFormatters.TIME),
+            sunset = date(weather.sunset, WeatherFormatters.TIME)
+        )
+    }
+
+    /**
+     * One line over the whole hourly series, e.g. "Next 48 hours: 38°F to 52°F, 40% chance of rain"
+     */
+    fun hourlyOutlook(series: HourlySeries): String =
+        "Next ${series.size} hours: ${fahrenheit(series.minTemp())} to ${fahrenheit(series.maxTemp())}, " +
+                "${(series.maxPop() * 100).toInt()}% chance of rain"
+
+    fun daily(series: DailySeries, index: Int): DailyWeatherDisplay {
+        val condition = series.condition(index)
+        val dt = series.dt(index)
+        return DailyWeatherDisplay(
+            shortDayName = date(dt, WeatherFormatters.SHORT_DAY_NAME),
+            shortDate = date(dt, WeatherFormatters.SHORT_DATE),
+            fullDate = date(dt, WeatherFormatters.FULL_DATE),
+            iconCode = condition?.icon,
+            description = condition?.description?.let { capitalize(it) },
+            summary = series.summary(index),
+            high = "${series.tempMax(index).toInt()}°",
+            low = "${series.tempMin(index).toInt()}°",
+            highWithUnit = fahrenheit(series.tempMax(index)),
+            lowWithUnit = fahrenheit(series.tempMin(index)),
+            morning = fahrenheit(series.tempMorn(index)),
+            day = fahrenheit(series.tempDay(index)),
+            evening = fahrenheit(series.tempEve(index)),
+            night = fahrenheit(series.tempNight(index)),
+            feelsLikeMorning = fahrenheit(series.feelsLikeMorn(index)),
+            feelsLikeDay = fahrenheit(series.feelsLikeDay(index)),
+            feelsLikeEvening = fahrenheit(series.feelsLikeEve(index)),
+            feelsLikeNight = fahrenheit(series.feelsLikeNight(index)),
+            windSpeedValue = "${series.windSpeed(index).toInt()}",
+            windSpeed = mph(series.windSpeed(index)),
+            windDegrees = series.windDeg(index).toFloat(),
+            windGust = series.windGust(index)?.let { mph(it) },
+            humidity = "${series.humidity(index)}%",
+            pressure = "${series.pressure(index)} hPa",
+            uvIndex = "${series.uvi(index)}",
+            dewPoint = fahrenheit(series.dewPoint(index)),
+            cloudCover = "${series.clouds(index)}%",
+            chanceOfRain = "${(series.pop(index) * 100).toInt()}%",
+            moonPhase = "${(series.moonPhase(index) * 100).toInt()}%",
+            sunrise = date(series.sunrise(index), WeatherFormatters.TIME),
+            sunset = date(series.sunset(index), WeatherFormatters.TIME),
+            moonrise = date(series.moonrise(index), WeatherFormatters.TIME),
+            moonset = date(series.moonset(index), WeatherFormatters.TIME)
+        )
+    }
+
+    private fun date(epochSeconds: Long, pattern: String): String =
+        WeatherFormatters.formatEpochSeconds(epochSeconds, pattern, offsetSeconds, locale)
+
+    private fun fahrenheit(value: Double): String = "${value.toInt()}°F"
+
+    private fun mph(value: Double): String = "${value.toInt()} mph"
+
+    private fun capitalize(text: String): String =
+        text.replaceFirstChar { if (it.isLowerCase()) it.titlecase(locale) else it.toString() }
+
+    private companion object {
+        const val METERS_PER_MILE = 1609.344
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.whetherornot.data.model
+
+import com.example.whetherornot.data.json.WeatherJsonSource
+
+/**
+ * A One Call response together with the JSON it was decoded from
+ * @param response Decoded payload
+ * @param source Original JSON, or null when the payload did not come straight from the API,
+ * e.g. when it was restored from a stored binary snapshot
+ */
+class WeatherPayload(
+    val response: WeatherResponse,
+    val source: WeatherJsonSource?
+)
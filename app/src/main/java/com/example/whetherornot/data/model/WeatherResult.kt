@@ -0,0 +1,32 @@
+package com.example.whetherornot.data.model
+
+import com.example.whetherornot.data.cache.WeatherBinaryCodec
+import com.example.whetherornot.data.json.WeatherJson
+import com.example.whetherornot.data.json.WeatherJsonSource
+
+/**
+ * Parsed weather data handed to the UI
+ * Built once off the main thread; composables read fields from [response] instead of
+ * re-parsing JSON on every recomposition.
+ * @param response Parsed One Call data
+ * @param display User-visible strings for [response], formatted at the same time
+ * @param source JSON [response] was decoded from, if it is still at hand
+ */
+data class WeatherResult @JvmOverloads constructor(
+    val response: WeatherResponse,
+    val display: WeatherDisplay,
+    val source: WeatherJsonSource? = null
+) {
+    /**
+     * JSON for the raw data view, only produced once something asks for it
+     * The original payload when there is one, otherwise [response] re-serialized.
+     */
+    val jsonBytes: ByteArray by lazy { source?.toByteArray() ?: WeatherJson.toJsonBytes(response) }
+
+    val json: String by lazy { String(jsonBytes, Charsets.UTF_8) }
+
+    /**
+     * [response] in [WeatherBinaryCodec] form, encoded once for every store it is written to
+     */
+    val binary: ByteArray by lazy { WeatherBinaryCodec.encode(response) }
+}
@@ -0,0 +1,293 @@
+package com.example.whetherornot.data.model
+
+import java.util.BitSet
+
+/**
+ * Weather conditions for every entry of a series, stored as references into a table
+ * Entry i owns refs[offsets[i] until offsets[i + 1]]; identical conditions share one
+ * [Weather] instance in [table], taken from [WeatherConditionRegistry].
+ */
+class ConditionColumn private constructor(
+    private val table: Array<Weather>,
+    private val offsets: IntArray,
+    private val refs: IntArray
+) {
+
+    companion object {
+        @JvmStatic
+        fun from(entries: List<List<Weather>>): ConditionColumn {
+            val indices = LinkedHashMap<Weather, Int>()
+            val offsets = IntArray(entries.size + 1)
+            val refs = IntArray(entries.sumOf { it.size })
+            var next = 0
+            entries.forEachIndexed { i, conditions ->
+                offsets[i] = next
+                for (condition in conditions) {
+                    refs[next++] = indices.getOrPut(condition) { indices.size }
+                }
+            }
+            offsets[entries.size] = next
+            val table = indices.keys.map { WeatherConditionRegistry.intern(it) }.toTypedArray()
+            return ConditionColumn(table, offsets, refs)
+        }
+    }
+
+    /**
+     * OpenWeather condition code of the primary condition, or 0 if there is none
+     */
+    fun primaryCode(index: Int): Int = primary(index)?.id ?: 0
+
+    fun primary(index: Int): Weather? =
+        if (offsets[index] == offsets[index + 1]) null else table[refs[offsets[index]]]
+
+    fun conditionsAt(index: Int): List<Weather> =
+        (offsets[index] until offsets[index + 1]).map { table[refs[it]] }
+}
+
+/**
+ * Columnar hourly forecast: one primitive array per metric instead of one object per hour
+ * Index-based accessors read straight from the arrays; [get] and [toList] materialize
+ * [HourlyWeather] objects only when a caller really needs them.
+ */
+class HourlySeries private constructor(
+    val size: Int,
+    private val dt: LongArray,
+    private val temp: DoubleArray,
+    private val feelsLike: DoubleArray,
+    private val pressure: IntArray,
+    private val humidity: IntArray,
+    private val dewPoint: DoubleArray,
+    private val uvi: DoubleArray,
+    private val clouds: IntArray,
+    private val visibility: IntArray,
+    private val windSpeed: DoubleArray,
+    private val windDeg: DoubleArray,
+    private val windGust: DoubleArray,
+    private val hasWindGust: BitSet,
+    private val pop: DoubleArray,
+    private val conditions: ConditionColumn
+) {
+
+    companion object {
+        @JvmStatic
+        fun from(hours: List<HourlyWeather>): HourlySeries {
+            val size = hours.size
+            val windGust = DoubleArray(size)
+            val hasWindGust = BitSet(size)
+            hours.forEachIndexed { i, hour ->
+                hour.windGust?.let {
+                    windGust[i] = it
+                    hasWindGust.set(i)
+                }
+            }
+            return HourlySeries(
+                size = size,
+                dt = LongArray(size) { hours[it].dt },
+                temp = DoubleArray(size) { hours[it].temp },
+                feelsLike = DoubleArray(size) { hours[it].feelsLike },
+                pressure = IntArray(size) { hours[it].pressure },
+                humidity = IntArray(size) { hours[it].humidity },
+                dewPoint = DoubleArray(size) { hours[it].dewPoint },
+                uvi = DoubleArray(size) { hours[it].uvi },
+                clouds = IntArray(size) { hours[it].clouds },
+                visibility = IntArray(size) { hours[it].visibility },
+                windSpeed = DoubleArray(size) { hours[it].windSpeed },
+                windDeg = DoubleArray(size) { hours[it].windDeg },
+                windGust = windGust,
+                hasWindGust = hasWindGust,
+                pop = DoubleArray(size) { hours[it].pop },
+                conditions = ConditionColumn.from(hours.map { it.weather })
+            )
+        }
+    }
+
+    fun dt(index: Int): Long = dt[index]
+    fun temp(index: Int): Double = temp[index]
+    fun feelsLike(index: Int): Double = feelsLike[index]
+    fun pressure(index: Int): Int = pressure[index]
+    fun humidity(index: Int): Int = humidity[index]
+    fun dewPoint(index: Int): Double = dewPoint[index]
+    fun uvi(index: Int): Double = uvi[index]
+    fun clouds(index: Int): Int = clouds[index]
+    fun visibility(index: Int): Int = visibility[index]
+    fun windSpeed(index: Int): Double = windSpeed[index]
+    fun windDeg(index: Int): Double = windDeg[index]
+    fun windGust(index: Int): Double? = if (hasWindGust[index]) windGust[index] else null
+    fun pop(index: Int): Double = pop[index]
+    fun conditionCode(index: Int): Int = conditions.primaryCode(index)
+    fun condition(index: Int): Weather? = conditions.primary(index)
+
+    fun minTemp(): Double = temp.minOrNull() ?: Double.NaN
+    fun maxTemp(): Double = temp.maxOrNull() ?: Double.NaN
+    fun maxPop(): Double = pop.maxOrNull() ?: 0.0
+
+    operator fun get(index: Int): HourlyWeather = HourlyWeather(
+        dt = dt[index],
+        temp = temp[index],
+        feelsLike = feelsLike[index],
+        pressure = pressure[index],
+        humidity = humidity[index],
+        dewPoint = dewPoint[index],
+        uvi = uvi[index],
+        clouds = clouds[index],
+        visibility = visibility[index],
+        windSpeed = windSpeed[index],
+        windDeg = windDeg[index],
+        windGust = windGust(index),
+        weather = conditions.conditionsAt(index),
+        pop = pop[index]
+    )
+
+    fun toList(): List<HourlyWeather> = List(size) { get(it) }
+}
+
+/**
+ * Columnar daily forecast, the [DailyWeather] counterpart of [HourlySeries]
+ * The nested temperature and feels-like objects are flattened into one array per field.
+ */
+class DailySeries private constructor(
+    val size: Int,
+    private val dt: LongArray,
+    private val sunrise: LongArray,
+    private val sunset: LongArray,
+    private val moonrise: LongArray,
+    private val moonset: LongArray,
+    private val moonPhase: DoubleArray,
+    private val summary: Array<String?>,
+    private val tempDay: DoubleArray,
+    private val tempMin: DoubleArray,
+    private val tempMax: DoubleArray,
+    private val tempNight: DoubleArray,
+    private val tempEve: DoubleArray,
+    private val tempMorn: DoubleArray,
+    private val feelsLikeDay: DoubleArray,
+    private val feelsLikeNight: DoubleArray,
+    private val feelsLikeEve: DoubleArray,
+    private val feelsLikeMorn: DoubleArray,
+    private val pressure: IntArray,
+    private val humidity: IntArray,
+    private val dewPoint: DoubleArray,
+    private val windSpeed: DoubleArray,
+    private val windDeg: DoubleArray,
+    private val windGust: DoubleArray,
+    private val hasWindGust: BitSet,
+    private val conditions: ConditionColumn,
+    private val clouds: IntArray,
+    private val pop: DoubleArray,
+    private val uvi: DoubleArray
+) {
+
+    companion object {
+        @JvmStatic
+        fun from(days: List<DailyWeather>): DailySeries {
+            val size = days.size
+            val windGust = DoubleArray(size)
+            val hasWindGust = BitSet(size)
+            days.forEachIndexed { i, day ->
+                day.windGust?.let {
+                    windGust[i] = it
+                    hasWindGust.set(i)
+                }
+            }
+            return DailySeries(
+                size = size,
+                dt = LongArray(size) { days[it].dt },
+                sunrise = LongArray(size) { days[it].sunrise },
+                sunset = LongArray(size) { days[it].sunset },
+                moonrise = LongArray(size) { days[it].moonrise },
+                moonset = LongArray(size) { days[it].moonset },
+                moonPhase = DoubleArray(size) { days[it].moonPhase },
+                summary = Array(size) { days[it].summary },
+                tempDay = DoubleArray(size) { days[it].temp.day },
+                tempMin = DoubleArray(size) { days[it].temp.min },
+                tempMax = DoubleArray(size) { days[it].temp.max },
+                tempNight = DoubleArray(size) { days[it].temp.night },
+                tempEve = DoubleArray(size) { days[it].temp.eve },
+                tempMorn = DoubleArray(size) { days[it].temp.morn },
+                feelsLikeDay = DoubleArray(size) { days[it].feelsLike.day },
+                feelsLikeNight = DoubleArray(size) { days[it].feelsLike.night },
+                feelsLikeEve = DoubleArray(size) { days[it].feelsLike.eve },
+                feelsLikeMorn = DoubleArray(size) { days[it].feelsLike.morn },
+                pressure = IntArray(size) { days[it].pressure },
+                humidity = IntArray(size) { days[it].humidity },
+                dewPoint = DoubleArray(size) { days[it].dewPoint },
+                windSpeed = DoubleArray(size) { days[it].windSpeed },
+                windDeg = DoubleArray(size) { days[it].windDeg },
+                windGust = windGust,
+                hasWindGust = hasWindGust,
+                conditions = ConditionColumn.from(days.map { it.weather }),
+                clouds = IntArray(size) { days[it].clouds },
+                pop = DoubleArray(size) { days[it].pop },
+                uvi = DoubleArray(size) { days[it].uvi }
+            )
+        }
+    }
+
+    fun dt(index: Int): Long = dt[index]
+    fun sunrise(index: Int): Long = sunrise[index]
+    fun sunset(index: Int): Long = sunset[index]
+    fun moonrise(index: Int): Long = moonrise[index]
+    fun moonset(index: Int): Long = moonset[index]
+    fun moonPhase(index: Int): Double = moonPhase[index]
+    fun summary(index: Int): String? = summary[index]
+    fun tempMin(index: Int): Double = tempMin[index]
+    fun tempMax(index: Int): Double = tempMax[index]
+    fun tempDay(index: Int): Double = tempDay[index]
+    fun tempNight(index: Int): Double = tempNight[index]
+    fun tempEve(index: Int): Double = tempEve[index]
+    fun tempMorn(index: Int): Double = tempMorn[index]
+    fun feelsLikeDay(index: Int): Double = feelsLikeDay[index]
+    fun feelsLikeNight(index: Int): Double = feelsLikeNight[index]
+    fun feelsLikeEve(index: Int): Double = feelsLikeEve[index]
+    fun feelsLikeMorn(index: Int): Double = feelsLikeMorn[index]
+    fun pressure(index: Int): Int = pressure[index]
+    fun humidity(index: Int): Int = humidity[index]
+    fun dewPoint(index: Int): Double = dewPoint[index]
+    fun clouds(index: Int): Int = clouds[index]
+    fun windSpeed(index: Int): Double = windSpeed[index]
+    fun windDeg(index: Int): Double = windDeg[index]
+    fun windGust(index: Int): Double? = if (hasWindGust[index]) windGust[index] else null
+    fun pop(index: Int): Double = pop[index]
+    fun uvi(index: Int): Double = uvi[index]
+    fun conditionCode(index: Int): Int = conditions.primaryCode(index)
+    fun condition(index: Int): Weather? = conditions.primary(index)
+
+    fun minTemp(): Double = tempMin.minOrNull() ?: Double.NaN
+    fun maxTemp(): Double = tempMax.maxOrNull() ?: Double.NaN
+
+    operator fun get(index: Int): DailyWeather = DailyWeather(
+        dt = dt[index],
+        sunrise = sunrise[index],
+        sunset = sunset[index],
+        moonrise = moonrise[index],
+        moonset = moonset[index],
+        moonPhase = moonPhase[index],
+        summary = summary[index],
+        temp = DailyTemperature(
+            day = tempDay[index],
+            min = tempMin[index],
+            max = tempMax[index],
+            night = tempNight[index],
+            eve = tempEve[index],
+            morn = tempMorn[index]
+        ),
+        feelsLike = DailyFeelsLike(
+            day = feelsLikeDay[index],
+            night = feelsLikeNight[index],
+            eve = feelsLikeEve[index],
+            morn = feelsLikeMorn[index]
+        ),
+        pressure = pressure[index],
+        humidity = humidity[index],
+        dewPoint = dewPoint[index],
+        windSpeed = windSpeed[index],
+        windDeg = windDeg[index],
+        windGust = windGust(index),
+        weather = conditions.conditionsAt(index),
+        clouds = clouds[index],
+        pop = pop[index],
+        uvi = uvi[index]
+    )
+
+    fun toList(): List<DailyWeather> = List(size) { get(it) }
+}
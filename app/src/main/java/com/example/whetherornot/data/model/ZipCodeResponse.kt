@@ -1,14 +1,22 @@
 package com.example.whetherornot.data.model
 
 import androidx.room.Entity
+import androidx.room.Index
 import androidx.room.PrimaryKey
 import com.google.gson.annotations.SerializedName
 
 /**
  * Data model for OpenWeatherMap Geocoding API zip code response
  * Represents the JSON response from http://api.openweathermap.org/geo/1.0/zip
+ * Indexed for the recent-first list and the favorites list; zip lookups use the primary key.
  */
-@Entity(tableName = "saved_locations")
+@Entity(
+    tableName = "saved_locations",
+    indices = [
+        Index(value = ["searchedAt"]),
+        Index(value = ["isFavorite", "name"])
+    ]
+)
 data class ZipCodeResponse(
     @PrimaryKey
     @SerializedName("zip")
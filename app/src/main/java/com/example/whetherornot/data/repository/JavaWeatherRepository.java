@@ -1,16 +1,24 @@
 package com.example.whetherornot.data.repository;
 
+import com.example.whetherornot.data.api.NetworkModule;
+import com.example.whetherornot.data.api.RequestPriority;
 import com.example.whetherornot.data.api.WeatherApiService;
+import com.example.whetherornot.data.api.WeatherSection;
+import com.example.whetherornot.data.cache.WeatherSnapshotCache;
+import com.example.whetherornot.data.model.WeatherPayload;
 import com.example.whetherornot.data.model.WeatherResponse;
+import com.example.whetherornot.data.model.WeatherResult;
 import com.example.whetherornot.data.model.ZipCodeResponse;
-import com.google.gson.Gson;
-import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
+import android.os.Handler;
+import android.os.Looper;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 /**
  * Repository class for handling weather data operations in Java
@@ -18,35 +26,29 @@ import retrofit2.converter.gson.GsonConverterFactory;
  */
 public class JavaWeatherRepository {
 
+    private static final String UNITS = "imperial";
+
+    // Formats responses for display off the main thread
+    private static final Executor serializationExecutor = Executors.newSingleThreadExecutor();
+
     private final WeatherApiService apiService;
-    private final Gson gson;
+    private final WeatherSnapshotCache snapshotCache;
+    private final Executor callbackExecutor;
 
     public JavaWeatherRepository() {
-        try {
-            // Setup HTTP logging interceptor for debugging
-            HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-
-            // Configure OkHttp client with timeouts
-            OkHttpClient httpClient = new OkHttpClient.Builder()
-                    .addInterceptor(loggingInterceptor)
-                    .connectTimeout(30, java.util.concurrent.TimeUnit.SECONDS)
-                    .readTimeout(30, java.util.concurrent.TimeUnit.SECONDS)
-                    .writeTimeout(30, java.util.concurrent.TimeUnit.SECONDS)
-                    .build();
-
-            // Setup Retrofit
-            Retrofit retrofit = new Retrofit.Builder()
-                    .baseUrl(WeatherApiService.BASE_URL)
-                    .client(httpClient)
-                    .addConverterFactory(GsonConverterFactory.create())
-                    .build();
-
-            apiService = retrofit.create(WeatherApiService.class);
-            gson = new Gson();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to initialize weather repository: " + e.getMessage(), e);
-        }
+        this(NetworkModule.getWeatherApiService(), WeatherSnapshotCache.getShared());
+    }
+
+    /**
+     * @param apiService API service to use, normally the app-wide instance from NetworkModule
+     * @param snapshotCache Nearby/recent One Call snapshots reused instead of refetching
+     */
+    public JavaWeatherRepository(WeatherApiService apiService, WeatherSnapshotCache snapshotCache) {
+        this.apiService = apiService;
+        this.snapshotCache = snapshotCache;
+        // Callbacks are always delivered on the main thread, even when joining a Kotlin-started call
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        this.callbackExecutor = mainHandler::post;
     }
 
     /**
@@ -65,6 +67,14 @@ public class JavaWeatherRepository {
         void onError(String errorMessage);
     }
 
+    /**
+     * Interface for parsed weather callbacks
+     */
+    public interface WeatherResultCallback {
+        void onSuccess(WeatherResult weatherResult);
+        void onError(String errorMessage);
+    }
+
     /**
      * Interface for coordinates callbacks
      */
@@ -74,11 +84,10 @@ public class JavaWeatherRepository {
     }
 
     /**
-     * Interface for location and weather callbacks
+     * Interface for current location callbacks
      */
-    public interface LocationWeatherCallback {
+    public interface LocationCallback {
         void onLocationReceived(double latitude, double longitude, String locationName);
-        void onWeatherSuccess(String jsonData);
         void onError(String errorMessage);
     }
 
@@ -89,54 +98,80 @@ public class JavaWeatherRepository {
      * @param callback Callback to handle response
      */
     public void getWeatherData(double latitude, double longitude, WeatherDataCallback callback) {
-        Call<WeatherResponse> call = apiService.getWeatherDataCall(latitude, longitude, "minutely,alerts",
-                WeatherApiService.API_KEY, "imperial");
+        getWeatherData(latitude, longitude, WeatherSection.DEFAULT, RequestPriority.USER, callback);
+    }
 
-        call.enqueue(new Callback<WeatherResponse>() {
+    /**
+     * Fetch only the given sections of the weather data
+     * @param latitude Latitude coordinate
+     * @param longitude Longitude coordinate
+     * @param sections Sections the caller renders; everything else is excluded from the request
+     * @param priority Quota priority; background calls are refused first when the budget is tight
+     * @param callback Callback to handle response
+     */
+    public void getWeatherData(double latitude, double longitude, Set<WeatherSection> sections,
+                               RequestPriority priority, WeatherDataCallback callback) {
+        fetchWeather(latitude, longitude, sections, priority, new RequestCoalescer.Completion<WeatherSnapshotCache.Snapshot>() {
             @Override
-            public void onResponse(Call<WeatherResponse> call, Response<WeatherResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    callback.onSuccess(response.body());
-                } else {
-                    callback.onError("API call failed: " + response.code() + " - " + response.message());
-                }
+            public void onSuccess(WeatherSnapshotCache.Snapshot snapshot) {
+                callback.onSuccess(snapshot.toResponse());
             }
 
             @Override
-            public void onFailure(Call<WeatherResponse> call, Throwable t) {
-                callback.onError("Network error: " + t.getMessage());
+            public void onError(Throwable error) {
+                callback.onError(error.getMessage());
             }
         });
     }
 
     /**
-     * Get raw JSON response as string for debugging purposes
+     * Fetch weather data parsed once for the UI, together with its display strings
+     * Formatting runs on a background thread; the callback is delivered on the main thread.
      * @param latitude Latitude coordinate
      * @param longitude Longitude coordinate
      * @param callback Callback to handle response
      */
-    public void getWeatherDataAsJson(double latitude, double longitude, JsonDataCallback callback) {
-        Call<WeatherResponse> call = apiService.getWeatherDataCall(latitude, longitude, "minutely,alerts",
-                WeatherApiService.API_KEY, "imperial");
-
-        call.enqueue(new Callback<WeatherResponse>() {
+    public void getWeatherResult(double latitude, double longitude, WeatherResultCallback callback) {
+        fetchWeather(latitude, longitude, WeatherSection.DEFAULT, RequestPriority.USER, new RequestCoalescer.Completion<WeatherSnapshotCache.Snapshot>() {
             @Override
-            public void onResponse(Call<WeatherResponse> call, Response<WeatherResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
+            public void onSuccess(WeatherSnapshotCache.Snapshot snapshot) {
+                serializationExecutor.execute(() -> {
                     try {
-                        String jsonString = gson.toJson(response.body());
-                        callback.onSuccess(jsonString);
+                        WeatherResult result = snapshot.toResult();
+                        callbackExecutor.execute(() -> callback.onSuccess(result));
                     } catch (Exception e) {
-                        callback.onError("JSON conversion error: " + e.getMessage());
+                        callbackExecutor.execute(() -> callback.onError("Formatting error: " + e.getMessage()));
                     }
-                } else {
-                    callback.onError("API call failed: " + response.code() + " - " + response.message());
-                }
+                });
             }
 
             @Override
-            public void onFailure(Call<WeatherResponse> call, Throwable t) {
-                callback.onError("Network error: " + t.getMessage());
+            public void onError(Throwable error) {
+                callback.onError(error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Get raw JSON response as string for debugging purposes
+     * @param latitude Latitude coordinate
+     * @param longitude Longitude coordinate
+     * @param callback Callback to handle response
+     */
+    public void getWeatherDataAsJson(double latitude, double longitude, JsonDataCallback callback) {
+        getWeatherResult(latitude, longitude, new WeatherResultCallback() {
+            @Override
+            public void onSuccess(WeatherResult weatherResult) {
+                // Produce the JSON off the main thread; it is not built eagerly any more
+                serializationExecutor.execute(() -> {
+                    String json = weatherResult.getJson();
+                    callbackExecutor.execute(() -> callback.onSuccess(json));
+                });
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                callback.onError(errorMessage);
             }
         });
     }
@@ -148,34 +183,138 @@ public class JavaWeatherRepository {
      * @param callback Callback to handle response
      */
     public void getCoordinatesFromZip(String zipCode, String countryCode, CoordinatesCallback callback) {
-        String zipQuery = zipCode + "," + countryCode;
-        Call<ZipCodeResponse> call = apiService.getCoordinatesFromZipCall(zipQuery, WeatherApiService.API_KEY);
+        fetchZipLocation(zipCode, countryCode, new RequestCoalescer.Completion<ZipCodeResponse>() {
+            @Override
+            public void onSuccess(ZipCodeResponse zipResponse) {
+                callback.onSuccess(zipResponse.getLat(), zipResponse.getLon());
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                callback.onError(error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Resolve the requested sections from cache and network
+     * A cached snapshot close enough in distance and age is reused; if it lacks some
+     * sections only those are requested and merged into it. When the request fails
+     * (retries exhausted or circuit open) a stale snapshot is served if there is one.
+     */
+    private void fetchWeather(double latitude, double longitude, Set<WeatherSection> sections,
+                              RequestPriority priority, RequestCoalescer.Completion<WeatherSnapshotCache.Snapshot> completion) {
+        WeatherSnapshotCache.Snapshot cached = snapshotCache.find(latitude, longitude, UNITS);
+        if (cached != null && cached.getSections().containsAll(sections)) {
+            android.util.Log.d("JavaWeather", "Reusing cached snapshot " + cached.getKey()
+                    + " for lat=" + latitude + ", lon=" + longitude);
+            callbackExecutor.execute(() -> completion.onSuccess(cached));
+            return;
+        }
+
+        Set<WeatherSection> missing = EnumSet.noneOf(WeatherSection.class);
+        missing.addAll(sections);
+        if (cached != null) {
+            missing.removeAll(cached.getSections());
+        }
 
-        call.enqueue(new Callback<ZipCodeResponse>() {
+        requestSections(latitude, longitude, missing, priority, new RequestCoalescer.Completion<WeatherPayload>() {
             @Override
-            public void onResponse(Call<ZipCodeResponse> call, Response<ZipCodeResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ZipCodeResponse zipResponse = response.body();
-                    callback.onSuccess(zipResponse.getLat(), zipResponse.getLon());
-                } else {
-                    callback.onError("Geocoding API call failed: " + response.code() + " - " + response.message());
+            public void onSuccess(WeatherPayload fetched) {
+                if (cached == null) {
+                    completion.onSuccess(snapshotCache.put(latitude, longitude, UNITS, fetched, missing));
+                    return;
                 }
+
+                android.util.Log.d("JavaWeather", "Merging sections " + missing + " into cached snapshot " + cached.getKey());
+                WeatherPayload merged = WeatherSection.merge(cached.toPayload(), fetched, missing);
+                Set<WeatherSection> mergedSections = EnumSet.noneOf(WeatherSection.class);
+                mergedSections.addAll(cached.getSections());
+                mergedSections.addAll(missing);
+                completion.onSuccess(snapshotCache.put(latitude, longitude, UNITS, merged, mergedSections, cached.getFetchedAt()));
             }
 
             @Override
-            public void onFailure(Call<ZipCodeResponse> call, Throwable t) {
-                callback.onError("Geocoding network error: " + t.getMessage());
+            public void onError(Throwable error) {
+                // API unhealthy: serve an older snapshot rather than an error
+                WeatherSnapshotCache.Snapshot stale = snapshotCache.find(latitude, longitude, UNITS,
+                        WeatherSnapshotCache.ReusePolicy.STALE_FALLBACK);
+                if (stale != null && stale.getSections().containsAll(sections)) {
+                    android.util.Log.w("JavaWeather", "Serving stale snapshot " + stale.getKey()
+                            + " after error: " + error.getMessage());
+                    completion.onSuccess(stale);
+                    return;
+                }
+                completion.onError(error);
             }
         });
     }
 
+    /**
+     * One Call request for the given sections, shared with any identical call already in flight
+     */
+    private void requestSections(double latitude, double longitude, Set<WeatherSection> sections,
+                                 RequestPriority priority, RequestCoalescer.Completion<WeatherPayload> completion) {
+        String exclude = WeatherSection.excludeFor(sections);
+        String key = WeatherRequestCoalescing.weatherKey(latitude, longitude, exclude, UNITS, priority);
+        WeatherRequestCoalescing.getWeather().enqueue(key, callbackExecutor, completion, done -> {
+            Call<WeatherPayload> call = apiService.getWeatherDataCall(latitude, longitude, exclude,
+                    WeatherApiService.API_KEY, UNITS, priority);
+
+            call.enqueue(new Callback<WeatherPayload>() {
+                @Override
+                public void onResponse(Call<WeatherPayload> call, Response<WeatherPayload> response) {
+                    if (response.isSuccessful() && response.body() != null) {
+                        done.onSuccess(response.body());
+                    } else {
+                        done.onError(new Exception("API call failed: " + response.code() + " - " + response.message()));
+                    }
+                }
+
+                @Override
+                public void onFailure(Call<WeatherPayload> call, Throwable t) {
+                    done.onError(new IOException("Network error: " + t.getMessage(), t));
+                }
+            });
+        });
+    }
+
+    /**
+     * Zip geocoding request shared with any identical call already in flight
+     */
+    private void fetchZipLocation(String zipCode, String countryCode,
+                                  RequestCoalescer.Completion<ZipCodeResponse> completion) {
+        String key = WeatherRequestCoalescing.zipKey(zipCode, countryCode);
+        WeatherRequestCoalescing.getZipLocations().enqueue(key, callbackExecutor, completion, done -> {
+            String zipQuery = zipCode.trim() + "," + countryCode.trim();
+            Call<ZipCodeResponse> call = apiService.getCoordinatesFromZipCall(zipQuery, WeatherApiService.API_KEY,
+                    RequestPriority.USER);
+
+            call.enqueue(new Callback<ZipCodeResponse>() {
+                @Override
+                public void onResponse(Call<ZipCodeResponse> call, Response<ZipCodeResponse> response) {
+                    if (response.isSuccessful() && response.body() != null) {
+                        done.onSuccess(response.body());
+                    } else {
+                        done.onError(new Exception("Geocoding API call failed: " + response.code() + " - " + response.message()));
+                    }
+                }
+
+                @Override
+                public void onFailure(Call<ZipCodeResponse> call, Throwable t) {
+                    done.onError(new IOException("Geocoding network error: " + t.getMessage(), t));
+                }
+            });
+        });
+    }
+
     /**
      * Get weather data by zip code (combines geocoding and weather calls)
      * @param zipCode Zip code (e.g., "90210")
      * @param countryCode Country code (default: "US")
      * @param callback Callback to handle response
      */
-    public void getWeatherDataByZip(String zipCode, String countryCode, JsonDataCallback callback) {
+    public void getWeatherDataByZip(String zipCode, String countryCode, WeatherResultCallback callback) {
         android.util.Log.d("JavaWeather", "Getting coordinates for zip code: " + zipCode);
         // First get coordinates from zip code
         getCoordinatesFromZip(zipCode, countryCode, new CoordinatesCallback() {
@@ -184,7 +323,7 @@ public class JavaWeatherRepository {
                 android.util.Log.d("JavaWeather", "Got coordinates from zip " + zipCode + ": lat=" + latitude + ", lon=" + longitude);
                 // Then get weather data using those coordinates
                 android.util.Log.d("JavaWeather", "Calling weather API with coordinates: lat=" + latitude + ", lon=" + longitude);
-                getWeatherDataAsJson(latitude, longitude, callback);
+                getWeatherResult(latitude, longitude, callback);
             }
 
             @Override
@@ -205,16 +344,16 @@ public class JavaWeatherRepository {
     /**
      * Convenience method for US zip codes
      */
-    public void getWeatherDataByZip(String zipCode, JsonDataCallback callback) {
+    public void getWeatherDataByZip(String zipCode, WeatherResultCallback callback) {
         getWeatherDataByZip(zipCode, "US", callback);
     }
 
     /**
-     * Get current location and fetch weather data
-     * @param callback Callback to handle location and weather responses
+     * Get the current location; weather for it is loaded by the caller
+     * @param callback Callback to handle the location
      * @param context Android context for location services
      */
-    public void getCurrentLocationAndWeather(LocationWeatherCallback callback, android.content.Context context) {
+    public void getCurrentLocation(LocationCallback callback, android.content.Context context) {
         // Use the LocationManager to get current location
         com.example.whetherornot.utils.LocationManager locationManager =
             new com.example.whetherornot.utils.LocationManager(context);
@@ -246,21 +385,7 @@ public class JavaWeatherRepository {
                         String locationName = String.format("Current Location (%.4f°N, %.4f°W)",
                             latitude, Math.abs(longitude));
 
-                        // Notify about location
                         callback.onLocationReceived(latitude, longitude, locationName);
-
-                        // Now fetch weather data
-                        getWeatherDataAsJson(latitude, longitude, new JsonDataCallback() {
-                            @Override
-                            public void onSuccess(String jsonData) {
-                                callback.onWeatherSuccess(jsonData);
-                            }
-
-                            @Override
-                            public void onError(String errorMessage) {
-                                callback.onError(errorMessage);
-                            }
-                        });
                     } else {
                         callback.onError("Unable to get current location");
                     }
@@ -1,66 +1,51 @@
 package com.example.whetherornot.data.repository
 
+import com.example.whetherornot.data.api.NetworkModule
+import com.example.whetherornot.data.api.RequestPriority
 import com.example.whetherornot.data.api.WeatherApiService
+import com.example.whetherornot.data.api.WeatherSection
+import com.example.whetherornot.data.cache.WeatherSnapshotCache
+import com.example.whetherornot.data.model.WeatherPayload
 import com.example.whetherornot.data.model.WeatherResponse
+import com.example.whetherornot.data.model.WeatherResult
 import com.example.whetherornot.data.model.ZipCodeResponse
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
-import retrofit2.Retrofit
-import retrofit2.converter.gson.GsonConverterFactory
-import okhttp3.OkHttpClient
-import okhttp3.logging.HttpLoggingInterceptor
 import android.util.Log
 
 /**
  * Repository class for handling weather data operations in Kotlin
  * Follows Repository pattern for data abstraction
+ * @param apiService API service, defaults to the app-wide instance from [NetworkModule]
+ * @param snapshotCache Nearby/recent One Call snapshots reused instead of refetching
  */
-class KotlinWeatherRepository {
+class KotlinWeatherRepository(
+    private val apiService: WeatherApiService = NetworkModule.weatherApiService,
+    private val snapshotCache: WeatherSnapshotCache = WeatherSnapshotCache.shared
+) {
 
-    private val apiService: WeatherApiService
-
-    init {
-        // Setup HTTP logging interceptor for debugging
-        val loggingInterceptor = HttpLoggingInterceptor().apply {
-            level = HttpLoggingInterceptor.Level.BODY
-        }
-
-        // Configure OkHttp client
-        val httpClient = OkHttpClient.Builder()
-            .addInterceptor(loggingInterceptor)
-            .build()
-
-        // Setup Retrofit
-        val retrofit = Retrofit.Builder()
-            .baseUrl(WeatherApiService.BASE_URL)
-            .client(httpClient)
-            .addConverterFactory(GsonConverterFactory.create())
-            .build()
-
-        apiService = retrofit.create(WeatherApiService::class.java)
+    companion object {
+        private const val UNITS = "imperial"
     }
 
     /**
      * Fetch weather data from API
      * @param latitude Latitude coordinate
      * @param longitude Longitude coordinate
+     * @param sections Sections the caller renders; everything else is excluded from the request
+     * @param priority Quota priority; background calls are refused first when the budget is tight
      * @return Result containing weather data or error
      */
-    suspend fun getWeatherData(latitude: Double, longitude: Double): Result<WeatherResponse> {
+    suspend fun getWeatherData(
+        latitude: Double,
+        longitude: Double,
+        sections: Set<WeatherSection> = WeatherSection.DEFAULT,
+        priority: RequestPriority = RequestPriority.USER
+    ): Result<WeatherResponse> {
         return withContext(Dispatchers.IO) {
             try {
-                val response = apiService.getWeatherData(
-                    lat = latitude,
-                    lon = longitude,
-                    exclude = "minutely,alerts",
-                    appid = WeatherApiService.API_KEY,
-                    units = "imperial"
-                )
-                if (response.isSuccessful && response.body() != null) {
-                    Result.success(response.body()!!)
-                } else {
-                    Result.failure(Exception("API call failed: ${response.code()} - ${response.message()}"))
-                }
+                Result.success(fetchWeather(latitude, longitude, sections, priority).toResponse())
             } catch (e: Exception) {
                 Result.failure(e)
             }
@@ -68,32 +53,29 @@ class KotlinWeatherRepository {
     }
 
     /**
-     * Get raw JSON response as string for debugging purposes
+     * Fetch weather data parsed once for the UI, together with its display strings
+     * Parsing and formatting both happen here on the IO dispatcher, never in composition.
+     * The JSON for the raw data view is only produced when it is opened.
      */
-    suspend fun getWeatherDataAsJson(latitude: Double, longitude: Double): Result<String> {
+    suspend fun getWeatherResult(latitude: Double, longitude: Double): Result<WeatherResult> {
         return withContext(Dispatchers.IO) {
             try {
-                val response = apiService.getWeatherData(
-                    lat = latitude,
-                    lon = longitude,
-                    exclude = "minutely,alerts",
-                    appid = WeatherApiService.API_KEY,
-                    units = "imperial"
-                )
-                if (response.isSuccessful && response.body() != null) {
-                    // Convert response to JSON string
-                    val gson = com.google.gson.Gson()
-                    val jsonString = gson.toJson(response.body())
-                    Result.success(jsonString)
-                } else {
-                    Result.failure(Exception("API call failed: ${response.code()} - ${response.message()}"))
-                }
+                val snapshot = fetchWeather(latitude, longitude, WeatherSection.DEFAULT, RequestPriority.USER)
+                Result.success(snapshot.toResult())
             } catch (e: Exception) {
                 Result.failure(e)
             }
         }
     }
 
+    /**
+     * Get raw JSON response as string for debugging purposes
+     */
+    suspend fun getWeatherDataAsJson(latitude: Double, longitude: Double): Result<String> =
+        withContext(Dispatchers.IO) {
+            getWeatherResult(latitude, longitude).map { it.json }
+        }
+
     /**
      * Get coordinates from zip code using Geocoding API
      * @param zipCode Zip code (e.g., "90210")
@@ -103,17 +85,8 @@ class KotlinWeatherRepository {
     suspend fun getCoordinatesFromZip(zipCode: String, countryCode: String = "US"): Result<Pair<Double, Double>> {
         return withContext(Dispatchers.IO) {
             try {
-                val zipQuery = "$zipCode,$countryCode"
-                val response = apiService.getCoordinatesFromZip(
-                    zip = zipQuery,
-                    appid = WeatherApiService.API_KEY
-                )
-                if (response.isSuccessful && response.body() != null) {
-                    val zipCodeResponse = response.body()!!
-                    Result.success(Pair(zipCodeResponse.lat, zipCodeResponse.lon))
-                } else {
-                    Result.failure(Exception("Geocoding API call failed: ${response.code()} - ${response.message()}"))
-                }
+                val zipCodeResponse = fetchZipLocation(zipCode, countryCode)
+                Result.success(Pair(zipCodeResponse.lat, zipCodeResponse.lon))
             } catch (e: Exception) {
                 Result.failure(e)
             }
@@ -124,9 +97,9 @@ class KotlinWeatherRepository {
      * Get weather data by zip code (combines geocoding and weather calls)
      * @param zipCode Zip code (e.g., "90210")
      * @param countryCode Country code (default: "US")
-     * @return Result containing weather data JSON or error
+     * @return Result containing parsed weather data or error
      */
-    suspend fun getWeatherDataByZip(zipCode: String, countryCode: String = "US"): Result<String> {
+    suspend fun getWeatherDataByZip(zipCode: String, countryCode: String = "US"): Result<WeatherResult> {
         return try {
             // First get coordinates from zip code
             Log.d("KotlinWeather", "Getting coordinates for zip code: $zipCode")
@@ -136,7 +109,7 @@ class KotlinWeatherRepository {
                     Log.d("KotlinWeather", "Got coordinates from zip $zipCode: lat=$lat, lon=$lon")
                     // Then get weather data using those coordinates
                     Log.d("KotlinWeather", "Calling weather API with coordinates: lat=$lat, lon=$lon")
-                    getWeatherDataAsJson(lat, lon)
+                    getWeatherResult(lat, lon)
                 },
                 onFailure = { exception ->
                     Log.e("KotlinWeather", "Failed to get coordinates for zip $zipCode: ${exception.message}")
@@ -158,22 +131,102 @@ class KotlinWeatherRepository {
     suspend fun getLocationDataByZip(zipCode: String, countryCode: String = "US"): Result<ZipCodeResponse> {
         return withContext(Dispatchers.IO) {
             try {
-                val zipQuery = "$zipCode,$countryCode"
-                val response = apiService.getCoordinatesFromZip(
-                    zip = zipQuery,
-                    appid = WeatherApiService.API_KEY
-                )
-                if (response.isSuccessful && response.body() != null) {
-                    val zipCodeResponse = response.body()!!
-                    Log.d("KotlinWeather", "Got location data for zip $zipCode: ${zipCodeResponse.name}")
-                    Result.success(zipCodeResponse)
-                } else {
-                    Result.failure(Exception("Geocoding API call failed: ${response.code()} - ${response.message()}"))
-                }
+                val zipCodeResponse = fetchZipLocation(zipCode, countryCode)
+                Log.d("KotlinWeather", "Got location data for zip $zipCode: ${zipCodeResponse.name}")
+                Result.success(zipCodeResponse)
             } catch (e: Exception) {
                 Log.e("KotlinWeather", "Exception getting location data for zip $zipCode: ${e.message}")
                 Result.failure(e)
             }
         }
     }
+
+    /**
+     * Resolve the requested sections from cache and network
+     * A cached snapshot close enough in distance and age is reused; if it lacks some
+     * sections only those are requested and merged into it. When the request fails
+     * (retries exhausted or circuit open) a stale snapshot is served if there is one.
+     */
+    private suspend fun fetchWeather(
+        latitude: Double,
+        longitude: Double,
+        sections: Set<WeatherSection>,
+        priority: RequestPriority
+    ): WeatherSnapshotCache.Snapshot {
+        val cached = snapshotCache.find(latitude, longitude, UNITS)
+        if (cached != null && cached.sections.containsAll(sections)) {
+            Log.d("KotlinWeather", "Reusing cached snapshot ${cached.key} for lat=$latitude, lon=$longitude")
+            return cached
+        }
+
+        val missing = if (cached != null) sections - cached.sections else sections
+        val fetched = try {
+            requestSections(latitude, longitude, missing, priority)
+        } catch (e: Exception) {
+            if (e is CancellationException) throw e
+            // API unhealthy: serve an older snapshot rather than an error
+            val stale = snapshotCache.find(latitude, longitude, UNITS, WeatherSnapshotCache.ReusePolicy.STALE_FALLBACK)
+            if (stale != null && stale.sections.containsAll(sections)) {
+                Log.w("KotlinWeather", "Serving stale snapshot ${stale.key} after error: ${e.message}")
+                return stale
+            }
+            throw e
+        }
+
+        if (cached == null) {
+            return snapshotCache.put(latitude, longitude, UNITS, fetched, missing)
+        }
+
+        Log.d("KotlinWeather", "Merging sections $missing into cached snapshot ${cached.key}")
+        val merged = WeatherSection.merge(cached.toPayload(), fetched, missing)
+        return snapshotCache.put(latitude, longitude, UNITS, merged, cached.sections + missing, cached.fetchedAt)
+    }
+
+    /**
+     * One Call request for [sections], shared with any identical call already in flight
+     */
+    private suspend fun requestSections(
+        latitude: Double,
+        longitude: Double,
+        sections: Set<WeatherSection>,
+        priority: RequestPriority
+    ): WeatherPayload {
+        val exclude = WeatherSection.excludeFor(sections)
+        val key = WeatherRequestCoalescing.weatherKey(latitude, longitude, exclude, UNITS, priority)
+        return WeatherRequestCoalescing.weather.execute(key) {
+            val response = apiService.getWeatherData(
+                lat = latitude,
+                lon = longitude,
+                exclude = exclude,
+                appid = WeatherApiService.API_KEY,
+                units = UNITS,
+                priority = priority
+            )
+            val body = response.body()
+            if (response.isSuccessful && body != null) {
+                body
+            } else {
+                throw Exception("API call failed: ${response.code()} - ${response.message()}")
+            }
+        }
+    }
+
+    /**
+     * Zip geocoding request shared with any identical call already in flight
+     */
+    private suspend fun fetchZipLocation(zipCode: String, countryCode: String): ZipCodeResponse {
+        val key = WeatherRequestCoalescing.zipKey(zipCode, countryCode)
+        return WeatherRequestCoalescing.zipLocations.execute(key) {
+            val response = apiService.getCoordinatesFromZip(
+                zip = "${zipCode.trim()},${countryCode.trim()}",
+                appid = WeatherApiService.API_KEY
+            )
+            val body = response.body()
+            if (response.isSuccessful && body != null) {
+                body
+            } else {
+                throw Exception("Geocoding API call failed: ${response.code()} - ${response.message()}")
+            }
+        }
+    }
 }
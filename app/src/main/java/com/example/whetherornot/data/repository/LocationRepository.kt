@@ -1,12 +1,23 @@
 package com.example.whetherornot.data.repository
 
 import android.content.Context
+import androidx.lifecycle.DefaultLifecycleObserver
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleOwner
 import androidx.lifecycle.LiveData
+import androidx.lifecycle.ProcessLifecycleOwner
 import androidx.lifecycle.asLiveData
+import androidx.paging.Pager
+import androidx.paging.PagingConfig
+import androidx.paging.PagingData
 import com.example.whetherornot.data.database.WeatherDatabase
 import com.example.whetherornot.data.database.LocationDao
+import com.example.whetherornot.data.database.LocationSearch
+import com.example.whetherornot.data.model.SavedLocationSummary
 import com.example.whetherornot.data.model.ZipCodeResponse
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 
@@ -15,8 +26,36 @@ import kotlinx.coroutines.withContext
  */
 class LocationRepository(context: Context) {
 
+    companion object {
+        private const val PAGE_SIZE = 30
+
+        @Volatile
+        private var WRITE_QUEUE: LocationWriteQueue? = null
+
+        // One queue for every repository instance, so saves from both tabs coalesce
+        private fun writeQueueFor(database: WeatherDatabase): LocationWriteQueue {
+            return WRITE_QUEUE ?: synchronized(this) {
+                WRITE_QUEUE ?: LocationWriteQueue(database).also { WRITE_QUEUE = it }
+            }
+        }
+
+        /**
+         * Write queued saves whenever the app goes to the background, where it may be killed
+         * Call once, on the main thread.
+         */
+        @JvmStatic
+        fun flushSavesOnStop(lifecycle: Lifecycle = ProcessLifecycleOwner.get().lifecycle) {
+            lifecycle.addObserver(object : DefaultLifecycleObserver {
+                override fun onStop(owner: LifecycleOwner) {
+                    WRITE_QUEUE?.startFlush()
+                }
+            })
+        }
+    }
+
     private val database = WeatherDatabase.getDatabase(context)
     private val locationDao: LocationDao = database.locationDao()
+    private val writeQueue = writeQueueFor(database)
 
     // Flow-based operations for reactive UI updates
     fun getAllLocations(): Flow<List<ZipCodeResponse>> = locationDao.getAllLocations()
@@ -26,7 +65,47 @@ class LocationRepository(context: Context) {
     fun getRecentLocations(): Flow<List<ZipCodeResponse>> = locationDao.getRecentLocations()
 
     fun searchLocationsByName(name: String): Flow<List<ZipCodeResponse>> =
-        locationDao.searchLocationsByName(name)
+        searchLocations(name)
+
+    /**
+     * Ranked prefix search over saved names and zips; empty when nothing searchable was typed
+     */
+    fun searchLocations(query: String, favoritesOnly: Boolean = false): Flow<List<ZipCodeResponse>> {
+        val match = LocationSearch.matchExpression(query) ?: return flowOf(emptyList())
+        return locationDao.searchLocations(match, query.trim(), favoritesOnly)
+    }
+
+    /**
+     * The [limit] most recently searched locations, for dropdowns
+     * Room re-queries on every write to the table; unchanged results are not re-emitted.
+     */
+    fun getRecentLocationSummaries(limit: Int): Flow<List<SavedLocationSummary>> =
+        locationDao.getRecentLocationSummaries(limit).distinctUntilChanged()
+
+    /**
+     * Best [limit] saved matches for what is being typed, for dropdowns
+     */
+    fun searchLocationSummaries(query: String, limit: Int): Flow<List<SavedLocationSummary>> {
+        val match = LocationSearch.matchExpression(query) ?: return flowOf(emptyList())
+        return locationDao.searchLocationSummaries(match, query.trim(), limit).distinctUntilChanged()
+    }
+
+    /**
+     * Saved locations a page at a time, for lists that may hold the whole history
+     * Placeholders keep the scrollbar and item positions stable while pages load.
+     * @param query Search text; blank lists every location, recent first (favorites by name)
+     */
+    fun pagedLocations(query: String, favoritesOnly: Boolean): Flow<PagingData<ZipCodeResponse>> {
+        val match = LocationSearch.matchExpression(query)
+        if (query.isNotBlank() && match == null) return flowOf(PagingData.empty())
+        return Pager(PagingConfig(pageSize = PAGE_SIZE, enablePlaceholders = true)) {
+            when {
+                match != null -> locationDao.pageSearchLocations(match, query.trim(), favoritesOnly)
+                favoritesOnly -> locationDao.pageFavoriteLocations()
+                else -> locationDao.pageAllLocations()
+            }
+        }.flow
+    }
 
     // LiveData versions for compatibility with existing code
     fun getAllLocationsLiveData(): LiveData<List<ZipCodeResponse>> =
@@ -101,21 +180,17 @@ class LocationRepository(context: Context) {
 
     /**
      * Save a location from API response and update search time if it already exists
+     * Favorites are preserved. The write is queued and flushed shortly after, together
+     * with any other saves made meanwhile; use [flushPendingSaves] when it must land now.
      */
-    suspend fun saveOrUpdateLocation(location: ZipCodeResponse) =
-        withContext(Dispatchers.IO) {
-            val existingLocation = locationDao.getLocationByZip(location.zip)
-            if (existingLocation != null) {
-                // Update search time and preserve favorite status
-                val updatedLocation = location.copy(
-                    searchedAt = System.currentTimeMillis(),
-                    isFavorite = existingLocation.isFavorite
-                )
-                locationDao.updateLocation(updatedLocation)
-            } else {
-                locationDao.insertLocation(location)
-            }
-        }
+    fun saveOrUpdateLocation(location: ZipCodeResponse) {
+        writeQueue.enqueue(location, searchedAt = System.currentTimeMillis())
+    }
+
+    /**
+     * Write any queued [saveOrUpdateLocation] calls immediately
+     */
+    suspend fun flushPendingSaves() = writeQueue.flush()
 
     /**
      * Check if location exists in database
@@ -0,0 +1,124 @@
+package com.example.whetherornot.data.repository
+
+import android.util.Log
+import androidx.room.withTransaction
+import com.example.whetherornot.data.database.WeatherDatabase
+import com.example.whetherornot.data.model.ZipCodeResponse
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+
+/**
+ * Write-behind buffer for saved location upserts
+ * Saves are held for [flushDelayMillis]; repeated saves of the same zip collapse into
+ * the latest one and the whole batch is written in a single transaction. A batch that
+ * fails to write is queued again behind any newer saves and retried with backoff.
+ */
+class LocationWriteQueue(
+    private val database: WeatherDatabase,
+    private val scope: CoroutineScope = CoroutineScope(SupervisorJob() + Dispatchers.IO),
+    private val flushDelayMillis: Long = DEFAULT_FLUSH_DELAY_MILLIS
+) {
+
+    companion object {
+        const val DEFAULT_FLUSH_DELAY_MILLIS = 500L
+        private const val MAX_RETRY_DELAY_MILLIS = 60_000L
+        private const val TAG = "LocationWriteQueue"
+    }
+
+    private class PendingSave(val location: ZipCodeResponse, val searchedAt: Long)
+
+    // Keyed by zip, so only the latest save of each location is written
+    private val pending = LinkedHashMap<String, PendingSave>()
+    private var scheduledFlush: Job? = null
+    private var consecutiveFailures = 0
+
+    // One batch at a time, so an older batch can never land after a newer one
+    private val flushLock = Mutex()
+
+    /**
+     * Queue [location] to be saved with [searchedAt]; returns immediately
+     */
+    fun enqueue(location: ZipCodeResponse, searchedAt: Long) {
+        synchronized(pending) {
+            pending[location.zip] = PendingSave(location, searchedAt)
+            scheduleFlushLocked(flushDelayMillis)
+        }
+    }
+
+    /**
+     * Start a [flush] without waiting for the flush delay or for the write to finish
+     */
+    fun startFlush() {
+        scope.launch { flush() }
+    }
+
+    /**
+     * Write everything queued so far now, in one transaction
+     */
+    suspend fun flush() = flushLock.withLock {
+        val batch = synchronized(pending) {
+            scheduledFlush = null
+            pending.values.toList().also { pending.clear() }
+        }
+        if (batch.isEmpty()) return@withLock
+
+        val locationDao = database.locationDao()
+        try {
+            database.withTransaction {
+                for (save in batch) {
+                    val location = save.location
+                    locationDao.upsertLocation(
+                        zip = location.zip,
+                        name = location.name,
+                        lat = location.lat,
+                        lon = location.lon,
+                        country = location.country,
+                        searchedAt = save.searchedAt,
+                        isFavorite = location.isFavorite
+                    )
+                }
+            }
+            synchronized(pending) { consecutiveFailures = 0 }
+            Log.d(TAG, "Saved ${batch.size} location(s) in one transaction")
+        } catch (e: Exception) {
+            val cancelled = e is CancellationException
+            requeue(batch, retry = !cancelled)
+            if (cancelled) throw e
+            Log.e(TAG, "Failed to save ${batch.size} location(s), will retry: ${e.message}")
+        }
+    }
+
+    /**
+     * Put a failed batch back, unless a newer save of the same zip arrived meanwhile
+     */
+    private fun requeue(batch: List<PendingSave>, retry: Boolean) {
+        synchronized(pending) {
+            for (save in batch) {
+                val zip = save.location.zip
+                if (zip !in pending) pending[zip] = save
+            }
+            if (retry) {
+                consecutiveFailures++
+                val backoff = flushDelayMillis shl consecutiveFailures.coerceAtMost(16)
+                scheduleFlushLocked(backoff.coerceAtMost(MAX_RETRY_DELAY_MILLIS))
+            }
+        }
+    }
+
+    // Caller holds the pending lock
+    private fun scheduleFlushLocked(delayMillis: Long) {
+        if (scheduledFlush == null) {
+            scheduledFlush = scope.launch {
+                delay(delayMillis)
+                flush()
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.whetherornot.data.repository
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.suspendCancellableCoroutine
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executor
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * Single-flight request coalescing shared by the Java and Kotlin repositories
+ * Concurrent calls with the same key share one in-flight network call and one parsed result.
+ * The first caller starts the work; everyone else joins it until it completes.
+ */
+class RequestCoalescer<T : Any> {
+
+    /**
+     * Receives the shared result of a coalesced call
+     */
+    interface Completion<T> {
+        fun onSuccess(value: T)
+        fun onError(error: Throwable)
+    }
+
+    /**
+     * Starts the underlying work for the first caller and reports through [Completion]
+     */
+    fun interface Starter<T> {
+        fun start(completion: Completion<T>)
+    }
+
+    private val inFlight = ConcurrentHashMap<String, InFlightCall<T>>()
+
+    /**
+     * Coroutine version: runs [block] unless an identical call is already in flight
+     * If the caller running the shared call is cancelled, the others are not: one of
+     * them takes over and runs its own [block].
+     */
+    suspend fun execute(key: String, block: suspend () -> T): T {
+        while (true) {
+            val call = InFlightCall<T>()
+            val existing = inFlight.putIfAbsent(key, call)
+            if (existing != null) {
+                try {
+                    return existing.await()
+                } catch (e: LeaderCancelledException) {
+                    continue
+                }
+            }
+
+            try {
+                val value = block()
+                inFlight.remove(key, call)
+                call.complete(value, null)
+                return value
+            } catch (e: CancellationException) {
+                // Only this caller gave up; waiting callers retry instead of being cancelled
+                inFlight.remove(key, call)
+                call.complete(null, LeaderCancelledException())
+                throw e
+            } catch (e: Throwable) {
+                inFlight.remove(key, call)
+                call.complete(null, e)
+                throw e
+            }
+        }
+    }
+
+    /**
+     * Callback version for the Java repository
+     * @param callbackExecutor Executor used to deliver the result to [completion]
+     */
+    fun enqueue(key: String, callbackExecutor: Executor, completion: Completion<T>, starter: Starter<T>) {
+        val call = InFlightCall<T>()
+        val existing = inFlight.putIfAbsent(key, call)
+        val target = existing ?: call
+
+        target.join(object : Completion<T> {
+            override fun onSuccess(value: T) {
+                callbackExecutor.execute { completion.onSuccess(value) }
+            }
+
+            override fun onError(error: Throwable) {
+                if (error is LeaderCancelledException) {
+                    // The coroutine running the call was cancelled; start or join a fresh one
+                    enqueue(key, callbackExecutor, completion, starter)
+                } else {
+                    callbackExecutor.execute { completion.onError(error) }
+                }
+            }
+        })
+
+        if (existing != null) return
+
+        starter.start(object : Completion<T> {
+            override fun onSuccess(value: T) {
+                inFlight.remove(key, call)
+                call.complete(value, null)
+            }
+
+            override fun onError(error: Throwable) {
+                inFlight.remove(key, call)
+                call.complete(null, error)
+            }
+        })
+    }
+
+    /**
+     * Number of distinct calls currently in flight
+     */
+    fun inFlightCount(): Int = inFlight.size
+
+    /**
+     * Tells waiting callers that the shared call was abandoned, not failed
+     */
+    private class LeaderCancelledException : Exception("Coalesced call was cancelled by its caller")
+
+    /**
+     * One shared call and the callers waiting on it
+     */
+    private class InFlightCall<T : Any> {
+        private val waiters = mutableListOf<Completion<T>>()
+        private var value: T? = null
+        private var error: Throwable? = null
+        private var isDone = false
+
+        fun join(waiter: Completion<T>) {
+            synchronized(this) {
+                if (!isDone) {
+                    waiters.add(waiter)
+                    return
+                }
+            }
+            deliver(waiter)
+        }
+
+        suspend fun await(): T = suspendCancellableCoroutine { continuation ->
+            join(object : Completion<T> {
+                override fun onSuccess(value: T) {
+                    continuation.resume(value)
+                }
+
+                override fun onError(error: Throwable) {
+                    continuation.resumeWithException(error)
+                }
+            })
+        }
+
+        fun complete(result: T?, failure: Throwable?) {
+            val toNotify: List<Completion<T>>
+            synchronized(this) {
+                value = result
+                error = failure
+                isDone = true
+                toNotify = waiters.toList()
+                waiters.clear()
+            }
+            toNotify.forEach { deliver(it) }
+        }
+
+        private fun deliver(waiter: Completion<T>) {
+            val result = value
+            if (result != null) {
+                waiter.onSuccess(result)
+            } else {
+                waiter.onError(error ?: IllegalStateException("Coalesced call finished without a result"))
+            }
+        }
+    }
+}
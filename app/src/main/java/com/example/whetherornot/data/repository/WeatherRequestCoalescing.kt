@@ -0,0 +1,42 @@
+package com.example.whetherornot.data.repository
+
+import com.example.whetherornot.data.api.RequestPriority
+import com.example.whetherornot.data.model.WeatherPayload
+import com.example.whetherornot.data.model.ZipCodeResponse
+import java.util.Locale
+
+/**
+ * App-wide coalescers so the Java and Kotlin tabs share in-flight calls for the same request
+ * Keys are normalized so trivially different inputs (whitespace, case, GPS noise
+ * beyond 4 decimals) map to the same call.
+ */
+object WeatherRequestCoalescing {
+
+    @JvmStatic
+    val weather = RequestCoalescer<WeatherPayload>()
+
+    @JvmStatic
+    val zipLocations = RequestCoalescer<ZipCodeResponse>()
+
+    /**
+     * Key for a One Call request
+     * Priority is part of the key so a user request never waits on a background call that
+     * the quota governor may refuse or delay.
+     */
+    @JvmStatic
+    fun weatherKey(
+        latitude: Double,
+        longitude: Double,
+        exclude: String,
+        units: String,
+        priority: RequestPriority
+    ): String =
+        String.format(Locale.US, "onecall:%.4f,%.4f:%s:%s:%s", latitude, longitude, exclude, units, priority.name)
+
+    /**
+     * Key for a zip geocoding request
+     */
+    @JvmStatic
+    fun zipKey(zipCode: String, countryCode: String): String =
+        "zip:${zipCode.trim().uppercase(Locale.US)},${countryCode.trim().uppercase(Locale.US)}"
+}
@@ -0,0 +1,161 @@
+package com.example.whetherornot.data.repository
+
+import android.content.Context
+import android.util.Log
+import com.example.whetherornot.data.api.WeatherSection
+import com.example.whetherornot.data.cache.WeatherBinaryCodec
+import com.example.whetherornot.data.cache.WeatherSnapshotCache
+import com.example.whetherornot.data.database.WeatherDatabase
+import com.example.whetherornot.data.database.WeatherSnapshotDao
+import com.example.whetherornot.data.database.WeatherSnapshotEntity
+import com.example.whetherornot.data.model.WeatherDisplay
+import com.example.whetherornot.data.model.WeatherPayload
+import com.example.whetherornot.data.model.WeatherResult
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.suspendCancellableCoroutine
+import java.io.IOException
+import kotlin.coroutines.resume
+
+/**
+ * Offline-first weather: the last stored snapshot for a location is shown immediately,
+ * then refreshed from the network when it is older than [staleAfterMillis]
+ * @param fetchWeatherResult Network path, including the in-memory snapshot cache
+ * @param staleAfterMillis Age after which a stored snapshot is refreshed
+ */
+class WeatherSnapshotRepository(
+    context: Context,
+    private val fetchWeatherResult: suspend (latitude: Double, longitude: Double) -> Result<WeatherResult>,
+    private val snapshotCache: WeatherSnapshotCache = WeatherSnapshotCache.shared,
+    private val staleAfterMillis: Long = WeatherSnapshotCache.ReusePolicy.DEFAULT.maxAgeMillis,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    /**
+     * Refreshes through [weatherRepository], for the Kotlin tab
+     */
+    constructor(
+        context: Context,
+        weatherRepository: KotlinWeatherRepository = KotlinWeatherRepository()
+    ) : this(context, weatherRepository::getWeatherResult)
+
+    companion object {
+        private const val UNITS = "imperial"
+
+        /**
+         * Refreshes through [repository], for the Java tab
+         */
+        @JvmStatic
+        fun forJava(context: Context, repository: JavaWeatherRepository): WeatherSnapshotRepository =
+            WeatherSnapshotRepository(context, { latitude, longitude -> repository.awaitWeatherResult(latitude, longitude) })
+
+        private suspend fun JavaWeatherRepository.awaitWeatherResult(
+            latitude: Double,
+            longitude: Double
+        ): Result<WeatherResult> = suspendCancellableCoroutine { continuation ->
+            getWeatherResult(latitude, longitude, object : JavaWeatherRepository.WeatherResultCallback {
+                override fun onSuccess(weatherResult: WeatherResult) {
+                    continuation.resume(Result.success(weatherResult))
+                }
+
+                override fun onError(errorMessage: String?) {
+                    continuation.resume(Result.failure(IOException(errorMessage)))
+                }
+            })
+        }
+    }
+
+    // Delivers callback results on the main thread; each request is cancelled on its own
+    private val callbackScope = CoroutineScope(SupervisorJob() + Dispatchers.Main)
+
+    private val snapshotDao: WeatherSnapshotDao = WeatherDatabase.getDatabase(context).weatherSnapshotDao()
+
+    /**
+     * Emits the stored snapshot first, if any, then a fresh result when it was missing or stale
+     * A failed refresh is only emitted when there was nothing stored to show instead.
+     */
+    fun getWeatherResult(latitude: Double, longitude: Double): Flow<Result<WeatherResult>> = flow {
+        val key = snapshotCache.keyFor(latitude, longitude, UNITS)
+        val stored = readSnapshot(key)
+        if (stored != null) {
+            emit(Result.success(stored.second))
+            if (clock() - stored.first.fetchedAt <= staleAfterMillis) return@flow
+            Log.d("KotlinWeather", "Stored snapshot $key is stale, refreshing")
+        }
+
+        val refreshed = fetchWeatherResult(latitude, longitude)
+        refreshed.onSuccess { writeSnapshot(key, latitude, longitude, it) }
+        if (refreshed.isSuccess || stored == null) {
+            emit(refreshed)
+        } else {
+            Log.w("KotlinWeather", "Refresh failed, keeping stored snapshot $key: ${refreshed.exceptionOrNull()?.message}")
+        }
+    }.flowOn(Dispatchers.IO)
+
+    /**
+     * Callback form of [getWeatherResult] for the Java tab
+     * [callback] may be called twice, with the stored snapshot and then the refresh,
+     * always on the main thread.
+     * @return Cancel it to stop delivering results, e.g. when a newer request replaces this one
+     */
+    fun getWeatherResult(
+        latitude: Double,
+        longitude: Double,
+        callback: JavaWeatherRepository.WeatherResultCallback
+    ): Job = callbackScope.launch {
+        getWeatherResult(latitude, longitude).collect { result ->
+            result.fold(
+                onSuccess = { callback.onSuccess(it) },
+                onFailure = { callback.onError(it.message) }
+            )
+        }
+    }
+
+    /**
+     * Stored row and its decoded result; also seeds the in-memory cache so other screens reuse it
+     */
+    private suspend fun readSnapshot(key: String): Pair<WeatherSnapshotEntity, WeatherResult>? {
+        val entity = snapshotDao.getSnapshot(key) ?: return null
+        return try {
+            val response = WeatherBinaryCodec.decode(entity.payload)
+            // The stored snapshot is binary, so the original JSON is not available here
+            val snapshot = snapshotCache.put(entity.latitude, entity.longitude, entity.units,
+                WeatherPayload(response, null), WeatherSection.DEFAULT, entity.fetchedAt)
+            entity to WeatherResult(response, WeatherDisplay.from(snapshot.header, snapshot.hourly, snapshot.daily))
+        } catch (e: Exception) {
+            if (e is CancellationException) throw e
+            // Written by an older codec version or damaged; refetch instead
+            Log.w("KotlinWeather", "Dropping unreadable snapshot $key: ${e.message}")
+            snapshotDao.deleteSnapshot(key)
+            null
+        }
+    }
+
+    private suspend fun writeSnapshot(key: String, latitude: Double, longitude: Double, result: WeatherResult) {
+        // The network path may have served a cached or stale snapshot; keep its real age
+        val fetchedAt = snapshotCache.find(latitude, longitude, UNITS, WeatherSnapshotCache.ReusePolicy.STALE_FALLBACK)
+            ?.fetchedAt ?: clock()
+        try {
+            snapshotDao.insertSnapshot(
+                WeatherSnapshotEntity(
+                    locationKey = key,
+                    units = UNITS,
+                    latitude = latitude,
+                    longitude = longitude,
+                    fetchedAt = fetchedAt,
+                    payload = result.binary
+                )
+            )
+        } catch (e: Exception) {
+            if (e is CancellationException) throw e
+            Log.e("KotlinWeather", "Failed to store snapshot $key: ${e.message}")
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.whetherornot.ui
+
+import android.text.SpannableStringBuilder
+import android.text.Spanned
+import android.text.style.ForegroundColorSpan
+import androidx.annotation.ColorInt
+import com.example.whetherornot.data.json.JsonText
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+
+/**
+ * Pretty-prints JSON into a syntax-highlighted [SpannableStringBuilder] for TextViews
+ * Streams tokens straight into the builder, so it can run on a background thread
+ * without building a tree or an intermediate string.
+ */
+object JsonHighlighter {
+
+    private const val INDENT = "  "
+
+    class Palette(
+        @ColorInt val key: Int,
+        @ColorInt val string: Int,
+        @ColorInt val number: Int,
+        @ColorInt val literal: Int
+    )
+
+    @JvmStatic
+    fun highlight(json: ByteArray, palette: Palette): SpannableStringBuilder {
+        val out = SpannableStringBuilder()
+        JsonReader(json.inputStream().reader(Charsets.UTF_8)).use { reader ->
+            writeValue(reader, out, palette, 0)
+        }
+        return out
+    }
+
+    private fun writeValue(reader: JsonReader, out: SpannableStringBuilder, palette: Palette, depth: Int) {
+        when (reader.peek()) {
+            JsonToken.BEGIN_OBJECT -> {
+                reader.beginObject()
+                out.append('{')
+                var empty = true
+                while (reader.hasNext()) {
+                    if (!empty) out.append(',')
+                    empty = false
+                    newLine(out, depth + 1)
+                    colored(out, JsonText.quote(reader.nextName()), palette.key)
+                    out.append(": ")
+                    writeValue(reader, out, palette, depth + 1)
+                }
+                reader.endObject()
+                if (!empty) newLine(out, depth)
+                out.append('}')
+            }
+            JsonToken.BEGIN_ARRAY -> {
+                reader.beginArray()
+                out.append('[')
+                var empty = true
+                while (reader.hasNext()) {
+                    if (!empty) out.append(',')
+                    empty = false
+                    newLine(out, depth + 1)
+                    writeValue(reader, out, palette, depth + 1)
+                }
+                reader.endArray()
+                if (!empty) newLine(out, depth)
+                out.append(']')
+            }
+            JsonToken.STRING -> colored(out, JsonText.readScalar(reader), palette.string)
+            JsonToken.NUMBER -> colored(out, JsonText.readScalar(reader), palette.number)
+            JsonToken.BOOLEAN, JsonToken.NULL -> colored(out, JsonText.readScalar(reader), palette.literal)
+            else -> reader.skipValue()
+        }
+    }
+
+    private fun colored(out: SpannableStringBuilder, text: String?, @ColorInt color: Int) {
+        if (text == null) return
+        out.append(text, ForegroundColorSpan(color), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE)
+    }
+
+    private fun newLine(out: SpannableStringBuilder, depth: Int) {
+        out.append('\n')
+        repeat(depth) { out.append(INDENT) }
+    }
+}
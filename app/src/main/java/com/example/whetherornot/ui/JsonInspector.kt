@@ -0,0 +1,119 @@
+package com.example.whetherornot.ui
+
+import androidx.compose.foundation.clickable
+import androidx.compose.foundation.layout.Column
+import androidx.compose.foundation.layout.Row
+import androidx.compose.foundation.layout.fillMaxWidth
+import androidx.compose.foundation.layout.heightIn
+import androidx.compose.foundation.layout.padding
+import androidx.compose.foundation.layout.size
+import androidx.compose.foundation.lazy.LazyColumn
+import androidx.compose.material3.Card
+import androidx.compose.material3.CardDefaults
+import androidx.compose.material3.CircularProgressIndicator
+import androidx.compose.material3.MaterialTheme
+import androidx.compose.material3.Text
+import androidx.compose.material3.TextButton
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.getValue
+import androidx.compose.runtime.mutableStateOf
+import androidx.compose.runtime.produceState
+import androidx.compose.runtime.remember
+import androidx.compose.runtime.setValue
+import androidx.compose.ui.Alignment
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.text.font.FontFamily
+import androidx.compose.ui.text.font.FontWeight
+import androidx.compose.ui.text.style.TextOverflow
+import androidx.compose.ui.unit.dp
+import com.example.whetherornot.data.json.JsonOutline
+import com.example.whetherornot.data.model.WeatherResult
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+
+/**
+ * Collapsible raw JSON view for a weather result
+ * Nothing is serialized or tokenized until the card is opened. The outline is then
+ * built off the main thread and only the lines on screen are composed.
+ */
+@Composable
+fun JsonInspectorCard(result: WeatherResult, modifier: Modifier = Modifier) {
+    var isOpen by remember { mutableStateOf(false) }
+
+    Card(
+        modifier = modifier,
+        colors = CardDefaults.cardColors(
+            containerColor = MaterialTheme.colorScheme.surfaceVariant
+        )
+    ) {
+        Column(
+            modifier = Modifier.padding(16.dp)
+        ) {
+            Row(
+                modifier = Modifier.fillMaxWidth(),
+                verticalAlignment = Alignment.CenterVertically
+            ) {
+                Text(
+                    text = "Weather Data (JSON):",
+                    style = MaterialTheme.typography.titleMedium,
+                    fontWeight = FontWeight.Bold,
+                    modifier = Modifier.weight(1f)
+                )
+                TextButton(onClick = { isOpen = !isOpen }) {
+                    Text(if (isOpen) "Hide" else "Show")
+                }
+            }
+
+            if (isOpen) {
+                val outline by produceState<JsonOutline?>(initialValue = null, result) {
+                    value = withContext(Dispatchers.Default) { JsonOutline.parse(result.jsonBytes) }
+                }
+                outline?.let { JsonOutlineList(it) } ?: CircularProgressIndicator(
+                    modifier = Modifier
+                        .padding(8.dp)
+                        .size(24.dp)
+                )
+            }
+        }
+    }
+}
+
+/**
+ * Visible lines of [outline]; tapping an object or array expands or collapses it
+ * Height is bounded so the list can sit inside the screen's scrolling column.
+ */
+@Composable
+private fun JsonOutlineList(outline: JsonOutline) {
+    var expanded by remember(outline) { mutableStateOf(setOf(JsonOutline.ROOT)) }
+    val visible = remember(outline, expanded) { outline.visibleLines(expanded) }
+
+    LazyColumn(
+        modifier = Modifier
+            .fillMaxWidth()
+            .heightIn(max = 480.dp)
+    ) {
+        items(count = visible.size, key = { visible[it] }) { position ->
+            val index = visible[position]
+            val line = outline.lines[index]
+            val isExpanded = index in expanded
+            val text = when {
+                !line.isContainer -> line.text
+                isExpanded -> "▾ ${line.text}"
+                else -> "▸ ${line.collapsedText}"
+            }
+            Text(
+                text = text,
+                style = MaterialTheme.typography.bodySmall,
+                fontFamily = FontFamily.Monospace,
+                maxLines = 1,
+                overflow = TextOverflow.Ellipsis,
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .clickable(enabled = line.isContainer) {
+                        expanded = if (isExpanded) expanded - index else expanded + index
+                    }
+                    .padding(start = (line.depth * 12).dp, top = 2.dp, bottom = 2.dp)
+            )
+        }
+    }
+}
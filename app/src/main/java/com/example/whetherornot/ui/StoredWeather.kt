@@ -0,0 +1,20 @@
+package com.example.whetherornot.ui
+
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.State
+import androidx.compose.runtime.produceState
+import com.example.whetherornot.data.cache.WeatherStore
+
+/**
+ * Weather and its display strings stored in [WeatherStore] under [key]
+ * Available on the first frame when the payload is still in memory; after process
+ * death it is read back from disk and shown once loaded.
+ */
+@Composable
+fun rememberStoredWeather(key: String?): State<WeatherStore.Entry?> =
+    produceState(initialValue = key?.let { WeatherStore.peek(it) }, key) {
+        if (value == null && key != null) {
+            value = WeatherStore.load(key)
+        }
+    }
+
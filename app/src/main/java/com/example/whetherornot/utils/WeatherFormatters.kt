@@ -0,0 +1,64 @@
+package com.example.whetherornot.utils
+
+import java.text.SimpleDateFormat
+import java.util.Date
+import java.util.Locale
+import java.util.SimpleTimeZone
+import java.util.TimeZone
+
+/**
+ * Date formatters shared by every screen, cached per thread
+ * [SimpleDateFormat] is expensive to build and not thread-safe, so each thread keeps one
+ * instance per pattern, locale and UTC offset instead of creating one per item.
+ */
+object WeatherFormatters {
+
+    const val DAY_NAME = "EEEE"
+    const val SHORT_DAY_NAME = "EEE"
+    const val SHORT_DATE = "MMM d"
+    const val FULL_DATE = "EEEE, MMMM d, yyyy"
+    const val TIME = "h:mm a"
+    const val DATE_TIME = "MMM d, yyyy 'at' h:mm a"
+
+    private data class Key(val pattern: String, val locale: Locale, val offsetSeconds: Int)
+
+    // ThreadLocal.withInitial needs API 26
+    private val formatters = object : ThreadLocal<HashMap<Key, SimpleDateFormat>>() {
+        override fun initialValue() = HashMap<Key, SimpleDateFormat>()
+    }
+
+    /**
+     * Format a One Call timestamp in the location's own time
+     * @param epochSeconds Unix time in seconds, as in the API payload
+     * @param offsetSeconds The payload's timezone_offset
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun formatEpochSeconds(
+        epochSeconds: Long,
+        pattern: String,
+        offsetSeconds: Int,
+        locale: Locale = Locale.getDefault()
+    ): String = formatter(pattern, locale, offsetSeconds).format(Date(epochSeconds * 1000))
+
+    /**
+     * Format a device timestamp, such as when a location was searched, in the device's time
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun formatLocalMillis(
+        epochMillis: Long,
+        pattern: String,
+        locale: Locale = Locale.getDefault()
+    ): String {
+        val offsetSeconds = TimeZone.getDefault().getOffset(epochMillis) / 1000
+        return formatter(pattern, locale, offsetSeconds).format(Date(epochMillis))
+    }
+
+    private fun formatter(pattern: String, locale: Locale, offsetSeconds: Int): SimpleDateFormat =
+        formatters.get()!!.getOrPut(Key(pattern, locale, offsetSeconds)) {
+            SimpleDateFormat(pattern, locale).apply {
+                timeZone = SimpleTimeZone(offsetSeconds * 1000, "UTC")
+            }
+        }
+}
@@ -0,0 +1,115 @@
+package com.example.whetherornot.data.cache
+
+import com.example.whetherornot.data.json.WeatherJson
+import com.example.whetherornot.data.json.WeatherJsonReader
+import com.example.whetherornot.data.model.WeatherResponse
+import com.google.gson.stream.JsonReader
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Test
+import java.io.IOException
+
+/**
+ * Round-trip tests for [WeatherBinaryCodec] against a recorded One Call payload
+ */
+class WeatherBinaryCodecTest {
+
+    private fun loadRecorded(): WeatherResponse {
+        val stream = javaClass.classLoader!!.getResourceAsStream("onecall_duluth.json")
+        return JsonReader(stream.reader()).use { WeatherJsonReader.readWeatherResponse(it) }
+    }
+
+    @Test
+    fun roundTrip_recordedPayload_isLossless() {
+        val original = loadRecorded()
+
+        val decoded = WeatherBinaryCodec.decode(WeatherBinaryCodec.encode(original))
+
+        assertEquals(original, decoded)
+    }
+
+    @Test
+    fun encode_recordedPayload_isSeveralTimesSmallerThanJson() {
+        val original = loadRecorded()
+
+        val binarySize = WeatherBinaryCodec.encode(original).size
+        val jsonSize = WeatherJson.gson.toJson(original).toByteArray(Charsets.UTF_8).size
+
+        assertTrue("binary $binarySize bytes vs JSON $jsonSize bytes", binarySize * 3 < jsonSize)
+    }
+
+    @Test
+    fun roundTrip_currentOnlyPayload_keepsMissingSectionsNull() {
+        val original = loadRecorded().copy(hourly = null, daily = null)
+
+        val decoded = WeatherBinaryCodec.decode(WeatherBinaryCodec.encode(original))
+
+        assertEquals(original, decoded)
+        assertNull(decoded.hourly)
+        assertNull(decoded.daily)
+    }
+
+    @Test
+    fun roundTrip_forecastOnlyPayload_usesFirstForecastAsBaseTime() {
+        val original = loadRecorded().copy(current = null)
+
+        val decoded = WeatherBinaryCodec.decode(WeatherBinaryCodec.encode(original))
+
+        assertEquals(original, decoded)
+    }
+
+    @Test
+    fun roundTrip_valuesBeyondFixedPointPrecision_areKeptExactly() {
+        val recorded = loadRecorded()
+        val current = recorded.current!!
+        val original = recorded.copy(
+            lat = 46.838412345,
+            current = current.copy(temp = 51.3149, feelsLike = -0.0, windGust = null)
+        )
+
+        val decoded = WeatherBinaryCodec.decode(WeatherBinaryCodec.encode(original))
+
+        assertEquals(original, decoded)
+    }
+
+    @Test
+    fun decode_unsupportedVersion_throws() {
+        val bytes = WeatherBinaryCodec.encode(loadRecorded())
+        // Version byte follows the 4-byte magic
+        bytes[4] = (WeatherBinaryCodec.FORMAT_VERSION + 1).toByte()
+
+        try {
+            WeatherBinaryCodec.decode(bytes)
+            fail("Expected IOException for an unknown version")
+        } catch (expected: IOException) {
+        }
+    }
+
+    @Test
+    fun decode_truncatedInput_throws() {
+        val bytes = WeatherBinaryCodec.encode(loadRecorded())
+
+        try {
+            WeatherBinaryCodec.decode(bytes.copyOf(bytes.size / 2))
+            fail("Expected IOException for truncated input")
+        } catch (expected: IOException) {
+        }
+    }
+
+    @Test
+    fun decode_corruptElementCount_throwsInsteadOfAllocating() {
+        val original = loadRecorded().copy(current = null, hourly = emptyList(), daily = null)
+        val bytes = WeatherBinaryCodec.encode(original)
+        // The hourly count is the last byte; swap its 0 for a varint of Int.MAX_VALUE
+        val corrupt = bytes.copyOf(bytes.size - 1) +
+            byteArrayOf(0xFF.toByte(), 0xFF.toByte(), 0xFF.toByte(), 0xFF.toByte(), 0x07)
+
+        try {
+            WeatherBinaryCodec.decode(corrupt)
+            fail("Expected IOException for an impossible element count")
+        } catch (expected: IOException) {
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.whetherornot.data.database
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+/**
+ * Tests for turning typed text into FTS MATCH expressions
+ */
+class LocationSearchTest {
+
+    @Test
+    fun matchExpression_makesEveryWordAPrefixTerm() {
+        assertEquals("st* paul* 551*", LocationSearch.matchExpression("St. Paul 551"))
+    }
+
+    @Test
+    fun matchExpression_neutralizesFtsSyntax() {
+        assertEquals("dul* or*", LocationSearch.matchExpression("\"dul*\" -OR"))
+    }
+
+    @Test
+    fun matchExpression_keepsNonAsciiLetters() {
+        assertEquals("montréal*", LocationSearch.matchExpression("montréal"))
+    }
+
+    @Test
+    fun matchExpression_returnsNullWhenNothingSearchable() {
+        assertNull(LocationSearch.matchExpression("  -*  "))
+    }
+}
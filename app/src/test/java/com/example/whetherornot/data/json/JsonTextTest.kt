@@ -0,0 +1,35 @@
+package com.example.whetherornot.data.json
+
+import com.google.gson.JsonParser
+import com.google.gson.stream.JsonReader
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+/**
+ * Checks that [JsonText] produces valid JSON source for names and scalars
+ */
+class JsonTextTest {
+
+    @Test
+    fun quote_escapesQuotesBackslashesAndControlCharacters() {
+        val value = "say \"hi\"\\\n\tbell\u0007 sep\u2028"
+
+        val quoted = JsonText.quote(value)
+
+        assertEquals("\"say \\\"hi\\\"\\\\\\n\\tbell\\u0007 sep\\u2028\"", quoted)
+        assertEquals(value, JsonParser().parse(quoted).asString)
+    }
+
+    @Test
+    fun readScalar_keepsNumberLiteralsAndStopsAtContainers() {
+        val reader = JsonReader("[1.50, \"a\\nb\", true, null, {}]".reader())
+        reader.beginArray()
+
+        assertEquals("1.50", JsonText.readScalar(reader))
+        assertEquals("\"a\\nb\"", JsonText.readScalar(reader))
+        assertEquals("true", JsonText.readScalar(reader))
+        assertEquals("null", JsonText.readScalar(reader))
+        assertNull(JsonText.readScalar(reader))
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.whetherornot.data.json
+
+import com.example.whetherornot.data.api.WeatherSection
+import com.google.gson.JsonParser
+import com.google.gson.stream.JsonReader
+import okhttp3.MediaType.Companion.toMediaType
+import okio.Buffer
+import okio.BufferedSource
+import okio.Source
+import okio.Timeout
+import okio.buffer
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.EnumSet
+
+/**
+ * Checks that [WeatherJsonReader.readWeatherResponseLazily] matches the eager decoder
+ */
+class LazyWeatherDecodingTest {
+
+    private fun loadRecordedBytes(): ByteArray =
+        javaClass.classLoader!!.getResourceAsStream("onecall_duluth.json").use { it.readBytes() }
+
+    private fun recordedSource(): BufferedSource = Buffer().write(loadRecordedBytes())
+
+    /**
+     * Hands out one byte per read, like a slow network body
+     */
+    private class TrickleSource(bytes: ByteArray) : Source {
+        private val data = Buffer().write(bytes)
+
+        override fun read(sink: Buffer, byteCount: Long): Long = data.read(sink, minOf(byteCount, 1L))
+
+        override fun timeout(): Timeout = Timeout.NONE
+
+        override fun close() = Unit
+    }
+
+    @Test
+    fun lazyDecode_recordedPayload_equalsEagerDecode() {
+        val bytes = loadRecordedBytes()
+        val eager = JsonReader(bytes.inputStream().reader()).use { WeatherJsonReader.readWeatherResponse(it) }
+
+        val lazy = WeatherJsonReader.readWeatherResponseLazily(Buffer().write(bytes)).response
+
+        assertEquals(eager, lazy)
+    }
+
+    @Test
+    fun lazyDecode_bodyArrivingByteByByte_equalsEagerDecode() {
+        val bytes = loadRecordedBytes()
+        val eager = JsonReader(bytes.inputStream().reader()).use { WeatherJsonReader.readWeatherResponse(it) }
+
+        val lazy = WeatherJsonReader.readWeatherResponseLazily(TrickleSource(bytes).buffer()).response
+
+        assertEquals(eager, lazy)
+    }
+
+    @Test
+    fun lazyDecode_forecastsStayRawUntilAccessed() {
+        val lazy = WeatherJsonReader.readWeatherResponseLazily(recordedSource()).response
+        val hourly = lazy.hourly as LazyJsonList
+        val daily = lazy.daily as LazyJsonList
+
+        assertEquals(4, hourly.size)
+        assertEquals(3, daily.size)
+        assertFalse(hourly.isDecoded)
+
+        hourly[0]
+
+        assertTrue(hourly.isDecoded)
+        assertFalse(daily.isDecoded)
+    }
+
+    @Test
+    fun toJson_undecodedSections_matchesDecodedOutput() {
+        val bytes = loadRecordedBytes()
+        val eager = JsonReader(bytes.inputStream().reader()).use { WeatherJsonReader.readWeatherResponse(it) }
+        val lazy = WeatherJsonReader.readWeatherResponseLazily(Buffer().write(bytes)).response
+
+        val copied = WeatherJson.gson.toJson(lazy)
+
+        assertFalse((lazy.daily as LazyJsonList).isDecoded)
+        assertEquals(eager, WeatherJson.gson.fromJson(copied, eager.javaClass))
+    }
+
+    @Test
+    fun lazyDecode_excludedSections_areNull() {
+        val lazy = WeatherJsonReader.readWeatherResponseLazily(recordedSource(), EnumSet.of(WeatherSection.CURRENT)).response
+
+        assertNull(lazy.hourly)
+        assertNull(lazy.daily)
+    }
+
+    @Test
+    fun lazyDecode_stopsOnceRequestedSectionsAreRead() {
+        val bytes = loadRecordedBytes()
+        val text = String(bytes, Charsets.UTF_8)
+        // Cut the body off inside the trailing alerts block; it must never be reached
+        val truncated = text.substring(0, text.indexOf("\"alerts\"") + 12).toByteArray(Charsets.UTF_8)
+        val eager = JsonReader(bytes.inputStream().reader()).use { WeatherJsonReader.readWeatherResponse(it) }
+
+        val lazy = WeatherJsonReader.readWeatherResponseLazily(Buffer().write(truncated)).response
+
+        assertEquals(eager, lazy)
+    }
+
+    @Test
+    fun sectionsOf_readsTheSectionsRecordedOnTheMediaType() {
+        val contentType = "application/json; charset=utf-8; sections=\"current,daily\"".toMediaType()
+
+        assertEquals(
+            EnumSet.of(WeatherSection.CURRENT, WeatherSection.DAILY),
+            WeatherSectionsInterceptor.sectionsOf(contentType)
+        )
+        assertEquals(WeatherSection.DEFAULT, WeatherSectionsInterceptor.sectionsOf(null))
+    }
+
+    @Test
+    fun source_reassemblesTheRequestedSections() {
+        val bytes = loadRecordedBytes()
+        // minutely and alerts are never requested, so they are not kept
+        val expected = JsonParser().parse(String(bytes, Charsets.UTF_8)).asJsonObject.apply {
+            remove("minutely")
+            remove("alerts")
+        }
+
+        val source = WeatherJsonReader.readWeatherResponseLazily(Buffer().write(bytes)).source!!
+
+        assertEquals(expected, JsonParser().parse(String(source.toByteArray(), Charsets.UTF_8)))
+    }
+
+    @Test
+    fun source_merge_takesUpdatedSectionsFromTheUpdate() {
+        val full = WeatherJsonReader.readWeatherResponseLazily(recordedSource())
+        val currentOnly = WeatherJsonReader.readWeatherResponseLazily(recordedSource(), EnumSet.of(WeatherSection.CURRENT))
+
+        val merged = currentOnly.source!!.merge(full.source!!, setOf(WeatherSection.HOURLY, WeatherSection.DAILY))
+
+        assertEquals(
+            JsonParser().parse(String(full.source!!.toByteArray(), Charsets.UTF_8)),
+            JsonParser().parse(String(merged.toByteArray(), Charsets.UTF_8))
+        )
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.whetherornot.data.model
+
+import com.example.whetherornot.data.json.WeatherJsonReader
+import com.google.gson.stream.JsonReader
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Test
+import java.util.Locale
+
+/**
+ * Tests for the columnar [HourlySeries]/[DailySeries] against a recorded One Call payload
+ */
+class WeatherSeriesTest {
+
+    private fun loadRecorded(): WeatherResponse {
+        val stream = javaClass.classLoader!!.getResourceAsStream("onecall_duluth.json")
+        return JsonReader(stream.reader()).use { WeatherJsonReader.readWeatherResponse(it) }
+    }
+
+    @Test
+    fun hourlySeries_toList_matchesSource() {
+        val hours = loadRecorded().hourly!!
+
+        assertEquals(hours, HourlySeries.from(hours).toList())
+    }
+
+    @Test
+    fun dailySeries_toList_matchesSource() {
+        val days = loadRecorded().daily!!
+
+        assertEquals(days, DailySeries.from(days).toList())
+    }
+
+    @Test
+    fun hourlySeries_missingGust_staysNull() {
+        val hours = loadRecorded().hourly!!
+        val withoutGust = hours.mapIndexed { i, hour -> if (i == 0) hour.copy(windGust = null) else hour }
+
+        val series = HourlySeries.from(withoutGust)
+
+        assertNull(series.windGust(0))
+        assertEquals(withoutGust[1].windGust, series.windGust(1))
+    }
+
+    @Test
+    fun display_fromSeries_matchesDisplayFromResponse() {
+        val response = loadRecorded()
+
+        val fromSeries = WeatherDisplay.from(
+            response.copy(hourly = null, daily = null),
+            HourlySeries.from(response.hourly!!),
+            DailySeries.from(response.daily!!),
+            Locale.US
+        )
+
+        assertEquals(WeatherDisplay.from(response, Locale.US), fromSeries)
+        assertEquals(response.daily!!.size, fromSeries.daily.size)
+        assertNotNull(fromSeries.hourlyOutlook)
+    }
+}
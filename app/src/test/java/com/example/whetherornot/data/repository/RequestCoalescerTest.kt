@@ -0,0 +1,110 @@
+package com.example.whetherornot.data.repository
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitCancellation
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.yield
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Tests for [RequestCoalescer] sharing and hand-over between callers
+ */
+class RequestCoalescerTest {
+
+    private val directExecutor = Executor { it.run() }
+
+    @Test
+    fun execute_concurrentCallers_shareOneCall() = runBlocking {
+        val coalescer = RequestCoalescer<String>()
+        val release = CompletableDeferred<Unit>()
+        val calls = AtomicInteger()
+
+        val first = async { coalescer.execute("k") { calls.incrementAndGet(); release.await(); "shared" } }
+        yield()
+        val second = async { coalescer.execute("k") { calls.incrementAndGet(); "own" } }
+        yield()
+        release.complete(Unit)
+
+        assertEquals("shared", first.await())
+        assertEquals("shared", second.await())
+        assertEquals(1, calls.get())
+    }
+
+    @Test
+    fun execute_leaderCancelled_followerTakesOverTheWork() = runBlocking {
+        val coalescer = RequestCoalescer<String>()
+        val leaderStarted = CompletableDeferred<Unit>()
+        val calls = AtomicInteger()
+
+        val leader = launch {
+            coalescer.execute("k") {
+                calls.incrementAndGet()
+                leaderStarted.complete(Unit)
+                awaitCancellation()
+            }
+        }
+        leaderStarted.await()
+        val follower = async { coalescer.execute("k") { calls.incrementAndGet(); "fresh" } }
+        // Let the follower join the leader's call before cancelling it
+        yield()
+
+        leader.cancel()
+
+        assertEquals("fresh", follower.await())
+        assertTrue(leader.isCancelled)
+        assertEquals(2, calls.get())
+        assertEquals(0, coalescer.inFlightCount())
+    }
+
+    @Test
+    fun enqueue_leaderCancelled_callbackFollowerStartsItsOwnCall() = runBlocking {
+        val coalescer = RequestCoalescer<String>()
+        val leaderStarted = CompletableDeferred<Unit>()
+        val result = CompletableDeferred<String>()
+
+        val leader = launch {
+            coalescer.execute("k") {
+                leaderStarted.complete(Unit)
+                awaitCancellation()
+            }
+        }
+        leaderStarted.await()
+        coalescer.enqueue("k", directExecutor, object : RequestCoalescer.Completion<String> {
+            override fun onSuccess(value: String) {
+                result.complete(value)
+            }
+
+            override fun onError(error: Throwable) {
+                result.completeExceptionally(error)
+            }
+        }) { completion -> completion.onSuccess("from callback") }
+
+        leader.cancel()
+
+        assertEquals("from callback", result.await())
+        assertEquals(0, coalescer.inFlightCount())
+    }
+
+    @Test
+    fun execute_leaderFails_followerSeesTheFailure() = runBlocking {
+        val coalescer = RequestCoalescer<String>()
+        val release = CompletableDeferred<Unit>()
+
+        val leader = async {
+            runCatching { coalescer.execute("k") { release.await(); throw IllegalStateException("boom") } }
+        }
+        yield()
+        val follower = async { runCatching { coalescer.execute("k") { error("follower should not run") } } }
+        yield()
+        release.complete(Unit)
+
+        assertEquals("boom", leader.await().exceptionOrNull()?.message)
+        assertEquals("boom", follower.await().exceptionOrNull()?.message)
+    }
+}
@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+#
+# Regenerates the Room schema JSON in app/schemas for every WeatherDatabase version
+# Each version is compiled from the last commit that still had it, in a throwaway
+# worktree, so the checked-in files always come from Room itself. Needs the Android
+# SDK (local.properties or ANDROID_HOME) like any other build.
+#
+# Usage: ./export-room-schemas.sh
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")" && pwd)"
+DATABASE_SOURCE="app/src/main/java/com/example/whetherornot/data/database/WeatherDatabase.kt"
+SCHEMA_DIR="app/schemas/com.example.whetherornot.data.database.WeatherDatabase"
+
+cd "$ROOT"
+latest="$(sed -n 's/^ *version = \([0-9]*\),.*/\1/p' "$DATABASE_SOURCE")"
+work="$(mktemp -d)"
+trap 'git worktree remove --force "$work/tree" >/dev/null 2>&1 || true; rm -rf "$work"' EXIT
+mkdir -p "$SCHEMA_DIR"
+
+for version in $(seq 1 "$latest"); do
+    # The last commit at this version is the parent of the one that moved to the next
+    if [ "$version" -eq "$latest" ]; then
+        revision="HEAD"
+    else
+        next="$(git log --reverse --format=%H -G"^ *version = $((version + 1))," -- "$DATABASE_SOURCE" | head -n 1)"
+        revision="$next^"
+    fi
+    echo "Exporting schema $version from $(git rev-parse --short "$revision")"
+
+    git worktree add --detach "$work/tree" "$revision" >/dev/null
+    [ -f local.properties ] && cp local.properties "$work/tree/"
+    (
+        cd "$work/tree"
+        # Early versions did not export schemas; switch it on just for this build
+        sed -i 's/exportSchema = false/exportSchema = true/' "$DATABASE_SOURCE"
+        if ! grep -q "room.schemaLocation" app/build.gradle.kts; then
+            printf '\nkapt {\n    arguments {\n        arg("room.schemaLocation", "$projectDir/schemas")\n    }\n}\n' \
+                >> app/build.gradle.kts
+        fi
+        ./gradlew -q :app:kaptDebugKotlin
+    )
+    cp "$work/tree/$SCHEMA_DIR/$version.json" "$SCHEMA_DIR/$version.json"
+    git worktree remove --force "$work/tree"
+done
+
+echo "Schemas written to $SCHEMA_DIR"